@@ -0,0 +1,58 @@
+package com.dinidu.loglens.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures embedding serialization to and from the database column format
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VectorConverterBenchmark {
+
+    @Param({"384"})
+    private int dimensions;
+
+    private VectorConverter converter;
+    private List<Float> vector;
+    private String column;
+
+    @Setup
+    public void setUp() {
+        converter = new VectorConverter();
+        SplittableRandom random = new SplittableRandom(42);
+        vector = new ArrayList<>(dimensions);
+        for (int i = 0; i < dimensions; i++) {
+            vector.add((float) (random.nextDouble() * 2 - 1));
+        }
+        column = converter.convertToDatabaseColumn(vector);
+    }
+
+    @Benchmark
+    public String toDatabaseColumn() {
+        return converter.convertToDatabaseColumn(vector);
+    }
+
+    @Benchmark
+    public List<Float> toEntityAttribute() {
+        return converter.convertToEntityAttribute(column);
+    }
+}
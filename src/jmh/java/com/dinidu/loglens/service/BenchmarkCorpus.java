@@ -0,0 +1,65 @@
+package com.dinidu.loglens.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads the benchmark corpus and scales it to the requested number of lines.
+ * <p>
+ * The corpus defaults to the bundled sample log and can be replaced with {@code -Dloglens.corpus=path}.
+ * Each repetition shifts the timestamps forward so scaled copies still look like a continuous log.
+ */
+final class BenchmarkCorpus {
+
+    static final String DEFAULT_CORPUS = "src/main/java/com/dinidu/loglens/sample-logs/application.log";
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int TIMESTAMP_LENGTH = 19;
+
+    private BenchmarkCorpus() {
+    }
+
+    static List<String> lines(int count) {
+        List<String> source = load();
+        List<String> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int copy = i / source.size();
+            String line = source.get(i % source.size());
+            lines.add(copy == 0 ? line : shift(line, (long) copy * source.size()));
+        }
+        return lines;
+    }
+
+    private static List<String> load() {
+        Path path = Path.of(System.getProperty("loglens.corpus", DEFAULT_CORPUS));
+        try {
+            List<String> lines = Files.readAllLines(path).stream()
+                    .filter(line -> !line.isBlank())
+                    .toList();
+            if (lines.isEmpty()) {
+                throw new IllegalStateException("Benchmark corpus is empty: " + path);
+            }
+            return lines;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read benchmark corpus " + path, e);
+        }
+    }
+
+    private static String shift(String line, long seconds) {
+        if (line.length() < TIMESTAMP_LENGTH) {
+            return line;
+        }
+        try {
+            LocalDateTime timestamp = LocalDateTime.parse(line.substring(0, TIMESTAMP_LENGTH), TIMESTAMP_FORMAT);
+            return timestamp.plusSeconds(seconds).format(TIMESTAMP_FORMAT) + line.substring(TIMESTAMP_LENGTH);
+        } catch (RuntimeException e) {
+            return line;
+        }
+    }
+}
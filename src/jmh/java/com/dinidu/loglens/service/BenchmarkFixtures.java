@@ -0,0 +1,206 @@
+package com.dinidu.loglens.service;
+
+import com.dinidu.loglens.model.LogEntry;
+import com.dinidu.loglens.repository.IngestionRuleRepository;
+import com.dinidu.loglens.repository.LogDataVersionRepository;
+import com.dinidu.loglens.repository.LogEntryRepository;
+import com.dinidu.loglens.repository.LogStatsRollupRepository;
+import com.dinidu.loglens.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Wires the processing services by hand with in-memory stand-ins for the database and the AI service,
+ * so benchmarks measure the application code rather than PostgreSQL or the network.
+ */
+final class BenchmarkFixtures {
+
+    static final int DIMENSIONS = 384;
+
+    private static final List<Float> BASELINE_EMBEDDING = embedding("baseline", DIMENSIONS);
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Builds a processing service whose AI calls take the given time and flag roughly the given share of lines
+     */
+    static LogProcessingService logProcessingService(long aiLatencyMicros, double anomalyRate) {
+        ProcessingMetrics metrics = processingMetrics();
+        LogEntryRepository logEntryRepository = logEntryRepository(List.of(LogEntry.builder()
+                .logMessage("baseline")
+                .embedding(BASELINE_EMBEDDING)
+                .isAnomaly(false)
+                .build()));
+
+        LocalEmbeddingProvider localEmbeddings = new LocalEmbeddingProvider();
+        EmbeddingService embeddingService = new EmbeddingService(
+                List.of(new StubRemoteEmbeddingProvider(metrics, aiLatencyMicros, anomalyRate), localEmbeddings),
+                localEmbeddings,
+                stub(UserRepository.class, (name, args) ->
+                        name.equals("findEmbeddingProvider") ? Optional.of(RemoteEmbeddingProvider.NAME) : null),
+                RemoteEmbeddingProvider.NAME, false, 0.95, 2048, 1000);
+        StubAIService aiService = new StubAIService(metrics, embeddingService, aiLatencyMicros);
+
+        LogProcessingService service = new LogProcessingService(
+                aiService,
+                logEntryRepository,
+                new AnomalyDetectionService(logEntryRepository, metrics),
+                new BurstDetectionService(true, 10, 30, 0.1, 4.0, 100, 5000),
+                new LogStatsRollupService(stub(LogStatsRollupRepository.class, null)),
+                new LogChangeTracker(stub(LogDataVersionRepository.class, null)),
+                new LogStreamService(Runnable::run, 256, 1_800_000, 5, 500, 10_000),
+                new FairWorkScheduler(4, 1, 1, ""),
+                new IngestQuotaService(0, 100_000),
+                new IngestionRuleService(stub(IngestionRuleRepository.class, (name, args) -> List.of()), null, 200, 30),
+                embeddingService,
+                metrics);
+        ReflectionTestUtils.setField(service, "anomalyThreshold", 0.2);
+        ReflectionTestUtils.setField(service, "batchSize", 50);
+        ReflectionTestUtils.setField(service, "maxSimilarLogs", 5);
+        ReflectionTestUtils.setField(service, "priorityOrdering", true);
+        ReflectionTestUtils.setField(service, "maxAnomaliesInResponse", 1000);
+        ReflectionTestUtils.setField(service, "rareTemplateMaxCount", 3);
+        return service;
+    }
+
+    static ProcessingMetrics processingMetrics() {
+        return new ProcessingMetrics(new SimpleMeterRegistry());
+    }
+
+    /**
+     * A repository whose similarity queries always return the given entries and whose saves are no-ops
+     */
+    static LogEntryRepository logEntryRepository(List<LogEntry> similarEntries) {
+        return stub(LogEntryRepository.class, (name, args) -> switch (name) {
+            case "findSimilarLogEntries" -> similarEntries;
+            case "saveAll" -> {
+                List<Object> saved = new ArrayList<>();
+                ((Iterable<?>) args[0]).forEach(saved::add);
+                yield saved;
+            }
+            default -> null;
+        });
+    }
+
+    /**
+     * Deterministic unit vector derived from the text
+     */
+    static List<Float> embedding(String text, int dimensions) {
+        SplittableRandom random = new SplittableRandom(text.hashCode());
+        float[] values = new float[dimensions];
+        double norm = 0;
+        for (int i = 0; i < dimensions; i++) {
+            values[i] = (float) (random.nextDouble() * 2 - 1);
+            norm += values[i] * values[i];
+        }
+        List<Float> vector = new ArrayList<>(dimensions);
+        for (float value : values) {
+            vector.add((float) (value / Math.sqrt(norm)));
+        }
+        return vector;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, StubAnswer answer) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "toString":
+                    return type.getSimpleName() + "Stub";
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    break;
+            }
+            Object result = answer != null ? answer.answer(method.getName(), args) : null;
+            if (result == null && method.getReturnType().isPrimitive()) {
+                return defaultValue(method.getReturnType());
+            }
+            if (result == null && Collection.class.isAssignableFrom(method.getReturnType())) {
+                return List.of();
+            }
+            return result;
+        });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == double.class) {
+            return 0.0;
+        }
+        return null;
+    }
+
+    @FunctionalInterface
+    private interface StubAnswer {
+        Object answer(String method, Object[] args);
+    }
+
+    /**
+     * Returns the baseline embedding for most calls and an unrelated vector for every 1/anomalyRate-th call
+     */
+    private static final class StubRemoteEmbeddingProvider extends RemoteEmbeddingProvider {
+
+        private final long latencyNanos;
+        private final double anomalyRate;
+        private final AtomicLong calls = new AtomicLong();
+
+        StubRemoteEmbeddingProvider(ProcessingMetrics metrics, long latencyMicros, double anomalyRate) {
+            super(null, metrics);
+            this.latencyNanos = latencyMicros * 1000;
+            this.anomalyRate = anomalyRate;
+        }
+
+        @Override
+        public List<Float> embed(String text) {
+            simulateLatency(latencyNanos);
+            long call = calls.incrementAndGet();
+            boolean anomalous = anomalyRate > 0 && call % Math.max(1, Math.round(1 / anomalyRate)) == 0;
+            return anomalous ? embedding(text + call, DIMENSIONS) : BASELINE_EMBEDDING;
+        }
+    }
+
+    /**
+     * Explains anomalies after the given latency; embeddings go through the stub remote provider
+     */
+    private static final class StubAIService extends AIService {
+
+        private final long latencyNanos;
+
+        StubAIService(ProcessingMetrics metrics, EmbeddingService embeddingService, long latencyMicros) {
+            super(null, metrics, embeddingService);
+            this.latencyNanos = latencyMicros * 1000;
+        }
+
+        @Override
+        public String getExplanation(String anomalousLog, List<String> similarLogs) {
+            simulateLatency(latencyNanos);
+            return "Benchmark explanation";
+        }
+    }
+
+    private static void simulateLatency(long latencyNanos) {
+        if (latencyNanos > 0) {
+            LockSupport.parkNanos(latencyNanos);
+        }
+    }
+}
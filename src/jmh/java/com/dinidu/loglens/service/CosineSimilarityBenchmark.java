@@ -0,0 +1,48 @@
+package com.dinidu.loglens.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cosine similarity used to score anomalies against their nearest baseline entry
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CosineSimilarityBenchmark {
+
+    @Param({"384"})
+    private int dimensions;
+
+    private AnomalyDetectionService anomalyDetectionService;
+    private List<Float> left;
+    private List<Float> right;
+
+    @Setup
+    public void setUp() {
+        anomalyDetectionService = new AnomalyDetectionService(
+                BenchmarkFixtures.logEntryRepository(List.of()), BenchmarkFixtures.processingMetrics());
+        left = BenchmarkFixtures.embedding("connection refused", dimensions);
+        right = BenchmarkFixtures.embedding("connection reset by peer", dimensions);
+    }
+
+    @Benchmark
+    public double cosineSimilarity() {
+        return anomalyDetectionService.calculateCosineSimilarity(left, right);
+    }
+}
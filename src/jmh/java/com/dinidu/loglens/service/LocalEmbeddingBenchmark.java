@@ -0,0 +1,60 @@
+package com.dinidu.loglens.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the in-process screening path: embedding a line locally and scanning a full screening index
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalEmbeddingBenchmark {
+
+    @Param({"2048"})
+    private int indexSize;
+
+    private LocalEmbeddingProvider provider;
+    private ScreeningIndex index;
+    private float[] vector;
+    private String line;
+
+    @Setup
+    public void setUp() {
+        provider = new LocalEmbeddingProvider();
+        index = new ScreeningIndex(indexSize);
+        for (int i = 0; i < indexSize; i++) {
+            float[] stored = new float[LocalEmbeddingProvider.DIMENSIONS];
+            provider.embedInto("Worker " + i + " finished batch in " + (i * 7 % 1000) + "ms", stored);
+            index.add(stored);
+        }
+        vector = new float[LocalEmbeddingProvider.DIMENSIONS];
+        line = "Database connection pool exhausted after 30000ms waiting for a connection from HikariPool-1";
+    }
+
+    @Benchmark
+    public float[] embedInto() {
+        provider.embedInto(line, vector);
+        return vector;
+    }
+
+    @Benchmark
+    public boolean screen() {
+        provider.embedInto(line, vector);
+        return index.containsSimilar(vector, 0.95);
+    }
+}
@@ -0,0 +1,60 @@
+package com.dinidu.loglens.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures line parsing and timestamp parsing over the benchmark corpus
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogParsingBenchmark {
+
+    private static final int LINES = 10_000;
+
+    private LogProcessingService logProcessingService;
+    private List<String> lines;
+    private String[] timestamps;
+
+    @Setup
+    public void setUp() {
+        logProcessingService = BenchmarkFixtures.logProcessingService(0, 0);
+        lines = BenchmarkCorpus.lines(LINES);
+        timestamps = lines.stream()
+                .map(line -> line.length() >= 19 ? line.substring(0, 19) : line)
+                .toArray(String[]::new);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void parseLogLine(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(logProcessingService.parseLogLine(line));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void parseTimestamp(Blackhole blackhole) {
+        for (String timestamp : timestamps) {
+            blackhole.consume(logProcessingService.parseTimestamp(timestamp));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.dinidu.loglens.service;
+
+import com.dinidu.loglens.dto.LogProcessingResult;
+import com.dinidu.loglens.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the end-to-end processing path for a batch of lines: parsing, burst detection, prioritization,
+ * embedding, detection, explanation and persistence, with the AI service and database stubbed out
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PipelineBenchmark {
+
+    @Param({"5000"})
+    private int lines;
+
+    @Param({"0", "200"})
+    private long aiLatencyMicros;
+
+    @Param({"0.02"})
+    private double anomalyRate;
+
+    private LogProcessingService logProcessingService;
+    private BurstDetectionService burstDetectionService;
+    private List<String> batch;
+    private User user;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        logProcessingService = BenchmarkFixtures.logProcessingService(aiLatencyMicros, anomalyRate);
+        burstDetectionService = (BurstDetectionService) ReflectionTestUtils.getField(
+                logProcessingService, "burstDetectionService");
+        batch = BenchmarkCorpus.lines(lines);
+        user = User.builder().id(1L).email("bench@example.com").name("bench").build();
+    }
+
+    @Setup(Level.Invocation)
+    public void resetBurstState() {
+        // Every invocation replays the same timestamps, so burst baselines must start fresh
+        burstDetectionService.reset(user);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        FairWorkScheduler scheduler = (FairWorkScheduler) ReflectionTestUtils.getField(
+                logProcessingService, "fairWorkScheduler");
+        scheduler.shutdown();
+    }
+
+    @Benchmark
+    public LogProcessingResult processLines() {
+        return logProcessingService.processLines(batch, user, "benchmark");
+    }
+}
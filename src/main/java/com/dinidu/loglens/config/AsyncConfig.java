@@ -1,5 +1,6 @@
 package com.dinidu.loglens.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -23,4 +24,21 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+
+    /**
+     * Delivers live stream events to SSE subscribers, off the ingestion threads. A send blocks while the
+     * client is not reading, so there is no queue: each draining subscriber gets its own thread, up to the
+     * subscriber limit, and idle threads are released.
+     */
+    @Bean(name = "logStreamExecutor")
+    public Executor logStreamExecutor(@Value("${log.stream.max-subscribers:500}") int maxSubscribers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(Math.max(2, maxSubscribers));
+        executor.setQueueCapacity(0);
+        executor.setKeepAliveSeconds(60);
+        executor.setThreadNamePrefix("LogStream-");
+        executor.initialize();
+        return executor;
+    }
+}
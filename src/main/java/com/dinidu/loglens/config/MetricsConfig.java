@@ -0,0 +1,118 @@
+package com.dinidu.loglens.config;
+
+import com.dinidu.loglens.service.FairWorkScheduler;
+import com.dinidu.loglens.service.IngestionSpoolService;
+import com.dinidu.loglens.service.LogIngestionService;
+import com.dinidu.loglens.service.LogStreamService;
+import com.dinidu.loglens.service.ProcessingMetrics;
+import com.dinidu.loglens.service.SemanticSearchService;
+import com.dinidu.loglens.service.SyslogListenerService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+
+/**
+ * Registers gauges for the scheduler, ingestion buffers and caches, and counts AI service retries.
+ * Actuator exposure defaults live in metrics-defaults.properties.
+ */
+@Configuration
+@PropertySource("classpath:metrics-defaults.properties")
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder loglensMeterBinder(FairWorkScheduler fairWorkScheduler,
+                                          LogIngestionService logIngestionService,
+                                          IngestionSpoolService ingestionSpoolService,
+                                          SyslogListenerService syslogListenerService,
+                                          LogStreamService logStreamService,
+                                          SemanticSearchService semanticSearchService) {
+        return registry -> {
+            Gauge.builder("loglens.scheduler.queued", fairWorkScheduler, FairWorkScheduler::getQueuedTasks)
+                    .description("Processing tasks waiting for a worker slot")
+                    .register(registry);
+            Gauge.builder("loglens.scheduler.active", fairWorkScheduler, FairWorkScheduler::getActiveWorkers)
+                    .description("Worker slots currently running a task")
+                    .register(registry);
+            Gauge.builder("loglens.scheduler.workers", fairWorkScheduler, FairWorkScheduler::getWorkerCount)
+                    .register(registry);
+            Gauge.builder("loglens.scheduler.tenants", fairWorkScheduler, FairWorkScheduler::getActiveTenants)
+                    .description("Users with queued processing work")
+                    .register(registry);
+
+            Gauge.builder("loglens.ingest.queue.size", logIngestionService, LogIngestionService::getQueuedLines)
+                    .description("Lines buffered for continuous ingestion")
+                    .register(registry);
+            Gauge.builder("loglens.ingest.dispatched.size", logIngestionService, LogIngestionService::getDispatchedLines)
+                    .description("Ingested lines handed to a processing job that has not finished")
+                    .register(registry);
+            FunctionCounter.builder("loglens.ingest.lines", logIngestionService, LogIngestionService::getAcceptedLines)
+                    .tag("outcome", "accepted")
+                    .register(registry);
+            FunctionCounter.builder("loglens.ingest.lines", logIngestionService, LogIngestionService::getDroppedLines)
+                    .tag("outcome", "dropped")
+                    .register(registry);
+            FunctionCounter.builder("loglens.ingest.batches", logIngestionService, LogIngestionService::getFlushedBatches)
+                    .register(registry);
+            FunctionCounter.builder("loglens.syslog.messages", syslogListenerService, SyslogListenerService::getReceivedMessages)
+                    .tag("outcome", "received")
+                    .register(registry);
+            FunctionCounter.builder("loglens.syslog.messages", syslogListenerService, SyslogListenerService::getDroppedMessages)
+                    .tag("outcome", "dropped")
+                    .register(registry);
+            Gauge.builder("loglens.spool.pending.bytes", ingestionSpoolService, IngestionSpoolService::getPendingBytes)
+                    .description("Spooled bytes not yet processed")
+                    .register(registry);
+            FunctionCounter.builder("loglens.spool.skipped.bytes", ingestionSpoolService, IngestionSpoolService::getSkippedBytes)
+                    .description("Spooled bytes skipped because of corrupt records")
+                    .register(registry);
+            FunctionCounter.builder("loglens.spool.abandoned.records", ingestionSpoolService,
+                            IngestionSpoolService::getAbandonedRecords)
+                    .description("Spooled records skipped after failing every processing attempt")
+                    .register(registry);
+            Gauge.builder("loglens.stream.subscribers", logStreamService, LogStreamService::getSubscriberCount)
+                    .register(registry);
+            FunctionCounter.builder("loglens.stream.slow.subscribers", logStreamService, LogStreamService::getSlowSubscribers)
+                    .description("Live stream connections dropped because a send was blocked too long")
+                    .register(registry);
+
+            CaffeineCacheMetrics.monitor(registry, semanticSearchService.getQueryEmbeddingCache(), "semantic-query-embeddings");
+            CaffeineCacheMetrics.monitor(registry, semanticSearchService.getResultCache(), "semantic-results");
+            CaffeineCacheMetrics.monitor(registry, semanticSearchService.getSimilarEntryCache(), "similar-entries");
+        };
+    }
+
+    /**
+     * Counts retried AI service calls; picked up by every @Retryable method
+     */
+    @Bean
+    public RetryListener aiRetryMetricsListener(ProcessingMetrics processingMetrics) {
+        return new RetryListener() {
+            @Override
+            public <T, E extends Throwable> void close(RetryContext context, RetryCallback<T, E> callback,
+                                                       Throwable throwable) {
+                // The retry count is the number of failed attempts; only the ones followed by another attempt are retries
+                int retries = throwable == null ? context.getRetryCount() : context.getRetryCount() - 1;
+                processingMetrics.recordAiRetries(operationOf(context), retries);
+            }
+        };
+    }
+
+    private static String operationOf(RetryContext context) {
+        Object name = context.getAttribute(RetryContext.NAME);
+        String label = name != null ? name.toString() : "";
+        if (label.contains("RemoteEmbeddingProvider.embed")) {
+            return "embedding";
+        }
+        if (label.contains("getExplanation")) {
+            return "explanation";
+        }
+        return "other";
+    }
+}
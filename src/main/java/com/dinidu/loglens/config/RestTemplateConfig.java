@@ -1,8 +1,10 @@
 package com.dinidu.loglens.config;
 
+import com.dinidu.loglens.service.AIRequestEventInterceptor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.retry.annotation.EnableRetry;
@@ -16,12 +18,24 @@ public class RestTemplateConfig {
     private int timeoutMs;
 
     @Bean
+    @Primary
     public RestTemplate restTemplate() {
         RestTemplate restTemplate = new RestTemplate();
         restTemplate.setRequestFactory(clientHttpRequestFactory());
         return restTemplate;
     }
 
+    /**
+     * Client for the AI service only; its calls are recorded as AI request flight recorder events
+     */
+    @Bean
+    public RestTemplate aiRestTemplate() {
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.setRequestFactory(clientHttpRequestFactory());
+        restTemplate.getInterceptors().add(new AIRequestEventInterceptor());
+        return restTemplate;
+    }
+
     @Bean
     public ClientHttpRequestFactory clientHttpRequestFactory() {
         HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory();
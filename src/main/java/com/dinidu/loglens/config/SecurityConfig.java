@@ -1,19 +1,35 @@
 package com.dinidu.loglens.config;
 
+import com.dinidu.loglens.repository.UserRepository;
 import com.dinidu.loglens.service.CustomOAuth2UserService;
+import com.dinidu.loglens.service.TokenRevocationService;
+import com.dinidu.loglens.security.JwtAuthenticationFilter;
+import com.dinidu.loglens.security.JwtUtil;
 import com.dinidu.loglens.security.OAuth2AuthenticationSuccessHandler;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.authentication.logout.HttpStatusReturningLogoutSuccessHandler;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 
@@ -24,8 +40,82 @@ public class SecurityConfig {
 
     private final CustomOAuth2UserService customOAuth2UserService;
     private final OAuth2AuthenticationSuccessHandler oAuth2AuthenticationSuccessHandler;
+    private final JwtUtil jwtUtil;
+    private final UserRepository userRepository;
+    private final TokenRevocationService tokenRevocationService;
 
+    @Value("${app.jwt.cache-size:10000}")
+    private long tokenCacheSize;
+
+    @Value("${app.jwt.cache-ttl-seconds:300}")
+    private long tokenCacheTtlSeconds;
+
+    @Value("${log.metrics.scrape-username:prometheus}")
+    private String scrapeUsername;
+
+    @Value("${log.metrics.scrape-password:}")
+    private String scrapePassword;
+
+    /**
+     * Prometheus scrape endpoint, protected with HTTP basic auth for a dedicated scrape user; without a
+     * configured password every request is rejected
+     */
+    @Bean
+    @Order(0)
+    public SecurityFilterChain metricsFilterChain(HttpSecurity http) throws Exception {
+        http
+                .securityMatcher("/actuator/prometheus")
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .requestCache(AbstractHttpConfigurer::disable)
+                .userDetailsService(scrapeUsers())
+                .httpBasic(Customizer.withDefaults())
+                .authorizeHttpRequests(authz -> authz.anyRequest().hasRole("METRICS"));
+
+        return http.build();
+    }
+
+    /**
+     * Stateless chain for the REST API: every request carries a bearer token, nothing is kept in a session,
+     * so requests can be served by any instance without session replication or affinity
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain apiFilterChain(HttpSecurity http) throws Exception {
+        JwtAuthenticationFilter jwtAuthenticationFilter = new JwtAuthenticationFilter(
+                jwtUtil, userRepository, tokenRevocationService, tokenCacheSize, Duration.ofSeconds(tokenCacheTtlSeconds));
+
+        http
+                .securityMatcher("/api/**")
+                .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .requestCache(AbstractHttpConfigurer::disable)
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                .authorizeHttpRequests(authz -> authz
+                        // Streaming responses finish on an async dispatch after the request was authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        .requestMatchers("/api/health").permitAll()
+                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        .anyRequest().authenticated()
+                )
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED))
+                )
+                .logout(logout -> logout
+                        .logoutUrl("/api/auth/logout")
+                        .addLogoutHandler((request, response, authentication) -> jwtAuthenticationFilter.revoke(request))
+                        .logoutSuccessHandler(new HttpStatusReturningLogoutSuccessHandler())
+                );
+
+        return http.build();
+    }
+
+    /**
+     * Browser chain for the OAuth2 login flow, which needs a short-lived session for the authorization request
+     */
     @Bean
+    @Order(2)
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
@@ -33,25 +123,30 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED))
                 .authorizeHttpRequests(authz -> authz
                         .requestMatchers("/", "/error", "/webjars/**", "/login/**", "/oauth2/**").permitAll()
-                        .requestMatchers("/api/health", "/actuator/health").permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
                         .anyRequest().authenticated()
                 )
                 .oauth2Login(oauth2 -> oauth2
 //                        .loginPage("/login")
                         .userInfoEndpoint(userInfo -> userInfo.userService(customOAuth2UserService))
                         .successHandler(oAuth2AuthenticationSuccessHandler)
-                )
-                .logout(logout -> logout
-                        .logoutUrl("/api/auth/logout")
-                        .logoutSuccessUrl("/")
-                        .invalidateHttpSession(true)
-                        .clearAuthentication(true)
-                        .deleteCookies("JSESSIONID")
                 );
 
         return http.build();
     }
 
+    private UserDetailsService scrapeUsers() {
+        if (scrapePassword.isBlank()) {
+            return new InMemoryUserDetailsManager();
+        }
+        // Accepts an encoded value such as {bcrypt}...; a plain value is compared as is
+        String password = scrapePassword.startsWith("{") ? scrapePassword : "{noop}" + scrapePassword;
+        return new InMemoryUserDetailsManager(User.withUsername(scrapeUsername)
+                .password(password)
+                .roles("METRICS")
+                .build());
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
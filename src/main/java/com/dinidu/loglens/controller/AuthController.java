@@ -2,18 +2,31 @@ package com.dinidu.loglens.controller;
 
 import com.dinidu.loglens.dto.UserResponse;
 import com.dinidu.loglens.security.CustomOAuth2User;
+import com.dinidu.loglens.security.JwtUtil;
+import com.dinidu.loglens.service.EmbeddingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
 @Slf4j
 public class AuthController {
 
+    private final EmbeddingService embeddingService;
+
+    @Value("${app.jwt.stream-ticket-ttl-seconds:30}")
+    private long streamTicketTtlSeconds;
+
     @GetMapping("/user")
     public ResponseEntity<UserResponse> getCurrentUser(@AuthenticationPrincipal CustomOAuth2User oauth2User) {
         if (oauth2User == null) {
@@ -31,4 +44,33 @@ public class AuthController {
         }
         return ResponseEntity.ok("Authenticated as: " + oauth2User.getUser().getName());
     }
+
+    /**
+     * Issues a short-lived ticket for opening the live stream from a browser
+     */
+    @PostMapping("/stream-ticket")
+    public ResponseEntity<Map<String, Object>> createStreamTicket(@AuthenticationPrincipal CustomOAuth2User oauth2User) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("ticket", JwtUtil.generateStreamTicket(oauth2User.getUser().getId(),
+                Duration.ofSeconds(streamTicketTtlSeconds)));
+        response.put("expiresInSeconds", streamTicketTtlSeconds);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Switches the embedding provider of the user's stored logs; refused with 409 once embeddings are stored
+     */
+    @PutMapping("/user/embedding-provider")
+    public ResponseEntity<Map<String, Object>> setEmbeddingProvider(
+            @RequestParam String provider,
+            @AuthenticationPrincipal CustomOAuth2User oauth2User) {
+        Map<String, Object> response = new HashMap<>();
+        if (!embeddingService.setProvider(oauth2User.getUser(), provider)) {
+            response.put("error", "EMBEDDINGS_STORED");
+            response.put("message", "Delete the stored logs before switching the embedding provider");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        response.put("embeddingProvider", provider);
+        return ResponseEntity.ok(response);
+    }
 }
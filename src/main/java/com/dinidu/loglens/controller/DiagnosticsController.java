@@ -0,0 +1,96 @@
+package com.dinidu.loglens.controller;
+
+import com.dinidu.loglens.service.JfrRecordingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Admin-only diagnostics: Java Flight Recorder recordings of the processing pipeline
+ */
+@RestController
+@RequestMapping("/api/admin/jfr")
+@RequiredArgsConstructor
+@Slf4j
+public class DiagnosticsController {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final JfrRecordingService jfrRecordingService;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> status() {
+        return ResponseEntity.ok(jfrRecordingService.status());
+    }
+
+    /**
+     * Starts a bounded on-demand recording
+     */
+    @PostMapping("/start")
+    public ResponseEntity<Map<String, Object>> start(
+            @RequestParam(required = false) Long durationSeconds,
+            @RequestParam(required = false) Long maxSizeMb) throws IOException, ParseException {
+        try {
+            return ResponseEntity.ok(jfrRecordingService.start(durationSeconds, maxSizeMb));
+        } catch (IllegalStateException e) {
+            return conflict(e);
+        }
+    }
+
+    @PostMapping("/stop")
+    public ResponseEntity<Map<String, Object>> stop() {
+        try {
+            return ResponseEntity.ok(jfrRecordingService.stop());
+        } catch (IllegalStateException e) {
+            return conflict(e);
+        }
+    }
+
+    /**
+     * Downloads the latest on-demand recording, or the continuous recording when none was started
+     */
+    @GetMapping("/recording")
+    public ResponseEntity<StreamingResponseBody> download() throws IOException {
+        Path file = jfrRecordingService.dump();
+        if (file == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String fileName = "loglens-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jfr";
+        StreamingResponseBody body = outputStream -> {
+            try {
+                Files.copy(file, outputStream);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentLength(Files.size(file))
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(body);
+    }
+
+    private static ResponseEntity<Map<String, Object>> conflict(IllegalStateException e) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", "RECORDING_STATE_CONFLICT");
+        response.put("message", e.getMessage());
+        response.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+}
@@ -0,0 +1,61 @@
+package com.dinidu.loglens.controller;
+
+import com.dinidu.loglens.dto.IngestionRuleRequest;
+import com.dinidu.loglens.dto.IngestionRuleResponse;
+import com.dinidu.loglens.security.CustomOAuth2User;
+import com.dinidu.loglens.service.IngestionRuleService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Per-user ingestion rules that drop lines or store them without analysis before any embedding
+ */
+@RestController
+@RequestMapping("/api/rules")
+@RequiredArgsConstructor
+@Slf4j
+public class IngestionRuleController {
+
+    private final IngestionRuleService ingestionRuleService;
+
+    /**
+     * List the user's rules in evaluation order, with hit counts
+     */
+    @GetMapping
+    public ResponseEntity<List<IngestionRuleResponse>> listRules(@AuthenticationPrincipal CustomOAuth2User oauth2User) {
+        return ResponseEntity.ok(ingestionRuleService.list(oauth2User.getUser()));
+    }
+
+    @PostMapping
+    public ResponseEntity<IngestionRuleResponse> createRule(
+            @Valid @RequestBody IngestionRuleRequest request,
+            @AuthenticationPrincipal CustomOAuth2User oauth2User) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(ingestionRuleService.create(oauth2User.getUser(), request));
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<IngestionRuleResponse> updateRule(
+            @PathVariable Long id,
+            @Valid @RequestBody IngestionRuleRequest request,
+            @AuthenticationPrincipal CustomOAuth2User oauth2User) {
+        return ingestionRuleService.update(oauth2User.getUser(), id, request)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteRule(
+            @PathVariable Long id,
+            @AuthenticationPrincipal CustomOAuth2User oauth2User) {
+        return ingestionRuleService.delete(oauth2User.getUser(), id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
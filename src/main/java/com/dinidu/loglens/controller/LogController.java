@@ -1,22 +1,53 @@
 package com.dinidu.loglens.controller;
 
 
+import com.dinidu.loglens.dto.ApproximateAnalysisResult;
+import com.dinidu.loglens.dto.CursorPage;
+import com.dinidu.loglens.dto.LogCursor;
+import com.dinidu.loglens.dto.LogEntryDetail;
+import com.dinidu.loglens.dto.LogEntrySummary;
 import com.dinidu.loglens.dto.LogProcessingResult;
-import com.dinidu.loglens.model.LogEntry;
+import com.dinidu.loglens.dto.LogProcessingStats;
+import com.dinidu.loglens.dto.LogSearchHit;
+import com.dinidu.loglens.dto.LogSimilarityHit;
+import com.dinidu.loglens.dto.LogStatsBucket;
+import com.dinidu.loglens.dto.ProcessingJobStatus;
 import com.dinidu.loglens.model.User;
+import com.dinidu.loglens.model.VectorConverter;
 import com.dinidu.loglens.repository.LogEntryRepository;
 import com.dinidu.loglens.security.CustomOAuth2User;
+import com.dinidu.loglens.service.ApproximateAnalysisService;
+import com.dinidu.loglens.service.BurstDetectionService;
+import com.dinidu.loglens.service.DistributedJobService;
+import com.dinidu.loglens.service.IngestionSpoolService;
+import com.dinidu.loglens.service.LogChangeTracker;
+import com.dinidu.loglens.service.LogExportService;
+import com.dinidu.loglens.service.LogIngestionService;
 import com.dinidu.loglens.service.LogProcessingService;
+import com.dinidu.loglens.service.LogSearchService;
+import com.dinidu.loglens.service.LogStatsRollupService;
+import com.dinidu.loglens.service.LogStreamService;
+import com.dinidu.loglens.service.SemanticSearchService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,6 +60,20 @@ public class LogController {
 
     private final LogProcessingService logProcessingService;
     private final LogEntryRepository logEntryRepository;
+    private final LogStatsRollupService logStatsRollupService;
+    private final BurstDetectionService burstDetectionService;
+    private final LogSearchService logSearchService;
+    private final SemanticSearchService semanticSearchService;
+    private final LogChangeTracker logChangeTracker;
+    private final LogExportService logExportService;
+    private final LogStreamService logStreamService;
+    private final LogIngestionService logIngestionService;
+    private final IngestionSpoolService ingestionSpoolService;
+    private final DistributedJobService distributedJobService;
+    private final ApproximateAnalysisService approximateAnalysisService;
+
+    private static final int MAX_SCROLL_SIZE = 500;
+    private static final VectorConverter VECTOR_CONVERTER = new VectorConverter();
 
     /**
      * Upload and process log file
@@ -49,17 +94,147 @@ public class LogController {
         }
     }
 
+    /**
+     * Upload and process a log file, streaming every saved entry back as NDJSON (without embeddings).
+     * Job counts are returned in headers; a failed job returns the usual 400 JSON result.
+     */
+    @PostMapping(value = "/upload", params = "format=ndjson")
+    public ResponseEntity<?> uploadLogFileNdjson(
+            @RequestParam("file") MultipartFile file,
+            @AuthenticationPrincipal CustomOAuth2User oauth2User) {
+
+        log.info("Received NDJSON log file upload request from user: {}", oauth2User.getUser().getEmail());
+
+        LogProcessingResult result = logProcessingService.processLogFile(file, oauth2User.getUser());
+        if (!result.isSuccess()) {
+            return ResponseEntity.badRequest().body(result);
+        }
+
+        // Entries are read back from the database by job id so the response does not hold them in memory
+        LogProcessingStats stats = result.getStats();
+        User user = oauth2User.getUser();
+        StreamingResponseBody body = outputStream -> logExportService.exportJob(user, stats.getJobId(), outputStream);
+
+        return ResponseEntity.ok()
+                .header("X-Job-Id", stats.getJobId())
+                .header("X-Processed-Lines", String.valueOf(stats.getProcessedLines()))
+                .header("X-Anomalies-Detected", String.valueOf(stats.getAnomaliesDetected()))
+                .contentType(MediaType.parseMediaType(LogExportService.ExportFormat.NDJSON.getContentType()))
+                .body(body);
+    }
+
+    /**
+     * Durable upload: the file is appended to the on-disk ingestion spool and acknowledged with 202
+     * once it is fsynced; processing happens in the background and survives restarts
+     */
+    @PostMapping(value = "/upload", params = "durable=true")
+    public ResponseEntity<Map<String, Object>> uploadLogFileDurable(
+            @RequestParam("file") MultipartFile file,
+            @AuthenticationPrincipal CustomOAuth2User oauth2User) throws IOException {
+
+        log.info("Received durable log file upload request from user: {}", oauth2User.getUser().getEmail());
+
+        Map<String, Object> receipt = ingestionSpoolService.spoolFile(file, oauth2User.getUser());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(receipt);
+    }
+
+    /**
+     * Distributed upload: the file is split into chunk work items that any node in the cluster can claim.
+     * Returns 202 with the job id; progress and merged results are served by GET /api/logs/jobs/{jobId}
+     */
+    @PostMapping(value = "/upload", params = "distributed=true")
+    public ResponseEntity<ProcessingJobStatus> uploadLogFileDistributed(
+            @RequestParam("file") MultipartFile file,
+            @AuthenticationPrincipal CustomOAuth2User oauth2User) throws IOException {
+
+        log.info("Received distributed log file upload request from user: {}", oauth2User.getUser().getEmail());
+
+        ProcessingJobStatus job = distributedJobService.submit(file, oauth2User.getUser());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    /**
+     * Approximate upload: only a stratified sample of the file is embedded and scored, and anomaly counts are
+     * estimated with confidence intervals. Nothing is stored unless full processing is continued in the background.
+     */
+    @PostMapping(value = "/upload", params = "mode=approximate")
+    public ResponseEntity<ApproximateAnalysisResult> uploadLogFileApproximate(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) Integer sampleSize,
+            @RequestParam(defaultValue = "false") boolean continueInBackground,
+            @AuthenticationPrincipal CustomOAuth2User oauth2User) throws IOException {
+
+        log.info("Received approximate log file upload request from user: {}", oauth2User.getUser().getEmail());
+
+        ApproximateAnalysisResult result = approximateAnalysisService.analyze(
+                file, oauth2User.getUser(), sampleSize, continueInBackground);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Get the progress and merged results of a distributed processing job
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ProcessingJobStatus> getProcessingJob(
+            @PathVariable String jobId,
+            @AuthenticationPrincipal CustomOAuth2User oauth2User) {
+
+        return distributedJobService.getStatus(oauth2User.getUser(), jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Continuous ingestion of an NDJSON (or plain text) request stream, one log per line.
+     * Lines are micro-batched into the regular processing path; when the ingestion buffer stays full
+     * the request is cut short with 503 and the client should resume after the accepted lines.
+     */
+    @PostMapping(value = "/ingest/stream", consumes = {"application/x-ndjson", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<Map<String, Object>> ingestStream(
+            @AuthenticationPrincipal CustomOAuth2User oauth2User,
+            HttpServletRequest request) throws IOException {
+
+        LogIngestionService.IngestResult result =
+                logIngestionService.ingestNdjson(oauth2User.getUser(), request.getInputStream());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("accepted", result.getAccepted());
+        response.put("rejected", result.getRejected());
+        response.put("throttled", result.isThrottled());
+        response.put("quotaExceeded", result.isQuotaExceeded());
+
+        if (result.isQuotaExceeded()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(response);
+        }
+        if (result.isThrottled()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(response);
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Live stream of detected anomalies and upload progress as Server-Sent Events
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@AuthenticationPrincipal CustomOAuth2User oauth2User) {
+        return logStreamService.subscribe(oauth2User.getUser());
+    }
+
     /**
      * Get all log entries for the authenticated user with pagination
      */
     @GetMapping
-    public ResponseEntity<Page<LogEntry>> getAllLogs(
+    public ResponseEntity<Page<LogEntrySummary>> getAllLogs(
             @AuthenticationPrincipal CustomOAuth2User oauth2User,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<LogEntry> logEntries = logEntryRepository.findByUserOrderByTimestampDesc(
+        Page<LogEntrySummary> logEntries = logEntryRepository.findSummariesByUser(
                 oauth2User.getUser(), pageable);
 
         return ResponseEntity.ok(logEntries);
@@ -69,55 +244,231 @@ public class LogController {
      * Get only anomalous log entries for the authenticated user
      */
     @GetMapping("/anomalies")
-    public ResponseEntity<Page<LogEntry>> getAnomalies(
+    public ResponseEntity<Page<LogEntrySummary>> getAnomalies(
             @AuthenticationPrincipal CustomOAuth2User oauth2User,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<LogEntry> anomalies = logEntryRepository.findByUserAndIsAnomalyTrueOrderByTimestampDesc(
+        Page<LogEntrySummary> anomalies = logEntryRepository.findAnomalySummariesByUser(
                 oauth2User.getUser(), pageable);
 
         return ResponseEntity.ok(anomalies);
     }
 
     /**
-     * Get log entry by ID (must belong to authenticated user)
+     * Get log entries using keyset pagination on (timestamp, id).
+     * Pass the returned nextCursor to fetch the following page.
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<LogEntrySummary>> scrollLogs(
+            @AuthenticationPrincipal CustomOAuth2User oauth2User,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        User user = oauth2User.getUser();
+        Pageable limit = keysetLimit(size);
+        List<LogEntrySummary> entries = cursor == null
+                ? logEntryRepository.findFirstByUserKeyset(user, limit)
+                : findNextLogs(user, LogCursor.decode(cursor), limit);
+
+        return ResponseEntity.ok(toCursorPage(entries, size,
+                includeTotal ? logStatsRollupService.getTotalLogs(user) : null));
+    }
+
+    /**
+     * Get anomalous log entries using keyset pagination on (timestamp, id)
+     */
+    @GetMapping("/anomalies/scroll")
+    public ResponseEntity<CursorPage<LogEntrySummary>> scrollAnomalies(
+            @AuthenticationPrincipal CustomOAuth2User oauth2User,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        User user = oauth2User.getUser();
+        Pageable limit = keysetLimit(size);
+        List<LogEntrySummary> anomalies = cursor == null
+                ? logEntryRepository.findFirstAnomaliesByUserKeyset(user, limit)
+                : findNextAnomalies(user, LogCursor.decode(cursor), limit);
+
+        return ResponseEntity.ok(toCursorPage(anomalies, size,
+                includeTotal ? logStatsRollupService.getTotalAnomalies(user) : null));
+    }
+
+    /**
+     * Full-text search over the user's log messages, ranked by relevance
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Map<String, Object>> searchLogs(
+            @AuthenticationPrincipal CustomOAuth2User oauth2User,
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "websearch") String mode,
+            @RequestParam(required = false) String level,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "50") int limit) {
+
+        long start = System.nanoTime();
+        List<LogSearchHit> hits = logSearchService.search(oauth2User.getUser(), query, mode, level, from, to, limit);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("query", query);
+        response.put("hits", hits);
+        response.put("count", hits.size());
+        response.put("tookMs", (System.nanoTime() - start) / 1_000_000);
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Semantic search: finds log entries closest in meaning to a free-text query
+     */
+    @GetMapping("/search/semantic")
+    public ResponseEntity<Map<String, Object>> semanticSearch(
+            @AuthenticationPrincipal CustomOAuth2User oauth2User,
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        long start = System.nanoTime();
+        List<LogSimilarityHit> hits = semanticSearchService.search(oauth2User.getUser(), query, limit);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("query", query);
+        response.put("hits", hits);
+        response.put("count", hits.size());
+        response.put("tookMs", (System.nanoTime() - start) / 1_000_000);
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Export the user's logs as NDJSON or CSV, streamed from a database cursor in constant memory
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportLogs(
+            @AuthenticationPrincipal CustomOAuth2User oauth2User,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(defaultValue = "false") boolean anomaliesOnly,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        User user = oauth2User.getUser();
+        LogExportService.ExportFormat exportFormat = LogExportService.ExportFormat.from(format);
+        String fileName = "logs-export." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+
+        StreamingResponseBody body = outputStream ->
+                logExportService.export(user, exportFormat, gzip, anomaliesOnly, from, to, outputStream);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : exportFormat.getContentType()))
+                .body(body);
+    }
+
+    /**
+     * Get log entry by ID (must belong to authenticated user).
+     * The embedding is only loaded when includeEmbedding=true.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<LogEntry> getLogEntry(
+    public ResponseEntity<LogEntryDetail> getLogEntry(
             @PathVariable Long id,
-            @AuthenticationPrincipal CustomOAuth2User oauth2User) {
+            @AuthenticationPrincipal CustomOAuth2User oauth2User,
+            @RequestParam(defaultValue = "false") boolean includeEmbedding) {
 
-        return logEntryRepository.findById(id)
-                .filter(entry -> entry.getUser().getId().equals(oauth2User.getUser().getId()))
-                .map(ResponseEntity::ok)
+        Long userId = oauth2User.getUser().getId();
+        return logEntryRepository.findDetailByIdAndUserId(id, userId)
+                .map(detail -> {
+                    if (includeEmbedding) {
+                        logEntryRepository.findEmbeddingByIdAndUserId(id, userId)
+                                .map(VECTOR_CONVERTER::convertToEntityAttribute)
+                                .ifPresent(detail::setEmbedding);
+                    }
+                    return ResponseEntity.ok(detail);
+                })
                 .orElse(ResponseEntity.notFound().build());
     }
 
     /**
-     * Get user's log statistics
+     * Get log entries most similar to an existing entry, using its stored embedding
+     */
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<Map<String, Object>> getSimilarLogs(
+            @PathVariable Long id,
+            @AuthenticationPrincipal CustomOAuth2User oauth2User,
+            @RequestParam(required = false) String level,
+            @RequestParam(defaultValue = "0") int windowMinutes,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        User user = oauth2User.getUser();
+        if (logEntryRepository.findDetailByIdAndUserId(id, user.getId()).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        List<LogSimilarityHit> hits = semanticSearchService.findSimilarToEntry(user, id, level, windowMinutes, limit);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("entryId", id);
+        response.put("hits", hits);
+        response.put("count", hits.size());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get user's log statistics, served from the pre-aggregated rollups.
+     * When 'from' is given, a time-bucketed series is included as well.
      */
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getLogStats(
-            @AuthenticationPrincipal CustomOAuth2User oauth2User) {
+            @AuthenticationPrincipal CustomOAuth2User oauth2User,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String level,
+            @RequestParam(defaultValue = "hour") String interval) {
 
         User user = oauth2User.getUser();
-        long totalLogs = logEntryRepository.countByUser(user);
-        long totalAnomalies = logEntryRepository.countByUserAndIsAnomalyTrue(user);
+        long totalLogs = logStatsRollupService.getTotalLogs(user);
+        long totalAnomalies = logStatsRollupService.getTotalAnomalies(user);
 
         Map<String, Object> stats = new HashMap<>();
         stats.put("totalLogs", totalLogs);
         stats.put("totalAnomalies", totalAnomalies);
         stats.put("anomalyPercentage", totalLogs > 0 ? (double) totalAnomalies / totalLogs * 100 : 0);
 
+        if (from != null) {
+            LocalDateTime end = to != null ? to : LocalDateTime.now();
+            List<LogStatsBucket> series = logStatsRollupService.getSeries(user, from, end, level, interval);
+            stats.put("interval", interval);
+            stats.put("series", series);
+        }
+
         return ResponseEntity.ok(stats);
     }
 
+    /**
+     * Recompute the user's statistics rollups from their stored log entries
+     */
+    @PostMapping("/stats/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildLogStats(
+            @AuthenticationPrincipal CustomOAuth2User oauth2User) {
+
+        int buckets = logStatsRollupService.rebuild(oauth2User.getUser());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("buckets", buckets);
+        response.put("message", "Statistics rebuilt successfully");
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Delete a log entry (must belong to authenticated user)
      */
     @DeleteMapping("/{id}")
+    @Transactional
     public ResponseEntity<Void> deleteLogEntry(
             @PathVariable Long id,
             @AuthenticationPrincipal CustomOAuth2User oauth2User) {
@@ -126,6 +477,8 @@ public class LogController {
                 .filter(entry -> entry.getUser().getId().equals(oauth2User.getUser().getId()))
                 .map(entry -> {
                     logEntryRepository.delete(entry);
+                    logStatsRollupService.recordDeletions(oauth2User.getUser(), List.of(entry));
+                    logChangeTracker.markChanged(oauth2User.getUser().getId());
                     return ResponseEntity.ok().<Void>build();
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -135,13 +488,15 @@ public class LogController {
      * Delete all log entries for authenticated user
      */
     @DeleteMapping("/all")
+    @Transactional
     public ResponseEntity<Map<String, Object>> deleteAllLogs(
             @AuthenticationPrincipal CustomOAuth2User oauth2User) {
 
-        List<LogEntry> userLogs = logEntryRepository.findByUserOrderByTimestampDesc(oauth2User.getUser());
-        long deletedCount = userLogs.size();
-
-        logEntryRepository.deleteAll(userLogs);
+        User user = oauth2User.getUser();
+        long deletedCount = logEntryRepository.deleteByUser(user);
+        logStatsRollupService.deleteAll(user);
+        burstDetectionService.reset(user);
+        logChangeTracker.markChanged(user.getId());
 
         Map<String, Object> response = new HashMap<>();
         response.put("deletedCount", deletedCount);
@@ -149,4 +504,39 @@ public class LogController {
 
         return ResponseEntity.ok(response);
     }
+
+    private List<LogEntrySummary> findNextLogs(User user, LogCursor cursor, Pageable limit) {
+        return logEntryRepository.findNextByUserKeyset(user, cursor.getTimestamp(), cursor.getId(), limit);
+    }
+
+    private List<LogEntrySummary> findNextAnomalies(User user, LogCursor cursor, Pageable limit) {
+        return logEntryRepository.findNextAnomaliesByUserKeyset(user, cursor.getTimestamp(), cursor.getId(), limit);
+    }
+
+    /**
+     * Requests one extra row so we know whether another page exists without counting
+     */
+    private Pageable keysetLimit(int size) {
+        if (size < 1 || size > MAX_SCROLL_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_SCROLL_SIZE);
+        }
+        return PageRequest.of(0, size + 1);
+    }
+
+    private CursorPage<LogEntrySummary> toCursorPage(List<LogEntrySummary> rows, int size, Long approximateTotal) {
+        boolean hasMore = rows.size() > size;
+        List<LogEntrySummary> items = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            LogEntrySummary last = items.get(items.size() - 1);
+            nextCursor = new LogCursor(last.getTimestamp(), last.getId()).encode();
+        }
+
+        return CursorPage.<LogEntrySummary>builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .approximateTotal(approximateTotal)
+                .build();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.dinidu.loglens.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * An anomaly pushed to live stream subscribers as soon as it is detected, before it is persisted
+ */
+@Data
+@Builder
+public class AnomalyEvent {
+    private String jobId;
+    private LocalDateTime timestamp;
+    private String logLevel;
+    private String logMessage;
+    private String explanation;
+    private Double similarityScore;
+    private LocalDateTime detectedAt;
+}
@@ -0,0 +1,39 @@
+package com.dinidu.loglens.dto;
+
+import com.dinidu.loglens.model.LogEntry;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * An anomaly reported in the upload response. Never carries the embedding, and the message is cut to a preview.
+ */
+@Data
+@Builder
+public class AnomalySummary {
+    private Long id;
+    private LocalDateTime timestamp;
+    private String logLevel;
+    private String logMessage;
+    private Double similarityScore;
+    private String explanation;
+
+    public static AnomalySummary fromEntry(LogEntry entry) {
+        return AnomalySummary.builder()
+                .id(entry.getId())
+                .timestamp(entry.getTimestamp())
+                .logLevel(entry.getLogLevel())
+                .logMessage(preview(entry.getLogMessage()))
+                .similarityScore(entry.getSimilarityScore())
+                .explanation(entry.getExplanation())
+                .build();
+    }
+
+    public static String preview(String message) {
+        if (message != null && message.length() > LogEntrySummary.MESSAGE_PREVIEW_LENGTH) {
+            return message.substring(0, LogEntrySummary.MESSAGE_PREVIEW_LENGTH);
+        }
+        return message;
+    }
+}
@@ -0,0 +1,40 @@
+package com.dinidu.loglens.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Anomaly estimates for a file from a stratified sample of its lines. Nothing is persisted;
+ * {@code continuation} is set when full processing was queued in the background.
+ */
+@Data
+@Builder
+public class ApproximateAnalysisResult {
+    private String fileName;
+    private long fileSize;
+    // Lines eligible for analysis; lines filtered out by ingestion rules are counted separately
+    private long totalLines;
+    private long filteredLines;
+    private int sampledLines;
+    private int failedSamples;
+    private int strata;
+    // Width of the time buckets after coarsening the strata to fit the sample
+    private long bucketMinutes;
+    private double confidence;
+    // Lines in strata none of whose sampled lines could be scored; the bounds allow any rate for them
+    private long unestimatedLines;
+    private double anomalyRate;
+    private double anomalyRateLow;
+    private double anomalyRateHigh;
+    private long estimatedAnomalies;
+    private long estimatedAnomaliesLow;
+    private long estimatedAnomaliesHigh;
+    private int sampledAnomalies;
+    private List<ApproximateBucket> buckets;
+    // Anomalous sampled lines in file order, without explanations
+    private List<AnomalySummary> anomalies;
+    private long tookMs;
+    private ProcessingJobStatus continuation;
+}
@@ -0,0 +1,21 @@
+package com.dinidu.loglens.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estimated anomalies in one time bucket of an approximate analysis
+ */
+@Data
+@Builder
+public class ApproximateBucket {
+    private LocalDateTime bucketStart;
+    private long totalLines;
+    private int sampledLines;
+    private int sampledAnomalies;
+    private long estimatedAnomalies;
+    private long estimatedAnomaliesLow;
+    private long estimatedAnomaliesHigh;
+}
@@ -0,0 +1,18 @@
+package com.dinidu.loglens.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * A page of results addressed by an opaque cursor instead of an offset
+ */
+@Data
+@Builder
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+    private Long approximateTotal;
+}
@@ -0,0 +1,34 @@
+package com.dinidu.loglens.dto;
+
+import com.dinidu.loglens.model.IngestionRule;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class IngestionRuleRequest {
+
+    @NotBlank(message = "Rule name is required")
+    @Size(max = 255, message = "Rule name must not exceed 255 characters")
+    private String name;
+
+    private Integer priority;
+
+    @NotNull(message = "Action is required")
+    private IngestionRule.Action action;
+
+    private List<String> levels;
+
+    private IngestionRule.MatchType matchType;
+
+    @Size(max = 1000, message = "Pattern must not exceed 1000 characters")
+    private String pattern;
+
+    @Size(max = 255, message = "Source pattern must not exceed 255 characters")
+    private String sourcePattern;
+
+    private Boolean enabled;
+}
@@ -0,0 +1,46 @@
+package com.dinidu.loglens.dto;
+
+import com.dinidu.loglens.model.IngestionRule;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+@Data
+@Builder
+public class IngestionRuleResponse {
+    private Long id;
+    private String name;
+    private int priority;
+    private String action;
+    private List<String> levels;
+    private String matchType;
+    private String pattern;
+    private String sourcePattern;
+    private boolean enabled;
+    // Stored hits plus those counted on this node since the last flush
+    private long hitCount;
+    private LocalDateTime lastHitAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public static IngestionRuleResponse fromRule(IngestionRule rule, long pendingHits) {
+        return IngestionRuleResponse.builder()
+                .id(rule.getId())
+                .name(rule.getName())
+                .priority(rule.getPriority())
+                .action(rule.getAction().name())
+                .levels(rule.getLevels() != null ? Arrays.asList(rule.getLevels().split(",")) : List.of())
+                .matchType(rule.getMatchType() != null ? rule.getMatchType().name() : null)
+                .pattern(rule.getPattern())
+                .sourcePattern(rule.getSourcePattern())
+                .enabled(rule.isEnabled())
+                .hitCount(rule.getHitCount() + pendingHits)
+                .lastHitAt(rule.getLastHitAt())
+                .createdAt(rule.getCreatedAt())
+                .updatedAt(rule.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,18 @@
+package com.dinidu.loglens.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Progress of a processing job pushed to live stream subscribers
+ */
+@Data
+@Builder
+public class JobProgressEvent {
+    private String jobId;
+    private String fileName;
+    private int totalLines;
+    private int processedLines;
+    private int anomaliesDetected;
+    private boolean completed;
+}
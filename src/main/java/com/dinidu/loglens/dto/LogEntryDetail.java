@@ -0,0 +1,41 @@
+package com.dinidu.loglens.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Full view of a single log entry. The embedding is only filled in when explicitly requested.
+ */
+@Data
+@NoArgsConstructor
+public class LogEntryDetail {
+    private Long id;
+    private LocalDateTime timestamp;
+    private String logMessage;
+    private String logLevel;
+    private Boolean isAnomaly;
+    private String explanation;
+    private Double similarityScore;
+    private String sourceFile;
+    private LocalDateTime createdAt;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<Float> embedding;
+
+    public LogEntryDetail(Long id, LocalDateTime timestamp, String logMessage, String logLevel, Boolean isAnomaly,
+                          String explanation, Double similarityScore, String sourceFile, LocalDateTime createdAt) {
+        this.id = id;
+        this.timestamp = timestamp;
+        this.logMessage = logMessage;
+        this.logLevel = logLevel;
+        this.isAnomaly = isAnomaly;
+        this.explanation = explanation;
+        this.similarityScore = similarityScore;
+        this.sourceFile = sourceFile;
+        this.createdAt = createdAt;
+    }
+}
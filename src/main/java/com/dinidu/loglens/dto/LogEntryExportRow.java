@@ -0,0 +1,24 @@
+package com.dinidu.loglens.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat, unmanaged row used by the streaming export. Holds everything except the embedding.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LogEntryExportRow {
+    private Long id;
+    private LocalDateTime timestamp;
+    private String logLevel;
+    private String logMessage;
+    private Boolean isAnomaly;
+    private Double similarityScore;
+    private String explanation;
+    private String sourceFile;
+}
@@ -0,0 +1,26 @@
+package com.dinidu.loglens.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight view of a log entry for list endpoints. Never carries the embedding,
+ * the explanation or the owning user, and the message is cut to a preview.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LogEntrySummary {
+
+    public static final int MESSAGE_PREVIEW_LENGTH = 256;
+
+    private Long id;
+    private LocalDateTime timestamp;
+    private String logLevel;
+    private String logMessage;
+    private Boolean isAnomaly;
+    private Double similarityScore;
+}
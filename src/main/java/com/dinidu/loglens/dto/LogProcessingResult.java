@@ -1,6 +1,5 @@
 package com.dinidu.loglens.dto;
 
-import com.dinidu.loglens.model.LogEntry;
 import lombok.Builder;
 import lombok.Data;
 
@@ -10,7 +9,9 @@ import java.util.List;
 @Builder
 public class LogProcessingResult {
     private LogProcessingStats stats;
-    private List<LogEntry> logEntries;
+    // Detected anomalies in file order, capped at log.upload.max-anomalies-in-response
+    private List<AnomalySummary> anomalies;
+    private boolean anomaliesTruncated;
     private boolean success;
     private String errorMessage;
 }
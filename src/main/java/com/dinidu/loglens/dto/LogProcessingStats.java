@@ -6,19 +6,28 @@ import lombok.Data;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Data
 @Builder
 public class LogProcessingStats {
+    private String jobId;
     private String fileName;
     private long fileSize;
     private int totalLines;
     private int processedLines;
     private int anomaliesDetected;
     private int errorCount;
+    // Lines removed or stored without analysis by the user's ingestion rules
+    private int droppedLines;
+    private int storedOnlyLines;
+    // Lines stored without an analysis embedding because local screening recognised them as normal
+    private int screenedLines;
     private LocalDateTime startTime;
     private LocalDateTime endTime;
     private String errorMessage;
+    // Per-stage latency breakdown of this job, keyed by stage name in pipeline order
+    private Map<String, StageLatency> stageLatencies;
 
     public Duration getProcessingDuration() {
         if (startTime != null && endTime != null) {
@@ -36,6 +45,7 @@ public class LogProcessingStats {
     }
 
     public double getSuccessRate() {
-        return totalLines > 0 ? (double) processedLines / totalLines * 100 : 0;
+        int expectedLines = totalLines - droppedLines;
+        return expectedLines > 0 ? (double) processedLines / expectedLines * 100 : 0;
     }
 }
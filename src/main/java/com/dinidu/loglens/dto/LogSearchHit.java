@@ -0,0 +1,16 @@
+package com.dinidu.loglens.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a full-text search result with its relevance rank
+ */
+public interface LogSearchHit {
+    Long getId();
+    LocalDateTime getTimestamp();
+    String getLogLevel();
+    String getLogMessage();
+    Boolean getIsAnomaly();
+    Double getSimilarityScore();
+    Double getRank();
+}
@@ -0,0 +1,15 @@
+package com.dinidu.loglens.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a nearest-neighbour result with its cosine similarity to the query vector
+ */
+public interface LogSimilarityHit {
+    Long getId();
+    LocalDateTime getTimestamp();
+    String getLogLevel();
+    String getLogMessage();
+    Boolean getIsAnomaly();
+    Double getScore();
+}
@@ -0,0 +1,18 @@
+package com.dinidu.loglens.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LogStatsBucket {
+    private LocalDateTime bucketStart;
+    private long totalLogs;
+    private long totalAnomalies;
+}
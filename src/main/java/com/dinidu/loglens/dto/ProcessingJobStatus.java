@@ -0,0 +1,47 @@
+package com.dinidu.loglens.dto;
+
+import com.dinidu.loglens.model.ProcessingJob;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class ProcessingJobStatus {
+    private String jobId;
+    private String fileName;
+    private long fileSize;
+    private String status;
+    private int totalLines;
+    private int totalChunks;
+    private int completedChunks;
+    private int failedChunks;
+    private int processedLines;
+    private int anomaliesDetected;
+    private int errorCount;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+
+    public static ProcessingJobStatus fromJob(ProcessingJob job) {
+        return ProcessingJobStatus.builder()
+                .jobId(job.getId())
+                .fileName(job.getFileName())
+                .fileSize(job.getFileSize())
+                .status(job.getStatus().name())
+                .totalLines(job.getTotalLines())
+                .totalChunks(job.getTotalChunks())
+                .completedChunks(job.getCompletedChunks())
+                .failedChunks(job.getFailedChunks())
+                .processedLines(job.getProcessedLines())
+                .anomaliesDetected(job.getAnomaliesDetected())
+                .errorCount(job.getErrorCount())
+                .errorMessage(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+}
@@ -0,0 +1,19 @@
+package com.dinidu.loglens.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Time spent in one pipeline stage during a processing job. Percentiles are per call, in milliseconds.
+ */
+@Data
+@Builder
+public class StageLatency {
+    private long calls;
+    private double totalMs;
+    private double meanMs;
+    private double p50Ms;
+    private double p95Ms;
+    private double p99Ms;
+    private double maxMs;
+}
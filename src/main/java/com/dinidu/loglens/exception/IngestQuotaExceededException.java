@@ -0,0 +1,15 @@
+package com.dinidu.loglens.exception;
+
+public class IngestQuotaExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public IngestQuotaExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,85 @@
+package com.dinidu.loglens.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A per-user rule evaluated on every parsed line before embedding. The first enabled rule whose
+ * conditions all hold decides what happens to the line; lines matching no rule are fully analyzed.
+ */
+@Entity
+@Table(name = "ingestion_rules",
+        indexes = @Index(name = "idx_ingestion_rules_user_priority", columnList = "user_id, priority"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestionRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String name;
+
+    // Lower priorities are evaluated first
+    @Column(nullable = false)
+    private int priority;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Action action;
+
+    // Comma-separated log levels, or null for any level
+    @Column(length = 255)
+    private String levels;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "match_type", length = 16)
+    private MatchType matchType;
+
+    // Substring, regular expression or exact template to match the message against; null matches any message
+    @Column(length = 1000)
+    private String pattern;
+
+    // Substring of the source file or ingestion source name, or null for any source
+    @Column(name = "source_pattern")
+    private String sourcePattern;
+
+    @Column(nullable = false)
+    private boolean enabled;
+
+    @Column(name = "hit_count", nullable = false)
+    private long hitCount;
+
+    @Column(name = "last_hit_at")
+    private LocalDateTime lastHitAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public enum Action {
+        // Discard the line
+        DROP,
+        // Store the line without embedding it or checking it for anomalies
+        STORE_ONLY,
+        // Embed and check the line as usual; used to exempt lines from broader rules below
+        ANALYZE
+    }
+
+    public enum MatchType {
+        SUBSTRING, REGEX, TEMPLATE
+    }
+}
@@ -0,0 +1,26 @@
+package com.dinidu.loglens.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Counter bumped by every write to a user's logs; the row with user id 0 counts changes affecting every user
+ */
+@Entity
+@Table(name = "log_data_versions")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LogDataVersion {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private long version;
+}
@@ -1,5 +1,6 @@
 package com.dinidu.loglens.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -15,7 +16,10 @@ import java.util.List;
 @Table(name = "log_entries", indexes = {
         @Index(name = "idx_log_entries_user_id", columnList = "user_id"),
         @Index(name = "idx_log_entries_is_anomaly", columnList = "is_anomaly"),
-        @Index(name = "idx_log_entries_timestamp", columnList = "timestamp")
+        @Index(name = "idx_log_entries_timestamp", columnList = "timestamp"),
+        @Index(name = "idx_log_entries_user_ts_id", columnList = "user_id, timestamp, id"),
+        @Index(name = "idx_log_entries_user_anomaly_ts_id", columnList = "user_id, is_anomaly, timestamp, id"),
+        @Index(name = "idx_log_entries_job_id", columnList = "job_id, id")
 })
 @Data
 @Builder
@@ -54,6 +58,11 @@ public class LogEntry {
     @Column(name = "source_file")
     private String sourceFile;
 
+    // Processing job that stored the entry, so an upload's entries can be read back in file order
+    @Column(name = "job_id", length = 36)
+    private String jobId;
+
+    @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -0,0 +1,43 @@
+package com.dinidu.loglens.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated log counts per user, log level and hourly time bucket
+ */
+@Entity
+@Table(name = "log_stats_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_log_stats_rollups_user_level_bucket",
+                columnNames = {"user_id", "log_level", "bucket_start"}),
+        indexes = @Index(name = "idx_log_stats_rollups_user_bucket", columnList = "user_id, bucket_start"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LogStatsRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "log_level", nullable = false)
+    private String logLevel;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "total_count", nullable = false)
+    private long totalCount;
+
+    @Column(name = "anomaly_count", nullable = false)
+    private long anomalyCount;
+}
@@ -0,0 +1,76 @@
+package com.dinidu.loglens.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A large upload split into chunk work items that any node can process; counters are merged as chunks finish
+ */
+@Entity
+@Table(name = "processing_jobs",
+        indexes = @Index(name = "idx_processing_jobs_user_created", columnList = "user_id, created_at"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessingJob {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Column(name = "file_size", nullable = false)
+    private long fileSize;
+
+    @Column(name = "total_lines", nullable = false)
+    private int totalLines;
+
+    @Column(name = "total_chunks", nullable = false)
+    private int totalChunks;
+
+    @Column(name = "completed_chunks", nullable = false)
+    private int completedChunks;
+
+    @Column(name = "failed_chunks", nullable = false)
+    private int failedChunks;
+
+    @Column(name = "processed_lines", nullable = false)
+    private int processedLines;
+
+    @Column(name = "anomalies_detected", nullable = false)
+    private int anomaliesDetected;
+
+    @Column(name = "error_count", nullable = false)
+    private int errorCount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private Status status;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public enum Status {
+        SPLITTING, QUEUED, RUNNING, COMPLETED, COMPLETED_WITH_ERRORS
+    }
+}
@@ -0,0 +1,62 @@
+package com.dinidu.loglens.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One chunk of a processing job's lines, queued until a node claims it
+ */
+@Entity
+@Table(name = "processing_work_items",
+        indexes = {
+                @Index(name = "idx_processing_work_items_status_id", columnList = "status, id"),
+                @Index(name = "idx_processing_work_items_job", columnList = "job_id")
+        })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessingWorkItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false, length = 36)
+    private String jobId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "chunk_index", nullable = false)
+    private int chunkIndex;
+
+    @Column(name = "line_count", nullable = false)
+    private int lineCount;
+
+    // Newline-separated lines of the chunk
+    @Column(columnDefinition = "TEXT")
+    private String lines;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "claimed_by")
+    private String claimedBy;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    public enum Status {
+        PENDING, CLAIMED
+    }
+}
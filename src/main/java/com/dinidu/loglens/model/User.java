@@ -47,6 +47,10 @@ public class User {
     @Column(nullable = false)
     private Boolean enabled = true;
 
+    // Provider of the user's stored embeddings; set before the first ones are stored
+    @Column(name = "embedding_provider", length = 32)
+    private String embeddingProvider;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,29 @@
+package com.dinidu.loglens.repository;
+
+import com.dinidu.loglens.model.IngestionRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface IngestionRuleRepository extends JpaRepository<IngestionRule, Long> {
+
+    List<IngestionRule> findByUserIdOrderByPriorityAscIdAsc(Long userId);
+
+    Optional<IngestionRule> findByIdAndUserId(Long id, Long userId);
+
+    long countByUserId(Long userId);
+
+    /**
+     * Adds hits counted in memory since the last flush; concurrent flushes from other nodes add up
+     */
+    @Modifying
+    @Query("UPDATE IngestionRule r SET r.hitCount = r.hitCount + :hits, r.lastHitAt = :now WHERE r.id = :id")
+    int addHits(@Param("id") Long id, @Param("hits") long hits, @Param("now") LocalDateTime now);
+}
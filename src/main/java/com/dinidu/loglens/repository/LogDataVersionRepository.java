@@ -0,0 +1,21 @@
+package com.dinidu.loglens.repository;
+
+import com.dinidu.loglens.model.LogDataVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LogDataVersionRepository extends JpaRepository<LogDataVersion, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO log_data_versions (user_id, version) VALUES (:userId, 1) " +
+            "ON CONFLICT (user_id) DO UPDATE SET version = log_data_versions.version + 1",
+            nativeQuery = true)
+    void increment(@Param("userId") Long userId);
+
+    @Query("SELECT COALESCE(SUM(v.version), 0) FROM LogDataVersion v WHERE v.userId IN (:userId, :globalId)")
+    long sumVersions(@Param("userId") Long userId, @Param("globalId") Long globalId);
+}
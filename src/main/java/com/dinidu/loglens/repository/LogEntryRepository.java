@@ -1,16 +1,27 @@
 package com.dinidu.loglens.repository;
 
+import com.dinidu.loglens.dto.LogEntryDetail;
+import com.dinidu.loglens.dto.LogEntryExportRow;
+import com.dinidu.loglens.dto.LogEntrySummary;
+import com.dinidu.loglens.dto.LogSearchHit;
+import com.dinidu.loglens.dto.LogSimilarityHit;
 import com.dinidu.loglens.model.LogEntry;
 import com.dinidu.loglens.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface LogEntryRepository extends JpaRepository<LogEntry, Long> {
@@ -23,6 +34,51 @@ public interface LogEntryRepository extends JpaRepository<LogEntry, Long> {
 
     Page<LogEntry> findByUserAndIsAnomalyTrueOrderByTimestampDesc(User user, Pageable pageable);
 
+    // Summary projections for list endpoints; they never load embeddings, explanations or the user
+    String SUMMARY_SELECT = "SELECT new com.dinidu.loglens.dto.LogEntrySummary(l.id, l.timestamp, l.logLevel, " +
+            "SUBSTRING(l.logMessage, 1, " + LogEntrySummary.MESSAGE_PREVIEW_LENGTH + "), l.isAnomaly, l.similarityScore) " +
+            "FROM LogEntry l ";
+
+    @Query(value = SUMMARY_SELECT + "WHERE l.user = :user ORDER BY l.timestamp DESC",
+            countQuery = "SELECT COUNT(l) FROM LogEntry l WHERE l.user = :user")
+    Page<LogEntrySummary> findSummariesByUser(@Param("user") User user, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "WHERE l.user = :user AND l.isAnomaly = true ORDER BY l.timestamp DESC",
+            countQuery = "SELECT COUNT(l) FROM LogEntry l WHERE l.user = :user AND l.isAnomaly = true")
+    Page<LogEntrySummary> findAnomalySummariesByUser(@Param("user") User user, Pageable pageable);
+
+    // Keyset pagination on (timestamp, id); List return types avoid the count query of Page
+    @Query(SUMMARY_SELECT + "WHERE l.user = :user ORDER BY l.timestamp DESC, l.id DESC")
+    List<LogEntrySummary> findFirstByUserKeyset(@Param("user") User user, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE l.user = :user " +
+            "AND (l.timestamp < :timestamp OR (l.timestamp = :timestamp AND l.id < :id)) " +
+            "ORDER BY l.timestamp DESC, l.id DESC")
+    List<LogEntrySummary> findNextByUserKeyset(@Param("user") User user,
+                                               @Param("timestamp") LocalDateTime timestamp,
+                                               @Param("id") Long id,
+                                               Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE l.user = :user AND l.isAnomaly = true ORDER BY l.timestamp DESC, l.id DESC")
+    List<LogEntrySummary> findFirstAnomaliesByUserKeyset(@Param("user") User user, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE l.user = :user AND l.isAnomaly = true " +
+            "AND (l.timestamp < :timestamp OR (l.timestamp = :timestamp AND l.id < :id)) " +
+            "ORDER BY l.timestamp DESC, l.id DESC")
+    List<LogEntrySummary> findNextAnomaliesByUserKeyset(@Param("user") User user,
+                                                        @Param("timestamp") LocalDateTime timestamp,
+                                                        @Param("id") Long id,
+                                                        Pageable pageable);
+
+    @Query("SELECT new com.dinidu.loglens.dto.LogEntryDetail(l.id, l.timestamp, l.logMessage, l.logLevel, " +
+            "l.isAnomaly, l.explanation, l.similarityScore, l.sourceFile, l.createdAt) " +
+            "FROM LogEntry l WHERE l.id = :id AND l.user.id = :userId")
+    Optional<LogEntryDetail> findDetailByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Query(value = "SELECT CAST(embedding AS text) FROM log_entries WHERE id = :id AND user_id = :userId",
+            nativeQuery = true)
+    Optional<String> findEmbeddingByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
     @Query("SELECT l FROM LogEntry l WHERE l.user = :user AND l.timestamp BETWEEN :startDate AND :endDate ORDER BY l.timestamp DESC")
     List<LogEntry> findByUserAndTimestampBetween(@Param("user") User user,
                                                  @Param("startDate") LocalDateTime startDate,
@@ -34,7 +90,97 @@ public interface LogEntryRepository extends JpaRepository<LogEntry, Long> {
                                          @Param("targetEmbedding") String targetEmbedding,
                                          @Param("limit") int limit);
 
+    // Full-text search backed by the GIN index on to_tsvector('simple', log_message)
+    @Query(value = "SELECT l.id AS \"id\", l.timestamp AS \"timestamp\", l.log_level AS \"logLevel\", " +
+            "LEFT(l.log_message, " + LogEntrySummary.MESSAGE_PREVIEW_LENGTH + ") AS \"logMessage\", " +
+            "l.is_anomaly AS \"isAnomaly\", l.similarity_score AS \"similarityScore\", " +
+            "CAST(ts_rank_cd(to_tsvector('simple', l.log_message), q.query) AS double precision) AS \"rank\" " +
+            "FROM log_entries l, (SELECT CASE :mode " +
+            "WHEN 'phrase' THEN phraseto_tsquery('simple', :query) " +
+            "WHEN 'plain' THEN plainto_tsquery('simple', :query) " +
+            "ELSE websearch_to_tsquery('simple', :query) END AS query) q " +
+            "WHERE l.user_id = :userId AND to_tsvector('simple', l.log_message) @@ q.query " +
+            "AND (:level = '' OR l.log_level = :level) " +
+            "AND l.timestamp >= :startDate AND l.timestamp <= :endDate " +
+            "ORDER BY \"rank\" DESC, l.timestamp DESC LIMIT :limit",
+            nativeQuery = true)
+    List<LogSearchHit> searchByText(@Param("userId") Long userId,
+                                    @Param("query") String query,
+                                    @Param("mode") String mode,
+                                    @Param("level") String level,
+                                    @Param("startDate") LocalDateTime startDate,
+                                    @Param("endDate") LocalDateTime endDate,
+                                    @Param("limit") int limit);
+
+    // Nearest neighbours by cosine distance over all of the user's entries, anomalies included
+    @Query(value = "SELECT l.id AS \"id\", l.timestamp AS \"timestamp\", l.log_level AS \"logLevel\", " +
+            "LEFT(l.log_message, " + LogEntrySummary.MESSAGE_PREVIEW_LENGTH + ") AS \"logMessage\", " +
+            "l.is_anomaly AS \"isAnomaly\", 1 - (l.embedding <=> CAST(:targetEmbedding AS vector)) AS \"score\" " +
+            "FROM log_entries l WHERE l.user_id = :userId AND l.embedding IS NOT NULL " +
+            "ORDER BY l.embedding <=> CAST(:targetEmbedding AS vector) LIMIT :limit",
+            nativeQuery = true)
+    List<LogSimilarityHit> findNearestNeighbours(@Param("userId") Long userId,
+                                                 @Param("targetEmbedding") String targetEmbedding,
+                                                 @Param("limit") int limit);
+
+    // Nearest neighbours of a stored entry, using its own embedding instead of re-embedding the message
+    @Query(value = "SELECT l.id AS \"id\", l.timestamp AS \"timestamp\", l.log_level AS \"logLevel\", " +
+            "LEFT(l.log_message, " + LogEntrySummary.MESSAGE_PREVIEW_LENGTH + ") AS \"logMessage\", " +
+            "l.is_anomaly AS \"isAnomaly\", " +
+            "1 - (l.embedding <=> (SELECT t.embedding FROM log_entries t WHERE t.id = :entryId AND t.user_id = :userId)) AS \"score\" " +
+            "FROM log_entries l WHERE l.user_id = :userId AND l.id <> :entryId AND l.embedding IS NOT NULL " +
+            "AND (:level = '' OR l.log_level = :level) " +
+            "AND (:windowMinutes <= 0 OR ABS(EXTRACT(EPOCH FROM (l.timestamp - " +
+            "(SELECT t.timestamp FROM log_entries t WHERE t.id = :entryId AND t.user_id = :userId)))) <= :windowMinutes * 60) " +
+            "ORDER BY l.embedding <=> (SELECT t.embedding FROM log_entries t WHERE t.id = :entryId AND t.user_id = :userId) " +
+            "LIMIT :limit",
+            nativeQuery = true)
+    List<LogSimilarityHit> findNeighboursOfEntry(@Param("userId") Long userId,
+                                                 @Param("entryId") Long entryId,
+                                                 @Param("level") String level,
+                                                 @Param("windowMinutes") int windowMinutes,
+                                                 @Param("limit") int limit);
+
+    @Query("SELECT CASE WHEN COUNT(l) > 0 THEN true ELSE false END FROM LogEntry l " +
+            "WHERE l.id = :id AND l.user.id = :userId AND l.embedding IS NOT NULL")
+    boolean hasEmbedding(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Forward-only cursor for exports; must be consumed inside a transaction
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT new com.dinidu.loglens.dto.LogEntryExportRow(l.id, l.timestamp, l.logLevel, l.logMessage, " +
+            "l.isAnomaly, l.similarityScore, l.explanation, l.sourceFile) FROM LogEntry l " +
+            "WHERE l.user = :user AND (:anomaliesOnly = false OR l.isAnomaly = true) " +
+            "AND l.timestamp >= :startDate AND l.timestamp <= :endDate " +
+            "ORDER BY l.timestamp, l.id")
+    Stream<LogEntryExportRow> streamExportRows(@Param("user") User user,
+                                               @Param("anomaliesOnly") boolean anomaliesOnly,
+                                               @Param("startDate") LocalDateTime startDate,
+                                               @Param("endDate") LocalDateTime endDate);
+
+    // Cursor over the entries one processing job stored, in save order; must be consumed inside a transaction
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT new com.dinidu.loglens.dto.LogEntryExportRow(l.id, l.timestamp, l.logLevel, l.logMessage, " +
+            "l.isAnomaly, l.similarityScore, l.explanation, l.sourceFile) FROM LogEntry l " +
+            "WHERE l.user = :user AND l.jobId = :jobId ORDER BY l.id")
+    Stream<LogEntryExportRow> streamJobExportRows(@Param("user") User user, @Param("jobId") String jobId);
+
     long countByUserAndIsAnomalyTrue(User user);
 
     long countByUser(User user);
+
+    @Modifying
+    @Query("DELETE FROM LogEntry l WHERE l.user = :user")
+    int deleteByUser(@Param("user") User user);
+
+    @Modifying
+    @Query("DELETE FROM LogEntry l WHERE l.timestamp < :cutoff")
+    int deleteByTimestampBefore(@Param("cutoff") LocalDateTime cutoff);
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.dinidu.loglens.repository;
+
+import com.dinidu.loglens.model.LogStatsRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface LogStatsRollupRepository extends JpaRepository<LogStatsRollup, Long> {
+
+    List<LogStatsRollup> findByUserIdAndBucketStartBetweenOrderByBucketStart(Long userId,
+                                                                             LocalDateTime from,
+                                                                             LocalDateTime to);
+
+    @Query("SELECT COALESCE(SUM(r.totalCount), 0) FROM LogStatsRollup r WHERE r.userId = :userId")
+    long sumTotalCountByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT COALESCE(SUM(r.anomalyCount), 0) FROM LogStatsRollup r WHERE r.userId = :userId")
+    long sumAnomalyCountByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "INSERT INTO log_stats_rollups (user_id, log_level, bucket_start, total_count, anomaly_count) " +
+            "VALUES (:userId, :logLevel, :bucketStart, :total, :anomalies) " +
+            "ON CONFLICT (user_id, log_level, bucket_start) DO UPDATE SET " +
+            "total_count = GREATEST(log_stats_rollups.total_count + EXCLUDED.total_count, 0), " +
+            "anomaly_count = GREATEST(log_stats_rollups.anomaly_count + EXCLUDED.anomaly_count, 0)",
+            nativeQuery = true)
+    void upsertCounts(@Param("userId") Long userId,
+                      @Param("logLevel") String logLevel,
+                      @Param("bucketStart") LocalDateTime bucketStart,
+                      @Param("total") long total,
+                      @Param("anomalies") long anomalies);
+
+    @Modifying
+    @Query(value = "UPDATE log_stats_rollups SET " +
+            "total_count = GREATEST(total_count - :total, 0), " +
+            "anomaly_count = GREATEST(anomaly_count - :anomalies, 0) " +
+            "WHERE user_id = :userId AND log_level = :logLevel AND bucket_start = :bucketStart",
+            nativeQuery = true)
+    void subtractCounts(@Param("userId") Long userId,
+                        @Param("logLevel") String logLevel,
+                        @Param("bucketStart") LocalDateTime bucketStart,
+                        @Param("total") long total,
+                        @Param("anomalies") long anomalies);
+
+    @Modifying
+    @Query(value = "INSERT INTO log_stats_rollups (user_id, log_level, bucket_start, total_count, anomaly_count) " +
+            "SELECT user_id, COALESCE(log_level, 'UNKNOWN'), date_trunc('hour', timestamp), " +
+            "COUNT(*), COUNT(*) FILTER (WHERE is_anomaly) " +
+            "FROM log_entries WHERE user_id = :userId " +
+            "GROUP BY user_id, COALESCE(log_level, 'UNKNOWN'), date_trunc('hour', timestamp)",
+            nativeQuery = true)
+    int rebuildForUser(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM LogStatsRollup r WHERE r.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM LogStatsRollup r WHERE r.bucketStart < :cutoff")
+    int deleteByBucketStartBefore(@Param("cutoff") LocalDateTime cutoff);
+}
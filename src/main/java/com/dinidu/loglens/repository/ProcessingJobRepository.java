@@ -0,0 +1,69 @@
+package com.dinidu.loglens.repository;
+
+import com.dinidu.loglens.model.ProcessingJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface ProcessingJobRepository extends JpaRepository<ProcessingJob, String> {
+
+    Optional<ProcessingJob> findByIdAndUserId(String id, Long userId);
+
+    /**
+     * Adds a finished chunk's results to its job in a single statement, so chunks finishing
+     * concurrently on different nodes never lose updates; the job completes with its last chunk
+     */
+    @Modifying
+    @Query(value = "UPDATE processing_jobs SET " +
+            "completed_chunks = completed_chunks + :completed, " +
+            "failed_chunks = failed_chunks + :failed, " +
+            "processed_lines = processed_lines + :processedLines, " +
+            "anomalies_detected = anomalies_detected + :anomalies, " +
+            "error_count = error_count + :errors, " +
+            "error_message = COALESCE(:errorMessage, error_message), " +
+            "started_at = COALESCE(started_at, :now), " +
+            "status = CASE WHEN completed_chunks + failed_chunks + :completed + :failed < total_chunks THEN 'RUNNING' " +
+            "WHEN failed_chunks + :failed > 0 THEN 'COMPLETED_WITH_ERRORS' ELSE 'COMPLETED' END, " +
+            "completed_at = CASE WHEN completed_chunks + failed_chunks + :completed + :failed < total_chunks " +
+            "THEN NULL ELSE :now END " +
+            "WHERE id = :jobId",
+            nativeQuery = true)
+    int recordChunk(@Param("jobId") String jobId,
+                    @Param("completed") int completed,
+                    @Param("failed") int failed,
+                    @Param("processedLines") int processedLines,
+                    @Param("anomalies") int anomalies,
+                    @Param("errors") int errors,
+                    @Param("errorMessage") String errorMessage,
+                    @Param("now") LocalDateTime now);
+
+    /**
+     * Opens a job whose work items have all been stored for claiming, or completes it if it has none
+     */
+    @Modifying
+    @Query(value = "UPDATE processing_jobs SET total_lines = :totalLines, total_chunks = :totalChunks, " +
+            "status = CASE WHEN :totalChunks = 0 THEN 'COMPLETED' ELSE 'QUEUED' END, " +
+            "completed_at = CASE WHEN :totalChunks = 0 THEN :now ELSE NULL END " +
+            "WHERE id = :jobId AND status = 'SPLITTING'",
+            nativeQuery = true)
+    int markQueued(@Param("jobId") String jobId,
+                   @Param("totalLines") int totalLines,
+                   @Param("totalChunks") int totalChunks,
+                   @Param("now") LocalDateTime now);
+
+    /**
+     * Moves queued jobs to RUNNING when their first chunk is claimed
+     */
+    @Modifying
+    @Query(value = "UPDATE processing_jobs SET status = 'RUNNING', started_at = COALESCE(started_at, :now) " +
+            "WHERE id IN (:jobIds) AND status = 'QUEUED'",
+            nativeQuery = true)
+    int markRunning(@Param("jobIds") Collection<String> jobIds, @Param("now") LocalDateTime now);
+}
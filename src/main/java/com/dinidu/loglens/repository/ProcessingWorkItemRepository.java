@@ -0,0 +1,82 @@
+package com.dinidu.loglens.repository;
+
+import com.dinidu.loglens.model.ProcessingWorkItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProcessingWorkItemRepository extends JpaRepository<ProcessingWorkItem, Long> {
+
+    /**
+     * Locks up to {@code limit} claimable items: pending ones and claims whose lease has expired, as long
+     * as they have attempts left. Rows locked by another node's claim are skipped rather than waited on, so
+     * nodes never contend. Items of a job that is still being split are not claimable yet. Must run in the
+     * same transaction as {@link #markClaimed}.
+     */
+    @Query(value = "SELECT w.id FROM processing_work_items w " +
+            "WHERE (w.status = 'PENDING' OR (w.status = 'CLAIMED' AND w.claimed_at < :leaseCutoff)) " +
+            "AND w.attempts < :maxAttempts " +
+            "AND NOT EXISTS (SELECT 1 FROM processing_jobs j WHERE j.id = w.job_id AND j.status = 'SPLITTING') " +
+            "ORDER BY w.id LIMIT :limit FOR UPDATE OF w SKIP LOCKED",
+            nativeQuery = true)
+    List<Long> lockClaimable(@Param("leaseCutoff") LocalDateTime leaseCutoff,
+                             @Param("maxAttempts") int maxAttempts,
+                             @Param("limit") int limit);
+
+    /**
+     * Locks up to {@code limit} expired claims that used their last attempt, so they can be counted as failed
+     */
+    @Query(value = "SELECT w.id FROM processing_work_items w " +
+            "WHERE w.status = 'CLAIMED' AND w.claimed_at < :leaseCutoff AND w.attempts >= :maxAttempts " +
+            "ORDER BY w.id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Long> lockExhausted(@Param("leaseCutoff") LocalDateTime leaseCutoff,
+                             @Param("maxAttempts") int maxAttempts,
+                             @Param("limit") int limit);
+
+    /**
+     * Extends the lease of claims this node still holds
+     */
+    @Modifying
+    @Query("UPDATE ProcessingWorkItem w SET w.claimedAt = :now " +
+            "WHERE w.id IN :ids AND w.claimedBy = :node " +
+            "AND w.status = com.dinidu.loglens.model.ProcessingWorkItem.Status.CLAIMED")
+    int renewClaims(@Param("ids") Collection<Long> ids, @Param("node") String node, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE ProcessingWorkItem w SET w.status = com.dinidu.loglens.model.ProcessingWorkItem.Status.CLAIMED, " +
+            "w.claimedBy = :node, w.claimedAt = :now, w.attempts = w.attempts + 1 WHERE w.id IN :ids")
+    int markClaimed(@Param("ids") Collection<Long> ids, @Param("node") String node, @Param("now") LocalDateTime now);
+
+    /**
+     * Removes a finished item, only if this node still holds the claim it processed
+     */
+    @Modifying
+    @Query("DELETE FROM ProcessingWorkItem w WHERE w.id = :id AND w.claimedBy = :node AND w.attempts = :attempts")
+    int deleteClaimed(@Param("id") Long id, @Param("node") String node, @Param("attempts") int attempts);
+
+    /**
+     * Puts a failed item back in the queue for another attempt, only if this node still holds the claim
+     */
+    @Modifying
+    @Query("UPDATE ProcessingWorkItem w SET w.status = com.dinidu.loglens.model.ProcessingWorkItem.Status.PENDING, " +
+            "w.claimedBy = NULL, w.claimedAt = NULL " +
+            "WHERE w.id = :id AND w.claimedBy = :node AND w.attempts = :attempts")
+    int release(@Param("id") Long id, @Param("node") String node, @Param("attempts") int attempts);
+
+    /**
+     * Removes the items of a job whose split was abandoned
+     */
+    @Modifying
+    @Query("DELETE FROM ProcessingWorkItem w WHERE w.jobId = :jobId")
+    int deleteByJobId(@Param("jobId") String jobId);
+
+    long countByStatus(ProcessingWorkItem.Status status);
+}
@@ -2,6 +2,9 @@ package com.dinidu.loglens.repository;
 
 import com.dinidu.loglens.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -18,4 +21,30 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
 
     boolean existsByProviderId(String providerId);
-}
\ No newline at end of file
+
+    /**
+     * Loads the user a bearer token belongs to, unless that token was revoked
+     */
+    @Query("SELECT u FROM User u WHERE u.id = :id " +
+            "AND NOT EXISTS (SELECT r FROM RevokedToken r WHERE r.tokenId = :tokenId)")
+    Optional<User> findByIdUnlessRevoked(@Param("id") Long id, @Param("tokenId") String tokenId);
+
+    @Query("SELECT u.embeddingProvider FROM User u WHERE u.id = :id")
+    Optional<String> findEmbeddingProvider(@Param("id") Long id);
+
+    /**
+     * Stores the user's embedding provider unless one is stored already
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.embeddingProvider = :provider WHERE u.id = :id AND u.embeddingProvider IS NULL")
+    int pinEmbeddingProvider(@Param("id") Long id, @Param("provider") String provider);
+
+    /**
+     * Changes the user's embedding provider, only while none of the user's log entries has an embedding
+     */
+    @Modifying
+    @Query(value = "UPDATE users SET embedding_provider = :provider WHERE id = :id " +
+            "AND NOT EXISTS (SELECT 1 FROM log_entries l WHERE l.user_id = :id AND l.embedding IS NOT NULL)",
+            nativeQuery = true)
+    int switchEmbeddingProvider(@Param("id") Long id, @Param("provider") String provider);
+}
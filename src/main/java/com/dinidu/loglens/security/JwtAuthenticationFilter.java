@@ -0,0 +1,226 @@
+package com.dinidu.loglens.security;
+
+import com.dinidu.loglens.model.User;
+import com.dinidu.loglens.repository.UserRepository;
+import com.dinidu.loglens.service.TokenRevocationService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Authenticates API requests from a bearer token, so any node can serve any request without a session.
+ * <p>
+ * Signature checks are cached per token until the token expires or the cache TTL passes, whichever comes
+ * first. The cache only holds the user id: the user is loaded on every request in the same query that
+ * checks the token against the revocation list, so disabled users, role changes and logouts take effect
+ * at once on every node. The live stream also accepts a short-lived stream ticket as a {@code ticket}
+ * query parameter because browsers cannot set headers on an EventSource. A ticket can be reused on the
+ * stream until it expires, so the browser's automatic reconnect works; after that the client has to fetch
+ * a new one.
+ */
+@Slf4j
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String TICKET_PATH = "/api/logs/stream";
+    private static final String TICKET_PARAM = "ticket";
+
+    private final JwtUtil jwtUtil;
+    private final UserRepository userRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserRepository userRepository,
+                                   TokenRevocationService tokenRevocationService, long cacheSize, Duration cacheTtl) {
+        this.jwtUtil = jwtUtil;
+        this.userRepository = userRepository;
+        this.tokenRevocationService = tokenRevocationService;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+                        long untilExpiry = verified.expiresAt.toEpochMilli() - System.currentTimeMillis();
+                        return Math.max(0, Math.min(cacheTtl.toNanos(), Duration.ofMillis(untilExpiry).toNanos()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, VerifiedToken verified, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, VerifiedToken verified, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            String token = resolveBearerToken(request);
+            Optional<CustomOAuth2User> principal = Optional.empty();
+            if (token != null) {
+                principal = authenticate(token);
+            } else if (TICKET_PATH.equals(request.getRequestURI()) && request.getParameter(TICKET_PARAM) != null) {
+                principal = authenticateTicket(request.getParameter(TICKET_PARAM));
+            }
+            principal.ifPresent(p -> {
+                UsernamePasswordAuthenticationToken authentication =
+                        new UsernamePasswordAuthenticationToken(p, null, p.getAuthorities());
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(authentication);
+                SecurityContextHolder.setContext(context);
+            });
+        }
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * Revokes the request's bearer token on every node until it expires, used on logout
+     */
+    public void revoke(HttpServletRequest request) {
+        String token = resolveBearerToken(request);
+        if (token == null) {
+            return;
+        }
+        VerifiedToken verified = verifiedTokens.getIfPresent(token);
+        if (verified == null) {
+            verified = verify(token);
+        }
+        if (verified != null) {
+            tokenRevocationService.revoke(verified.tokenId, verified.expiresAt);
+        }
+        verifiedTokens.invalidate(token);
+    }
+
+    private Optional<CustomOAuth2User> authenticate(String token) {
+        VerifiedToken verified = verifiedTokens.getIfPresent(token);
+        if (verified == null) {
+            verified = verify(token);
+            // Stream tickets only open the stream
+            if (verified == null || verified.streamTicket) {
+                return Optional.empty();
+            }
+            verifiedTokens.put(token, verified);
+        }
+
+        Optional<User> user = userRepository.findByIdUnlessRevoked(verified.userId, verified.tokenId);
+        if (user.isEmpty()) {
+            log.debug("Rejected revoked bearer token or unknown user {}", verified.userId);
+            return Optional.empty();
+        }
+        return toPrincipal(user.get());
+    }
+
+    private Optional<CustomOAuth2User> authenticateTicket(String ticket) {
+        VerifiedToken verified = verify(ticket);
+        if (verified == null || !verified.streamTicket) {
+            return Optional.empty();
+        }
+        Optional<User> user = userRepository.findByIdUnlessRevoked(verified.userId, verified.tokenId);
+        if (user.isEmpty()) {
+            log.debug("Rejected revoked stream ticket or unknown user {}", verified.userId);
+            return Optional.empty();
+        }
+        return toPrincipal(user.get());
+    }
+
+    private Optional<CustomOAuth2User> toPrincipal(User user) {
+        if (Boolean.FALSE.equals(user.getEnabled())) {
+            log.debug("Rejected token of disabled user {}", user.getId());
+            return Optional.empty();
+        }
+        return Optional.of(new CustomOAuth2User(Map.of("id", user.getId(), "email", user.getEmail()), "email", user));
+    }
+
+    /**
+     * Checks the signature and expiry of a token, or returns null if it is invalid
+     */
+    private VerifiedToken verify(String token) {
+        Claims claims;
+        try {
+            claims = jwtUtil.validateAndGetClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Rejected bearer token: {}", e.getMessage());
+            return null;
+        }
+
+        Long userId;
+        try {
+            userId = Long.valueOf(claims.getSubject());
+        } catch (NumberFormatException e) {
+            log.debug("Rejected bearer token with subject {}", claims.getSubject());
+            return null;
+        }
+
+        // Tokens issued before ids were added are identified by their hash
+        String tokenId = claims.getId() != null ? claims.getId() : sha256(token);
+        Instant expiresAt = claims.getExpiration() != null
+                ? claims.getExpiration().toInstant()
+                : Instant.now().plus(Duration.ofDays(365));
+        boolean streamTicket = JwtUtil.STREAM_TICKET_TYPE.equals(claims.get(JwtUtil.TYPE_CLAIM, String.class));
+        return new VerifiedToken(userId, tokenId, expiresAt, streamTicket);
+    }
+
+    private static String resolveBearerToken(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            String token = header.substring(BEARER_PREFIX.length()).trim();
+            return token.isEmpty() ? null : token;
+        }
+        return null;
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class VerifiedToken {
+        private final Long userId;
+        private final String tokenId;
+        private final Instant expiresAt;
+        private final boolean streamTicket;
+
+        private VerifiedToken(Long userId, String tokenId, Instant expiresAt, boolean streamTicket) {
+            this.userId = userId;
+            this.tokenId = tokenId;
+            this.expiresAt = expiresAt;
+            this.streamTicket = streamTicket;
+        }
+    }
+}
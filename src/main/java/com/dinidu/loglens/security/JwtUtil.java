@@ -2,6 +2,7 @@ package com.dinidu.loglens.security;
 
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -9,19 +10,30 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
 
+    public static final String TYPE_CLAIM = "typ";
+    public static final String STREAM_TICKET_TYPE = "stream-ticket";
+
     private static Key key = null;
     private static long expirationMs = 0;
 
+    // Parsers are immutable and thread-safe, so one instance serves every request
+    private final JwtParser parser;
+
     public JwtUtil(
             @Value("${app.jwt.secret}") String secret,
             @Value("${app.jwt.expiration}") long expirationMs) {
         key = Keys.hmacShaKeyFor(secret.getBytes());
         JwtUtil.expirationMs = expirationMs;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
     }
 
     public static String generateToken(Long userId, String email, String role) {
@@ -29,6 +41,7 @@ public class JwtUtil {
         Date expiry = new Date(now.getTime() + expirationMs);
 
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userId.toString())
                 .claim("email", email)
                 .claim("role", role)
@@ -38,11 +51,28 @@ public class JwtUtil {
                 .compact();
     }
 
+    /**
+     * Issues a short-lived ticket that only opens the live stream, so that browsers, which
+     * cannot set headers on an EventSource, never put the bearer token into a URL
+     */
+    public static String generateStreamTicket(Long userId, Duration ttl) {
+        Date now = new Date();
+        return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject(userId.toString())
+                .claim(TYPE_CLAIM, STREAM_TICKET_TYPE)
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + ttl.toMillis()))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    /**
+     * Verifies the signature and expiry of a token and returns its claims
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
     public Claims validateAndGetClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 }
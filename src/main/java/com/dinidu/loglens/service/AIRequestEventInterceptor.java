@@ -0,0 +1,41 @@
+package com.dinidu.loglens.service;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.support.RetrySynchronizationManager;
+
+import java.io.IOException;
+
+/**
+ * Emits a JFR {@link PipelineEvents.AIRequestEvent} for each call the AI service client makes.
+ * Running on the client means the event sees the exact bytes sent and the status received,
+ * and the retry count of the enclosing {@code @Retryable} AIService method.
+ */
+public class AIRequestEventInterceptor implements ClientHttpRequestInterceptor {
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        PipelineEvents.AIRequestEvent event = new PipelineEvents.AIRequestEvent();
+        event.begin();
+        ClientHttpResponse response = null;
+        try {
+            response = execution.execute(request, body);
+            return response;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.endpoint = request.getURI().getPath();
+                event.requestBytes = body.length;
+                event.responseBytes = response != null ? response.getHeaders().getContentLength() : -1;
+                event.status = response != null ? response.getStatusCode().value() : -1;
+                RetryContext retryContext = RetrySynchronizationManager.getContext();
+                event.retryCount = retryContext != null ? retryContext.getRetryCount() : 0;
+                event.commit();
+            }
+        }
+    }
+}
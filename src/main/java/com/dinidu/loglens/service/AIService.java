@@ -1,13 +1,12 @@
 package com.dinidu.loglens.service;
 
 
-import com.dinidu.loglens.dto.EmbeddingRequest;
-import com.dinidu.loglens.dto.EmbeddingResponse;
 import com.dinidu.loglens.dto.ExplanationRequest;
 import com.dinidu.loglens.dto.ExplanationResponse;
 import com.dinidu.loglens.exception.AIServiceException;
-import lombok.RequiredArgsConstructor;
+import com.dinidu.loglens.model.User;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.retry.annotation.Backoff;
@@ -20,11 +19,19 @@ import org.springframework.web.client.RestTemplate;
 import java.util.List;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class AIService {
 
     private final RestTemplate restTemplate;
+    private final ProcessingMetrics processingMetrics;
+    private final EmbeddingService embeddingService;
+
+    public AIService(@Qualifier("aiRestTemplate") RestTemplate restTemplate, ProcessingMetrics processingMetrics,
+                     EmbeddingService embeddingService) {
+        this.restTemplate = restTemplate;
+        this.processingMetrics = processingMetrics;
+        this.embeddingService = embeddingService;
+    }
 
     @Value("${ai.service.base-url:http://localhost:8001}")
     private String aiServiceBaseUrl;
@@ -33,65 +40,19 @@ public class AIService {
     private int timeoutMs;
 
     /**
-     * Generates vector embedding for a log message using the Python AI microservice
+     * Generates vector embedding for a log message with the user's embedding provider. This is the only
+     * entry point for embeddings, so stored vectors, baselines and queries of a user always share one space.
      *
+     * @param user       The user whose provider embeds the message
      * @param logMessage The raw log message to generate embedding for
      * @return List of Float values representing the vector embedding
-     * @throws AIServiceException if the AI service is unavailable or returns an error
+     * @throws AIServiceException if the provider is the AI service and it is unavailable or returns an error
      */
-    @Retryable(
-            value = {ResourceAccessException.class, RestClientException.class},
-            maxAttempts = 3,
-            backoff = @Backoff(delay = 1000, multiplier = 2)
-    )
-    public List<Float> generateEmbedding(String logMessage) {
-        log.debug("Generating embedding for log message: {}", logMessage);
-
+    public List<Float> generateEmbedding(User user, String logMessage) {
         if (logMessage == null || logMessage.trim().isEmpty()) {
             throw new IllegalArgumentException("Log message cannot be null or empty");
         }
-
-        try {
-            String url = aiServiceBaseUrl + "/api/v1/embeddings";
-
-            // Create request payload
-            EmbeddingRequest request = EmbeddingRequest.builder()
-                    .logMessage(logMessage.trim())
-                    .build();
-
-            // Set headers
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.add("User-Agent", "LogAnalysis-Backend/1.0");
-
-            HttpEntity<EmbeddingRequest> entity = new HttpEntity<>(request, headers);
-
-            // Make the request
-            ResponseEntity<EmbeddingResponse> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    entity,
-                    EmbeddingResponse.class
-            );
-
-            if (response.getStatusCode() != HttpStatus.OK) {
-                throw new AIServiceException("AI service returned status: " + response.getStatusCode());
-            }
-
-            EmbeddingResponse embeddingResponse = response.getBody();
-            if (embeddingResponse == null || embeddingResponse.getEmbedding() == null) {
-                throw new AIServiceException("AI service returned null or empty embedding");
-            }
-
-            List<Float> embedding = embeddingResponse.getEmbedding();
-            log.debug("Successfully generated embedding with {} dimensions", embedding.size());
-
-            return embedding;
-
-        } catch (RestClientException e) {
-            log.error("Error calling AI service for embedding generation: {}", e.getMessage());
-            throw new AIServiceException("Failed to generate embedding: " + e.getMessage(), e);
-        }
+        return embeddingService.analysisProvider(user).embed(logMessage);
     }
 
     /**
@@ -115,6 +76,8 @@ public class AIService {
             throw new IllegalArgumentException("Anomalous log cannot be null or empty");
         }
 
+        long start = System.nanoTime();
+        boolean success = false;
         try {
             String url = aiServiceBaseUrl + "/api/v1/explain";
 
@@ -151,11 +114,14 @@ public class AIService {
             String explanation = explanationResponse.getExplanation();
             log.debug("Successfully generated explanation with {} characters", explanation.length());
 
+            success = true;
             return explanation;
 
         } catch (RestClientException e) {
             log.error("Error calling AI service for explanation generation: {}", e.getMessage());
             throw new AIServiceException("Failed to generate explanation: " + e.getMessage(), e);
+        } finally {
+            processingMetrics.recordAiCall("explanation", start, success);
         }
     }
 
@@ -0,0 +1,111 @@
+package com.dinidu.loglens.service;
+
+import java.util.*;
+
+/**
+ * Aho-Corasick automaton that finds which of a fixed set of literals occur in a text in one pass,
+ * independent of the number of literals. Built once and then safe for concurrent reads.
+ * <p>
+ * Transitions are stored as sorted parallel arrays per state and looked up by binary search, so the
+ * automaton stays compact for any alphabet and matching allocates nothing beyond the caller's BitSet.
+ */
+public final class AhoCorasick {
+
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] fail;
+    // Patterns ending at each state, and the nearest state on the failure chain that ends patterns
+    private final int[][] outputs;
+    private final int[] outputLink;
+
+    public AhoCorasick(List<String> patterns) {
+        List<Map<Character, Integer>> trie = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        trie.add(new HashMap<>());
+        ends.add(new ArrayList<>());
+
+        for (int p = 0; p < patterns.size(); p++) {
+            String pattern = patterns.get(p);
+            if (pattern == null || pattern.isEmpty()) {
+                throw new IllegalArgumentException("Patterns must not be empty");
+            }
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                Integer next = trie.get(state).get(pattern.charAt(i));
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new HashMap<>());
+                    ends.add(new ArrayList<>());
+                    trie.get(state).put(pattern.charAt(i), next);
+                }
+                state = next;
+            }
+            ends.get(state).add(p);
+        }
+
+        int states = trie.size();
+        edgeChars = new char[states][];
+        edgeTargets = new int[states][];
+        outputs = new int[states][];
+        for (int s = 0; s < states; s++) {
+            List<Character> chars = new ArrayList<>(trie.get(s).keySet());
+            Collections.sort(chars);
+            edgeChars[s] = new char[chars.size()];
+            edgeTargets[s] = new int[chars.size()];
+            for (int i = 0; i < chars.size(); i++) {
+                edgeChars[s][i] = chars.get(i);
+                edgeTargets[s][i] = trie.get(s).get(chars.get(i));
+            }
+            outputs[s] = ends.get(s).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        // Breadth-first so that every failure target is resolved before it is used
+        fail = new int[states];
+        outputLink = new int[states];
+        Arrays.fill(outputLink, -1);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int target : edgeTargets[0]) {
+            queue.add(target);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int i = 0; i < edgeChars[state].length; i++) {
+                char c = edgeChars[state][i];
+                int child = edgeTargets[state][i];
+                int f = fail[state];
+                int next;
+                while ((next = transition(f, c)) < 0 && f != 0) {
+                    f = fail[f];
+                }
+                fail[child] = next >= 0 ? next : 0;
+                outputLink[child] = outputs[fail[child]].length > 0 ? fail[child] : outputLink[fail[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Sets the index of every pattern that occurs in the text
+     */
+    public void findAll(CharSequence text, BitSet matched) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int next;
+            while ((next = transition(state, c)) < 0 && state != 0) {
+                state = fail[state];
+            }
+            state = Math.max(next, 0);
+            for (int s = state; s >= 0; s = outputLink[s]) {
+                for (int p : outputs[s]) {
+                    matched.set(p);
+                }
+            }
+        }
+    }
+
+    private int transition(int state, char c) {
+        int i = Arrays.binarySearch(edgeChars[state], c);
+        return i >= 0 ? edgeTargets[state][i] : -1;
+    }
+}
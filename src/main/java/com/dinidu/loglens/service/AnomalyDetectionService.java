@@ -16,6 +16,7 @@ import java.util.List;
 public class AnomalyDetectionService {
 
     private final LogEntryRepository logEntryRepository;
+    private final ProcessingMetrics processingMetrics;
 
     /**
      * Detects if a log entry is anomalous based on similarity to baseline logs
@@ -51,8 +52,17 @@ public class AnomalyDetectionService {
             String embeddingStr = embedding.toString();
 
             // Find the most similar log entry (only non-anomalous ones for baseline)
-            List<LogEntry> similarEntries = logEntryRepository.findSimilarLogEntries(
-                    user.getId(), embeddingStr, 1);
+            PipelineEvents.KnnQueryEvent event = new PipelineEvents.KnnQueryEvent();
+            event.begin();
+            List<LogEntry> similarEntries = processingMetrics.stage(ProcessingMetrics.STAGE_SIMILARITY)
+                    .record(() -> logEntryRepository.findSimilarLogEntries(user.getId(), embeddingStr, 1));
+            event.end();
+            if (event.shouldCommit()) {
+                event.userId = user.getId();
+                event.limit = 1;
+                event.results = similarEntries.size();
+                event.commit();
+            }
 
             if (similarEntries.isEmpty()) {
                 return null; // No baseline data
@@ -71,7 +81,7 @@ public class AnomalyDetectionService {
     /**
      * Calculates cosine similarity between two vectors
      */
-    private double calculateCosineSimilarity(List<Float> vector1, List<Float> vector2) {
+    double calculateCosineSimilarity(List<Float> vector1, List<Float> vector2) {
         if (vector1.size() != vector2.size()) {
             throw new IllegalArgumentException("Vectors must have the same dimension");
         }
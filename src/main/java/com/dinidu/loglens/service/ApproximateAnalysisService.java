@@ -0,0 +1,275 @@
+package com.dinidu.loglens.service;
+
+import com.dinidu.loglens.dto.AnomalySummary;
+import com.dinidu.loglens.dto.ApproximateAnalysisResult;
+import com.dinidu.loglens.dto.ApproximateBucket;
+import com.dinidu.loglens.model.IngestionRule;
+import com.dinidu.loglens.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Fast triage of large files: lines are stratified by time bucket, level and message template in one
+ * streaming pass, and only a sample is embedded and scored. The anomaly count is estimated with a
+ * stratified estimator and a normal-approximation confidence interval, overall and per time bucket.
+ * <p>
+ * The number of strata is kept within {@code log.approximate.max-strata} while reading and within the sample
+ * budget before sampling, by coarsening them: first templates are collapsed, then levels, then time buckets
+ * are widened. So the AI calls stay within the budget however long a time span the file covers.
+ * <p>
+ * Nothing is explained or persisted. Full processing can optionally be queued as a distributed job.
+ */
+@Service
+@Slf4j
+public class ApproximateAnalysisService {
+
+    private static final int MAX_ANOMALIES_IN_RESPONSE = 100;
+
+    private final LogProcessingService logProcessingService;
+    private final DistributedJobService distributedJobService;
+    private final IngestQuotaService ingestQuotaService;
+    private final IngestionRuleService ingestionRuleService;
+
+    private final int defaultSampleSize;
+    private final int maxSampleSize;
+    private final int reservoirSize;
+    private final int maxStrata;
+    private final long bucketMinutes;
+    private final double confidence;
+
+    public ApproximateAnalysisService(
+            LogProcessingService logProcessingService,
+            DistributedJobService distributedJobService,
+            IngestQuotaService ingestQuotaService,
+            IngestionRuleService ingestionRuleService,
+            @Value("${log.approximate.sample-size:2000}") int defaultSampleSize,
+            @Value("${log.approximate.max-sample-size:20000}") int maxSampleSize,
+            @Value("${log.approximate.reservoir-size:50}") int reservoirSize,
+            @Value("${log.approximate.max-strata:5000}") int maxStrata,
+            @Value("${log.approximate.bucket-minutes:60}") long bucketMinutes,
+            @Value("${log.approximate.confidence:0.95}") double confidence) {
+        this.logProcessingService = logProcessingService;
+        this.distributedJobService = distributedJobService;
+        this.ingestQuotaService = ingestQuotaService;
+        this.ingestionRuleService = ingestionRuleService;
+        this.defaultSampleSize = defaultSampleSize;
+        this.maxSampleSize = maxSampleSize;
+        this.reservoirSize = reservoirSize;
+        this.maxStrata = maxStrata;
+        this.bucketMinutes = bucketMinutes;
+        this.confidence = confidence;
+    }
+
+    /**
+     * Estimates the anomalies in a file from a stratified sample
+     *
+     * @param sampleSize           lines to embed and score, or null for the configured default
+     * @param continueInBackground also queue the whole file for full processing
+     */
+    public ApproximateAnalysisResult analyze(MultipartFile file, User user, Integer sampleSize,
+                                             boolean continueInBackground) throws IOException {
+        int budget = sampleSize != null ? sampleSize : defaultSampleSize;
+        if (budget < 1 || budget > maxSampleSize) {
+            throw new IllegalArgumentException("Sample size must be between 1 and " + maxSampleSize);
+        }
+        logProcessingService.validateFile(file);
+        long start = System.nanoTime();
+
+        StratifiedSampler<LogProcessingService.ParsedLogEntry> sampler =
+                new StratifiedSampler<>(reservoirSize, file.getSize());
+        Stratification stratification = new Stratification(bucketMinutes);
+        IngestionRuleSet rules = ingestionRuleService.rulesFor(user);
+        long filteredLines = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                LogProcessingService.ParsedLogEntry parsed = logProcessingService.parseLogLine(line);
+                // Lines the user's ingestion rules would drop or store unanalyzed can never be anomalies
+                IngestionRuleSet.CompiledRule rule =
+                        rules.evaluate(parsed.getLevel(), parsed.getMessage(), file.getOriginalFilename());
+                if (rule != null && rule.getAction() != IngestionRule.Action.ANALYZE) {
+                    filteredLines++;
+                    continue;
+                }
+                sampler.offer(stratification.key(parsed), parsed);
+                if (sampler.getStrataCount() > maxStrata) {
+                    stratification.coarsen(sampler);
+                }
+            }
+        }
+        // Every stratum gets a sampled line only while there are no more strata than lines to score
+        while (sampler.getStrataCount() > budget && stratification.coarsen(sampler)) {
+            log.debug("Coarsened strata to {} for a sample of {}", sampler.getStrataCount(), budget);
+        }
+
+        Map<String, List<LogProcessingService.ParsedLogEntry>> sample = sampler.sample(budget);
+        List<LogProcessingService.ParsedLogEntry> sampledLines = new ArrayList<>();
+        sample.values().forEach(sampledLines::addAll);
+
+        ingestQuotaService.acquire(user, sampledLines.size());
+        Boolean[] anomalous = logProcessingService.detectOnly(sampledLines, user, new StageProfile());
+
+        // Tally sampled results per stratum, overall and per time bucket
+        List<StratifiedSampler.StratumResult> overall = new ArrayList<>();
+        Map<LocalDateTime, List<StratifiedSampler.StratumResult>> perBucket = new TreeMap<>();
+        Map<LocalDateTime, int[]> bucketCounts = new HashMap<>();
+        List<LogProcessingService.ParsedLogEntry> anomalies = new ArrayList<>();
+        int failed = 0;
+        int index = 0;
+        for (Map.Entry<String, List<LogProcessingService.ParsedLogEntry>> entry : sample.entrySet()) {
+            int scored = 0;
+            int hits = 0;
+            for (LogProcessingService.ParsedLogEntry parsed : entry.getValue()) {
+                Boolean result = anomalous[index++];
+                if (result == null) {
+                    failed++;
+                    continue;
+                }
+                scored++;
+                if (result) {
+                    hits++;
+                    anomalies.add(parsed);
+                }
+            }
+            StratifiedSampler.StratumResult stratum =
+                    new StratifiedSampler.StratumResult(sampler.getPopulation(entry.getKey()), scored, hits);
+            LocalDateTime bucket = Stratification.bucketOf(entry.getKey());
+            overall.add(stratum);
+            perBucket.computeIfAbsent(bucket, b -> new ArrayList<>()).add(stratum);
+            int[] counts = bucketCounts.computeIfAbsent(bucket, b -> new int[2]);
+            counts[0] += scored;
+            counts[1] += hits;
+        }
+
+        double z = StratifiedSampler.zScore(confidence);
+        StratifiedSampler.Estimate estimate = StratifiedSampler.estimate(overall);
+
+        List<ApproximateBucket> buckets = new ArrayList<>();
+        perBucket.forEach((bucket, strata) -> {
+            StratifiedSampler.Estimate bucketEstimate = StratifiedSampler.estimate(strata);
+            int[] counts = bucketCounts.get(bucket);
+            buckets.add(ApproximateBucket.builder()
+                    .bucketStart(bucket)
+                    .totalLines(bucketEstimate.getPopulation())
+                    .sampledLines(counts[0])
+                    .sampledAnomalies(counts[1])
+                    .estimatedAnomalies(Math.round(bucketEstimate.getPopulation() * bucketEstimate.getProportion()))
+                    .estimatedAnomaliesLow(Math.max(counts[1],
+                            (long) Math.floor(bucketEstimate.getPopulation() * bucketEstimate.lower(z))))
+                    .estimatedAnomaliesHigh((long) Math.ceil(bucketEstimate.getPopulation() * bucketEstimate.upper(z)))
+                    .build());
+        });
+
+        anomalies.sort(Comparator.comparing(LogProcessingService.ParsedLogEntry::getTimestamp));
+        List<AnomalySummary> anomalySummaries = anomalies.stream()
+                .limit(MAX_ANOMALIES_IN_RESPONSE)
+                .map(parsed -> AnomalySummary.builder()
+                        .timestamp(parsed.getTimestamp())
+                        .logLevel(parsed.getLevel())
+                        .logMessage(AnomalySummary.preview(parsed.getMessage()))
+                        .build())
+                .collect(Collectors.toList());
+
+        long total = sampler.getTotal();
+        ApproximateAnalysisResult result = ApproximateAnalysisResult.builder()
+                .fileName(file.getOriginalFilename())
+                .fileSize(file.getSize())
+                .totalLines(total)
+                .filteredLines(filteredLines)
+                .sampledLines(sampledLines.size() - failed)
+                .failedSamples(failed)
+                .strata(sampler.getStrataCount())
+                .bucketMinutes(stratification.bucketMinutes)
+                .unestimatedLines(estimate.getUnestimatedPopulation())
+                .confidence(confidence)
+                .anomalyRate(estimate.getProportion())
+                .anomalyRateLow(estimate.lower(z))
+                .anomalyRateHigh(estimate.upper(z))
+                .sampledAnomalies(anomalies.size())
+                .estimatedAnomalies(Math.round(total * estimate.getProportion()))
+                .estimatedAnomaliesLow(Math.max(anomalies.size(), (long) Math.floor(total * estimate.lower(z))))
+                .estimatedAnomaliesHigh((long) Math.ceil(total * estimate.upper(z)))
+                .buckets(buckets)
+                .anomalies(anomalySummaries)
+                .tookMs((System.nanoTime() - start) / 1_000_000)
+                .build();
+
+        if (continueInBackground) {
+            result.setContinuation(distributedJobService.submit(file, user));
+        }
+
+        log.info("Approximate analysis of {} for user {}: {} of {} lines sampled across {} strata, ~{} anomalies",
+                file.getOriginalFilename(), user.getId(), result.getSampledLines(), total,
+                result.getStrata(), result.getEstimatedAnomalies());
+        return result;
+    }
+
+    /**
+     * Stratum keys of the form {@code bucketStartMinutes|level|template}, and how coarse they currently are
+     */
+    private static final class Stratification {
+        private static final int FULL = 0;
+        private static final int NO_TEMPLATES = 1;
+        private static final int NO_LEVELS = 2;
+
+        private int coarseness = FULL;
+        private long bucketMinutes;
+
+        private Stratification(long bucketMinutes) {
+            this.bucketMinutes = Math.max(1, bucketMinutes);
+        }
+
+        private String key(LogProcessingService.ParsedLogEntry parsed) {
+            long minutes = parsed.getTimestamp().toEpochSecond(ZoneOffset.UTC) / 60;
+            return key(minutes, parsed.getLevel(), coarseness < NO_TEMPLATES
+                    ? LogTemplateExtractor.extract(parsed.getMessage()) : LogTemplateExtractor.WILDCARD);
+        }
+
+        private String key(long minutes, String level, String template) {
+            return Math.floorDiv(minutes, bucketMinutes) * bucketMinutes + "|"
+                    + (coarseness < NO_LEVELS ? level : LogTemplateExtractor.WILDCARD) + "|"
+                    + (coarseness < NO_TEMPLATES ? template : LogTemplateExtractor.WILDCARD);
+        }
+
+        /**
+         * Makes the strata one step coarser
+         *
+         * @return false if they are already a single stratum
+         */
+        private boolean coarsen(StratifiedSampler<?> sampler) {
+            if (sampler.getStrataCount() <= 1) {
+                return false;
+            }
+            if (coarseness < NO_LEVELS) {
+                coarseness++;
+            } else {
+                bucketMinutes *= 2;
+            }
+            sampler.coarsen(key -> {
+                String[] parts = key.split("\\|", 3);
+                return key(Long.parseLong(parts[0]), parts[1], parts[2]);
+            });
+            return true;
+        }
+
+        private static LocalDateTime bucketOf(String key) {
+            long minutes = Long.parseLong(key.substring(0, key.indexOf('|')));
+            return LocalDateTime.ofEpochSecond(minutes * 60, 0, ZoneOffset.UTC);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.dinidu.loglens.service;
+
+import com.dinidu.loglens.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Detects rate spikes of log templates during ingestion.
+ * <p>
+ * Each (user, template) pair keeps a fixed ring of time buckets and an EWMA baseline of the
+ * per-bucket count, so memory per template is constant and no AI service calls are needed.
+ */
+@Service
+@Slf4j
+public class BurstDetectionService {
+
+    private final boolean enabled;
+    private final long bucketSeconds;
+    private final int windowBuckets;
+    private final double ewmaAlpha;
+    private final double sensitivity;
+    private final long minCount;
+    private final int maxTemplatesPerUser;
+
+    private final Map<Long, Map<String, TemplateRate>> userTemplates = new ConcurrentHashMap<>();
+
+    public BurstDetectionService(
+            @Value("${log.burst.enabled:true}") boolean enabled,
+            @Value("${log.burst.bucket-seconds:10}") long bucketSeconds,
+            @Value("${log.burst.window-buckets:30}") int windowBuckets,
+            @Value("${log.burst.ewma-alpha:0.1}") double ewmaAlpha,
+            @Value("${log.burst.sensitivity:4.0}") double sensitivity,
+            @Value("${log.burst.min-count:100}") long minCount,
+            @Value("${log.burst.max-templates-per-user:5000}") int maxTemplatesPerUser) {
+        if (bucketSeconds <= 0 || windowBuckets <= 0) {
+            throw new IllegalArgumentException("Burst bucket size and window must be positive");
+        }
+        this.enabled = enabled;
+        this.bucketSeconds = bucketSeconds;
+        this.windowBuckets = windowBuckets;
+        this.ewmaAlpha = ewmaAlpha;
+        this.sensitivity = sensitivity;
+        this.minCount = minCount;
+        this.maxTemplatesPerUser = maxTemplatesPerUser;
+    }
+
+    /**
+     * Records one occurrence of a log message and reports whether its template is bursting
+     */
+    public BurstObservation observe(User user, String message, LocalDateTime timestamp) {
+        if (!enabled || user == null || user.getId() == null || message == null || timestamp == null) {
+            return BurstObservation.NONE;
+        }
+
+        String template = LogTemplateExtractor.extract(message);
+        long bucket = Math.floorDiv(timestamp.toEpochSecond(ZoneOffset.UTC), bucketSeconds);
+
+        Map<String, TemplateRate> templates = userTemplates.computeIfAbsent(user.getId(), id -> newTemplateMap());
+        TemplateRate rate = templates.computeIfAbsent(template, t -> new TemplateRate(windowBuckets));
+
+        BurstObservation observation = rate.record(bucket);
+        if (observation.getSignal() == BurstSignal.ONSET) {
+            log.info("Rate spike detected for user {}: template '{}' seen {} times in {}s (baseline {})",
+                    user.getId(), template, observation.getCount(), bucketSeconds,
+                    String.format("%.1f", observation.getBaseline()));
+        }
+        return observation;
+    }
+
+    /**
+     * Drops all rate state for a user, e.g. after their logs are purged
+     */
+    public void reset(User user) {
+        userTemplates.remove(user.getId());
+    }
+
+    public long getBucketSeconds() {
+        return bucketSeconds;
+    }
+
+    private Map<String, TemplateRate> newTemplateMap() {
+        return Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TemplateRate> eldest) {
+                return size() > maxTemplatesPerUser;
+            }
+        });
+    }
+
+    public enum BurstSignal {
+        /** Rate is within the baseline */
+        NONE,
+        /** First line of a bucket that crossed the spike threshold */
+        ONSET,
+        /** Further lines of a bucket already reported as a spike */
+        ONGOING
+    }
+
+    /**
+     * Result of recording a single occurrence
+     */
+    public static final class BurstObservation {
+        static final BurstObservation NONE = new BurstObservation(BurstSignal.NONE, 0, 0.0);
+
+        private final BurstSignal signal;
+        private final long count;
+        private final double baseline;
+
+        BurstObservation(BurstSignal signal, long count, double baseline) {
+            this.signal = signal;
+            this.count = count;
+            this.baseline = baseline;
+        }
+
+        public BurstSignal getSignal() { return signal; }
+        public long getCount() { return count; }
+        public double getBaseline() { return baseline; }
+
+        public boolean isSpike() {
+            return signal != BurstSignal.NONE;
+        }
+    }
+
+    /**
+     * Ring-buffered bucket counts with an EWMA baseline for a single template
+     */
+    private final class TemplateRate {
+        private final long[] counts;
+        private final long[] slotBuckets;
+        private long headBucket = Long.MIN_VALUE;
+        private long flaggedBucket = Long.MIN_VALUE;
+        private double mean;
+        private double variance;
+
+        TemplateRate(int size) {
+            this.counts = new long[size];
+            this.slotBuckets = new long[size];
+            Arrays.fill(slotBuckets, Long.MIN_VALUE);
+        }
+
+        synchronized BurstObservation record(long bucket) {
+            if (headBucket == Long.MIN_VALUE) {
+                headBucket = bucket;
+            } else if (bucket > headBucket) {
+                advanceTo(bucket);
+            } else if (headBucket - bucket >= counts.length) {
+                // Too old to fall inside the window
+                return BurstObservation.NONE;
+            }
+
+            int slot = (int) Math.floorMod(bucket, (long) counts.length);
+            if (slotBuckets[slot] != bucket) {
+                slotBuckets[slot] = bucket;
+                counts[slot] = 0;
+            }
+            long count = ++counts[slot];
+
+            double deviation = Math.max(Math.sqrt(variance), Math.sqrt(mean));
+            double threshold = Math.max(minCount, mean + sensitivity * deviation);
+            if (count < threshold) {
+                return BurstObservation.NONE;
+            }
+
+            if (flaggedBucket != bucket) {
+                flaggedBucket = bucket;
+                return new BurstObservation(BurstSignal.ONSET, count, mean);
+            }
+            return new BurstObservation(BurstSignal.ONGOING, count, mean);
+        }
+
+        /**
+         * Folds completed buckets (including empty gaps, bounded by the window) into the baseline
+         */
+        private void advanceTo(long bucket) {
+            long gap = Math.min(bucket - headBucket, counts.length);
+            for (long i = 0; i < gap; i++) {
+                long completed = headBucket + i;
+                int slot = (int) Math.floorMod(completed, (long) counts.length);
+                fold(slotBuckets[slot] == completed ? counts[slot] : 0);
+            }
+            headBucket = bucket;
+        }
+
+        private void fold(long count) {
+            double diff = count - mean;
+            mean += ewmaAlpha * diff;
+            variance = (1 - ewmaAlpha) * (variance + ewmaAlpha * diff * diff);
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package com.dinidu.loglens.service;
+
+import com.dinidu.loglens.dto.LogProcessingResult;
+import com.dinidu.loglens.dto.ProcessingJobStatus;
+import com.dinidu.loglens.model.ProcessingJob;
+import com.dinidu.loglens.model.ProcessingWorkItem;
+import com.dinidu.loglens.model.User;
+import com.dinidu.loglens.repository.ProcessingJobRepository;
+import com.dinidu.loglens.repository.ProcessingWorkItemRepository;
+import com.dinidu.loglens.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Splits large uploads into chunk work items in the database so that every node in the cluster
+ * shares the work.
+ * <p>
+ * Each node polls the queue and claims as many items as it has free chunk slots, using
+ * {@code FOR UPDATE SKIP LOCKED} so concurrent claims never block each other. A chunk is processed
+ * through the regular pipeline and its counts are merged into the job in one atomic update.
+ * Claims carry a lease that the owning node renews while the chunk runs: items held by a node that died
+ * become claimable again once it expires, so chunks are processed at least once. A chunk that fails or throws
+ * is retried up to {@code log.distributed.max-attempts} times in total and then counted as failed.
+ */
+@Service
+@Slf4j
+public class DistributedJobService {
+
+    private final LogProcessingService logProcessingService;
+    private final IngestQuotaService ingestQuotaService;
+    private final ProcessingJobRepository processingJobRepository;
+    private final ProcessingWorkItemRepository processingWorkItemRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean workerEnabled;
+    private final int chunkLines;
+    private final int insertBatchChunks;
+    private final int maxAttempts;
+    private final long leaseSeconds;
+    private final String nodeId;
+    private final Semaphore chunkSlots;
+    private final ExecutorService chunkExecutor;
+    private final AtomicInteger threadCounter = new AtomicInteger();
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    public DistributedJobService(
+            LogProcessingService logProcessingService,
+            IngestQuotaService ingestQuotaService,
+            ProcessingJobRepository processingJobRepository,
+            ProcessingWorkItemRepository processingWorkItemRepository,
+            UserRepository userRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${log.distributed.worker-enabled:true}") boolean workerEnabled,
+            @Value("${log.distributed.chunk-lines:2000}") int chunkLines,
+            @Value("${log.distributed.insert-batch-chunks:10}") int insertBatchChunks,
+            @Value("${log.distributed.concurrent-chunks:2}") int concurrentChunks,
+            @Value("${log.distributed.max-attempts:3}") int maxAttempts,
+            @Value("${log.distributed.lease-seconds:600}") long leaseSeconds,
+            @Value("${log.distributed.node-id:}") String nodeId) {
+        this.logProcessingService = logProcessingService;
+        this.ingestQuotaService = ingestQuotaService;
+        this.processingJobRepository = processingJobRepository;
+        this.processingWorkItemRepository = processingWorkItemRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.workerEnabled = workerEnabled;
+        this.chunkLines = chunkLines;
+        this.insertBatchChunks = Math.max(1, insertBatchChunks);
+        this.maxAttempts = maxAttempts;
+        this.leaseSeconds = leaseSeconds;
+        this.nodeId = nodeId.isBlank()
+                ? ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID().toString().substring(0, 8)
+                : nodeId;
+        this.chunkSlots = new Semaphore(concurrentChunks);
+        this.chunkExecutor = Executors.newFixedThreadPool(concurrentChunks, runnable -> {
+            Thread thread = new Thread(runnable, "JobChunk-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Splits an uploaded file into work items and queues it; returns as soon as the job is stored.
+     * <p>
+     * The job is stored first as {@code SPLITTING}, then the file is streamed and its work items are
+     * stored in batches of {@code log.distributed.insert-batch-chunks} chunks, each in its own transaction,
+     * so neither the file nor one huge transaction is held in memory. Nodes only claim the job's items once
+     * it is marked {@code QUEUED} at the end; if splitting fails, the job and its stored items are removed.
+     */
+    public ProcessingJobStatus submit(MultipartFile file, User user) throws IOException {
+        logProcessingService.validateFile(file);
+
+        // Counting first keeps the quota check all-or-nothing without holding the lines
+        int lines = countLines(file);
+        ingestQuotaService.acquire(user, lines);
+
+        String jobId = UUID.randomUUID().toString();
+        ProcessingJob job = ProcessingJob.builder()
+                .id(jobId)
+                .userId(user.getId())
+                .fileName(file.getOriginalFilename())
+                .fileSize(file.getSize())
+                .status(ProcessingJob.Status.SPLITTING)
+                .createdAt(LocalDateTime.now())
+                .build();
+        transactionTemplate.executeWithoutResult(status -> processingJobRepository.save(job));
+
+        int chunks;
+        try {
+            chunks = storeWorkItems(file, jobId, user);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Abandoning job {} while splitting it: {}", jobId, e.getMessage());
+            transactionTemplate.executeWithoutResult(status -> {
+                processingWorkItemRepository.deleteByJobId(jobId);
+                processingJobRepository.deleteById(jobId);
+            });
+            throw e;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status ->
+                processingJobRepository.markQueued(jobId, lines, chunks, now));
+        job.setTotalLines(lines);
+        job.setTotalChunks(chunks);
+        job.setStatus(chunks == 0 ? ProcessingJob.Status.COMPLETED : ProcessingJob.Status.QUEUED);
+        job.setCompletedAt(chunks == 0 ? now : null);
+
+        log.info("Queued job {} for user {}: {} lines in {} chunks", jobId, user.getId(), lines, chunks);
+        return ProcessingJobStatus.fromJob(job);
+    }
+
+    public Optional<ProcessingJobStatus> getStatus(User user, String jobId) {
+        return processingJobRepository.findByIdAndUserId(jobId, user.getId()).map(ProcessingJobStatus::fromJob);
+    }
+
+    /**
+     * Claims as many work items as this node has free chunk slots and processes them in the background
+     */
+    @Scheduled(fixedDelayString = "${log.distributed.poll-ms:1000}")
+    public void poll() {
+        if (!workerEnabled) {
+            return;
+        }
+        int free = chunkSlots.availablePermits();
+        if (free == 0) {
+            return;
+        }
+
+        List<ProcessingWorkItem> claimed;
+        try {
+            claimed = claim(free);
+        } catch (Exception e) {
+            log.warn("Could not claim work items: {}", e.getMessage());
+            return;
+        }
+
+        for (ProcessingWorkItem item : claimed) {
+            chunkSlots.acquireUninterruptibly();
+            inFlight.add(item.getId());
+            chunkExecutor.execute(() -> {
+                try {
+                    process(item);
+                } catch (Exception e) {
+                    log.error("Work item {} of job {} failed: {}", item.getId(), item.getJobId(), e.getMessage(), e);
+                    try {
+                        retryOrGiveUp(item, null, e.getMessage());
+                    } catch (Exception releaseFailure) {
+                        log.warn("Could not release work item {}: {}", item.getId(), releaseFailure.getMessage());
+                    }
+                } finally {
+                    inFlight.remove(item.getId());
+                    chunkSlots.release();
+                }
+            });
+        }
+    }
+
+    /**
+     * Renews the lease of the chunks this node is processing, so a slow chunk is not reclaimed and stored twice
+     */
+    @Scheduled(fixedDelayString = "${log.distributed.heartbeat-ms:60000}")
+    public void heartbeat() {
+        if (inFlight.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    processingWorkItemRepository.renewClaims(Set.copyOf(inFlight), nodeId, LocalDateTime.now()));
+        } catch (Exception e) {
+            log.warn("Could not renew claims on work items: {}", e.getMessage());
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        chunkExecutor.shutdownNow();
+    }
+
+    private List<ProcessingWorkItem> claim(int limit) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            giveUpExhausted(now, limit);
+            List<Long> ids = processingWorkItemRepository.lockClaimable(now.minusSeconds(leaseSeconds), maxAttempts, limit);
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            processingWorkItemRepository.markClaimed(ids, nodeId, now);
+            List<ProcessingWorkItem> items = processingWorkItemRepository.findAllById(ids);
+            processingJobRepository.markRunning(
+                    items.stream().map(ProcessingWorkItem::getJobId).collect(Collectors.toSet()), now);
+            return items;
+        });
+    }
+
+    private void process(ProcessingWorkItem item) {
+        Optional<User> user = userRepository.findById(item.getUserId());
+        Optional<ProcessingJob> job = processingJobRepository.findById(item.getJobId());
+        if (user.isEmpty() || job.isEmpty()) {
+            log.warn("Dropping work item {} of job {}: user or job no longer exists", item.getId(), item.getJobId());
+            finish(item, false, null, "User or job no longer exists");
+            return;
+        }
+
+        String fileName = job.get().getFileName() != null ? job.get().getFileName() : item.getJobId();
+        String source = fileName + "#" + item.getChunkIndex();
+        List<String> lines = item.getLines() != null ? Arrays.asList(item.getLines().split("\n")) : List.of();
+        log.debug("Processing chunk {} of job {} ({} lines, attempt {})",
+                item.getChunkIndex(), item.getJobId(), lines.size(), item.getAttempts());
+
+        // Entries carry the distributed job's id so the whole job can be read back by the id returned on submit
+        LogProcessingResult result = logProcessingService.processLines(lines, user.get(), source, item.getJobId());
+        if (result.isSuccess()) {
+            finish(item, true, result, null);
+        } else {
+            retryOrGiveUp(item, result, result.getErrorMessage());
+        }
+    }
+
+    /**
+     * Puts a failed chunk back in the queue, or counts it as failed once it has used all its attempts
+     */
+    private void retryOrGiveUp(ProcessingWorkItem item, LogProcessingResult result, String errorMessage) {
+        if (item.getAttempts() < maxAttempts) {
+            log.warn("Chunk {} of job {} failed (attempt {}/{}), requeueing: {}",
+                    item.getChunkIndex(), item.getJobId(), item.getAttempts(), maxAttempts, errorMessage);
+            transactionTemplate.executeWithoutResult(status ->
+                    processingWorkItemRepository.release(item.getId(), nodeId, item.getAttempts()));
+        } else {
+            log.error("Giving up on chunk {} of job {} after {} attempts",
+                    item.getChunkIndex(), item.getJobId(), item.getAttempts());
+            finish(item, false, result, errorMessage);
+        }
+    }
+
+    /**
+     * Counts as failed the chunks whose last attempt was held by a node that died, which no node may claim again.
+     * Must run inside the claim transaction.
+     */
+    private void giveUpExhausted(LocalDateTime now, int limit) {
+        List<Long> ids = processingWorkItemRepository.lockExhausted(now.minusSeconds(leaseSeconds), maxAttempts, limit);
+        for (ProcessingWorkItem item : processingWorkItemRepository.findAllById(ids)) {
+            log.error("Giving up on chunk {} of job {}: its last attempt's lease expired",
+                    item.getChunkIndex(), item.getJobId());
+            processingWorkItemRepository.delete(item);
+            processingJobRepository.recordChunk(item.getJobId(), 0, 1, 0, 0, 0,
+                    "Chunk " + item.getChunkIndex() + " was abandoned after " + item.getAttempts() + " attempts", now);
+        }
+    }
+
+    /**
+     * Removes the item and merges its outcome into the job. If the lease was lost meanwhile, another node
+     * owns the item now and will report it, so nothing is merged here.
+     */
+    private void finish(ProcessingWorkItem item, boolean success, LogProcessingResult result, String errorMessage) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (processingWorkItemRepository.deleteClaimed(item.getId(), nodeId, item.getAttempts()) == 0) {
+                log.warn("Lost the claim on work item {} of job {} while processing it", item.getId(), item.getJobId());
+                return;
+            }
+            processingJobRepository.recordChunk(
+                    item.getJobId(),
+                    success ? 1 : 0,
+                    success ? 0 : 1,
+                    result != null ? result.getStats().getProcessedLines() : 0,
+                    result != null ? result.getStats().getAnomaliesDetected() : 0,
+                    result != null ? result.getStats().getErrorCount() : 0,
+                    errorMessage,
+                    LocalDateTime.now());
+        });
+    }
+
+    /**
+     * Streams the file into work items, storing every {@code insertBatchChunks} of them in their own transaction
+     *
+     * @return the number of work items stored
+     */
+    private int storeWorkItems(MultipartFile file, String jobId, User user) throws IOException {
+        List<ProcessingWorkItem> batch = new ArrayList<>(insertBatchChunks);
+        List<String> chunk = new ArrayList<>(chunkLines);
+        int chunks = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                chunk.add(line);
+                if (chunk.size() == chunkLines) {
+                    batch.add(newItem(jobId, user, chunks++, chunk));
+                    chunk.clear();
+                    if (batch.size() == insertBatchChunks) {
+                        saveBatch(batch);
+                    }
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            batch.add(newItem(jobId, user, chunks++, chunk));
+        }
+        saveBatch(batch);
+        return chunks;
+    }
+
+    private void saveBatch(List<ProcessingWorkItem> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            processingWorkItemRepository.saveAll(batch);
+            processingWorkItemRepository.flush();
+        });
+        batch.clear();
+    }
+
+    private static int countLines(MultipartFile file) throws IOException {
+        int lines = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.trim().isEmpty()) {
+                    lines++;
+                }
+            }
+        }
+        return lines;
+    }
+
+    private static ProcessingWorkItem newItem(String jobId, User user, int index, List<String> lines) {
+        return ProcessingWorkItem.builder()
+                .jobId(jobId)
+                .userId(user.getId())
+                .chunkIndex(index)
+                .lineCount(lines.size())
+                .lines(String.join("\n", lines))
+                .status(ProcessingWorkItem.Status.PENDING)
+                .build();
+    }
+}
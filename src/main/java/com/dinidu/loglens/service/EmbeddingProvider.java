@@ -0,0 +1,17 @@
+package com.dinidu.loglens.service;
+
+import java.util.List;
+
+/**
+ * Source of vector embeddings for log messages. Embeddings from different providers live in different
+ * vector spaces and must never be compared with each other.
+ */
+public interface EmbeddingProvider {
+
+    /**
+     * Name used to select the provider in configuration
+     */
+    String getName();
+
+    List<Float> embed(String text);
+}
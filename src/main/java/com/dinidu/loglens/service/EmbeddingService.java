@@ -0,0 +1,156 @@
+package com.dinidu.loglens.service;
+
+import com.dinidu.loglens.model.User;
+import com.dinidu.loglens.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Chooses the embedding provider per user and per pipeline stage.
+ * <p>
+ * The analysis stage embeds lines that are stored and compared with the user's baseline, always through
+ * {@link AIService#generateEmbedding}. Each user's provider is stored on the user: it is pinned to the
+ * default when the user's first lines are analyzed, and it can only be switched while the user has no stored
+ * embeddings, since embeddings from different providers cannot be compared.
+ * <p>
+ * The optional screening stage runs a cheap provider first. Each user has an in-memory index of screening
+ * vectors of lines the analysis stage found normal. A line whose screening vector is a near-duplicate of
+ * one of those is stored without an analysis embedding and counts as normal; only the others, the
+ * candidates, go to the analysis provider.
+ */
+@Service
+@Slf4j
+public class EmbeddingService {
+
+    private final Map<String, EmbeddingProvider> providers;
+    private final LocalEmbeddingProvider localProvider;
+    private final String defaultProvider;
+    private final UserRepository userRepository;
+    private final boolean screeningEnabled;
+    private final double screeningSimilarity;
+    private final int screeningIndexSize;
+    private final Cache<Long, ScreeningIndex> screeningIndexes;
+
+    public EmbeddingService(
+            List<EmbeddingProvider> providers,
+            LocalEmbeddingProvider localProvider,
+            UserRepository userRepository,
+            @Value("${log.embedding.provider:remote}") String defaultProvider,
+            @Value("${log.embedding.screening.enabled:false}") boolean screeningEnabled,
+            @Value("${log.embedding.screening.similarity:0.95}") double screeningSimilarity,
+            @Value("${log.embedding.screening.index-size:2048}") int screeningIndexSize,
+            @Value("${log.embedding.screening.max-users:1000}") long maxScreeningUsers) {
+        this.providers = providers.stream().collect(Collectors.toMap(EmbeddingProvider::getName, p -> p));
+        this.localProvider = localProvider;
+        this.defaultProvider = requireProvider(defaultProvider);
+        this.userRepository = userRepository;
+        this.screeningEnabled = screeningEnabled;
+        this.screeningSimilarity = screeningSimilarity;
+        this.screeningIndexSize = screeningIndexSize;
+        this.screeningIndexes = Caffeine.newBuilder()
+                .maximumSize(maxScreeningUsers)
+                .expireAfterAccess(Duration.ofHours(1))
+                .build();
+    }
+
+    /**
+     * Provider of the embeddings that are stored for the user's logs and used for search.
+     * Only {@link AIService#generateEmbedding} embeds with it.
+     */
+    EmbeddingProvider analysisProvider(User user) {
+        String name = analysisProviderName(user);
+        EmbeddingProvider provider = providers.get(name);
+        if (provider == null) {
+            throw new IllegalStateException("Embedding provider " + name + " of user " + user.getId() + " is not available");
+        }
+        return provider;
+    }
+
+    /**
+     * Name of the user's analysis provider, the default one until the user is pinned
+     */
+    public String analysisProviderName(User user) {
+        return user.getEmbeddingProvider() != null ? user.getEmbeddingProvider() : defaultProvider;
+    }
+
+    /**
+     * Stores the default provider on a user who has none yet, before the user's first embeddings are stored,
+     * so a later change of the default does not mix vector spaces
+     */
+    @Transactional
+    public void pinProvider(User user) {
+        if (user.getEmbeddingProvider() != null) {
+            return;
+        }
+        userRepository.pinEmbeddingProvider(user.getId(), defaultProvider);
+        user.setEmbeddingProvider(userRepository.findEmbeddingProvider(user.getId()).orElse(defaultProvider));
+    }
+
+    /**
+     * Switches the user's analysis provider
+     *
+     * @return false if the user already has stored embeddings from another provider
+     */
+    @Transactional
+    public boolean setProvider(User user, String name) {
+        requireProvider(name);
+        if (name.equals(user.getEmbeddingProvider())) {
+            return true;
+        }
+        if (userRepository.switchEmbeddingProvider(user.getId(), name) == 0) {
+            log.info("Refused to switch user {} to embedding provider {}: embeddings are stored", user.getId(), name);
+            return false;
+        }
+        user.setEmbeddingProvider(name);
+        log.info("Switched user {} to embedding provider {}", user.getId(), name);
+        return true;
+    }
+
+    /**
+     * Whether lines of this user are screened locally before the analysis provider is called.
+     * Screening is pointless when the user's analysis embeddings are already local.
+     */
+    public boolean isScreeningEnabled(User user) {
+        return screeningEnabled && analysisProvider(user) != localProvider;
+    }
+
+    /**
+     * Computes the screening vector of a message; it is kept by {@link #recordNormal}, so a new array is returned
+     */
+    public float[] screeningVector(String message) {
+        float[] vector = new float[LocalEmbeddingProvider.DIMENSIONS];
+        localProvider.embedInto(message, vector);
+        return vector;
+    }
+
+    /**
+     * Returns true if the line is a near-duplicate of a line already found normal for this user
+     */
+    public boolean isKnownNormal(User user, float[] screeningVector) {
+        ScreeningIndex index = screeningIndexes.getIfPresent(user.getId());
+        return index != null && index.containsSimilar(screeningVector, screeningSimilarity);
+    }
+
+    /**
+     * Remembers a line the analysis stage found normal so that near-duplicates can skip it
+     */
+    public void recordNormal(User user, float[] screeningVector) {
+        screeningIndexes.get(user.getId(), id -> new ScreeningIndex(screeningIndexSize)).add(screeningVector);
+    }
+
+    private String requireProvider(String name) {
+        if (!providers.containsKey(name)) {
+            throw new IllegalArgumentException("Unknown embedding provider: " + name + " (available: " + providers.keySet() + ")");
+        }
+        return name;
+    }
+}
@@ -0,0 +1,237 @@
+package com.dinidu.loglens.service;
+
+import com.dinidu.loglens.model.User;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Runs per-line processing work (each task is roughly one AI service call) on a fixed set of worker
+ * slots shared fairly between users.
+ * <p>
+ * Every user with pending work has a queue, and workers serve the queues with deficit round-robin:
+ * on each turn a user may start up to quantum x weight tasks before the next user is served. A bulk
+ * import therefore only delays a small upload by about one round, instead of the whole import.
+ * Within a user's queue, high-lane tasks are started before normal ones.
+ */
+@Service
+@Slf4j
+public class FairWorkScheduler {
+
+    public enum Lane {
+        HIGH,
+        NORMAL
+    }
+
+    private final int quantum;
+    private final int defaultWeight;
+    private final Map<Long, Integer> weights;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    private final Map<Long, TenantQueue> tenants = new HashMap<>();
+    private final ArrayDeque<TenantQueue> activeTenants = new ArrayDeque<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+
+    private boolean shutdown;
+    private int queuedTasks;
+
+    public FairWorkScheduler(
+            @Value("${log.scheduler.workers:4}") int workerCount,
+            @Value("${log.scheduler.quantum:1}") int quantum,
+            @Value("${log.scheduler.default-weight:1}") int defaultWeight,
+            @Value("${log.scheduler.weights:}") String weights) {
+        this.quantum = quantum;
+        this.defaultWeight = defaultWeight;
+        this.weights = parseWeights(weights);
+
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::runWorker, "FairWorker-" + (i + 1));
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * Queues a task on behalf of a user in the normal lane
+     */
+    public <T> CompletableFuture<T> submit(User user, Supplier<T> task) {
+        return submit(user, Lane.NORMAL, task);
+    }
+
+    /**
+     * Queues a task on behalf of a user
+     */
+    public <T> CompletableFuture<T> submit(User user, Lane lane, Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Runnable runnable = () -> {
+            try {
+                future.complete(task.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        };
+
+        lock.lock();
+        try {
+            if (shutdown) {
+                future.completeExceptionally(new IllegalStateException("Scheduler is shut down"));
+                return future;
+            }
+            TenantQueue tenant = tenants.computeIfAbsent(user.getId(),
+                    id -> new TenantQueue(id, weights.getOrDefault(id, defaultWeight)));
+            (lane == Lane.HIGH ? tenant.highTasks : tenant.tasks).addLast(runnable);
+            queuedTasks++;
+            if (!tenant.active) {
+                tenant.active = true;
+                activeTenants.addLast(tenant);
+            }
+            workAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+        return future;
+    }
+
+    public int getQueuedTasks() {
+        lock.lock();
+        try {
+            return queuedTasks;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getActiveTenants() {
+        lock.lock();
+        try {
+            return activeTenants.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getActiveWorkers() {
+        return activeWorkers.get();
+    }
+
+    public int getWorkerCount() {
+        return workers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        lock.lock();
+        try {
+            shutdown = true;
+            workAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    private void runWorker() {
+        while (true) {
+            Runnable task;
+            try {
+                task = next();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (task == null) {
+                return;
+            }
+            activeWorkers.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                activeWorkers.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Picks the next task by deficit round-robin, or returns null once shut down and drained
+     */
+    private Runnable next() throws InterruptedException {
+        lock.lock();
+        try {
+            while (activeTenants.isEmpty()) {
+                if (shutdown) {
+                    return null;
+                }
+                workAvailable.await();
+            }
+
+            TenantQueue tenant = activeTenants.peekFirst();
+            if (tenant.deficit <= 0) {
+                tenant.deficit += quantum * tenant.weight;
+            }
+            Runnable task = !tenant.highTasks.isEmpty() ? tenant.highTasks.pollFirst() : tenant.tasks.pollFirst();
+            tenant.deficit--;
+            queuedTasks--;
+
+            if (tenant.highTasks.isEmpty() && tenant.tasks.isEmpty()) {
+                // Idle users do not accumulate credit
+                activeTenants.pollFirst();
+                tenants.remove(tenant.userId);
+            } else if (tenant.deficit <= 0) {
+                activeTenants.addLast(activeTenants.pollFirst());
+            }
+            return task;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Parses "userId:weight" pairs separated by commas
+     */
+    private static Map<Long, Integer> parseWeights(String value) {
+        Map<Long, Integer> result = new HashMap<>();
+        if (value == null || value.isBlank()) {
+            return result;
+        }
+        for (String pair : value.split(",")) {
+            String[] parts = pair.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid scheduler weight: " + pair);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 1) {
+                throw new IllegalArgumentException("Scheduler weights must be positive: " + pair);
+            }
+            result.put(Long.parseLong(parts[0].trim()), weight);
+        }
+        return result;
+    }
+
+    private static final class TenantQueue {
+        private final Long userId;
+        private final int weight;
+        private final ArrayDeque<Runnable> highTasks = new ArrayDeque<>();
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        private int deficit;
+        private boolean active;
+
+        private TenantQueue(Long userId, int weight) {
+            this.userId = userId;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.dinidu.loglens.service;
+
+import com.dinidu.loglens.exception.IngestQuotaExceededException;
+import com.dinidu.loglens.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user token-bucket quotas on ingested lines. Buckets refill continuously at the configured rate
+ * up to the burst size. A request larger than the burst is admitted when the bucket is full and
+ * leaves it in debt, so one large upload delays that user's next ones instead of being rejected forever.
+ */
+@Service
+public class IngestQuotaService {
+
+    private final double linesPerSecond;
+    private final double burstLines;
+    private final Map<Long, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    public IngestQuotaService(
+            @Value("${log.quota.lines-per-second:0}") double linesPerSecond,
+            @Value("${log.quota.burst-lines:100000}") double burstLines) {
+        this.linesPerSecond = linesPerSecond;
+        this.burstLines = burstLines;
+    }
+
+    /**
+     * Takes tokens for the given number of lines
+     *
+     * @return false if the user is over quota
+     */
+    public boolean tryAcquire(User user, long lines) {
+        if (linesPerSecond <= 0) {
+            return true;
+        }
+        return buckets.computeIfAbsent(user.getId(), id -> new TokenBucket(burstLines))
+                .tryAcquire(lines, linesPerSecond, burstLines, System.nanoTime());
+    }
+
+    /**
+     * Takes tokens for the given number of lines or throws if the user is over quota
+     */
+    public void acquire(User user, long lines) {
+        if (!tryAcquire(user, lines)) {
+            long retryAfter = (long) Math.ceil(secondsUntilAvailable(user, lines));
+            throw new IngestQuotaExceededException(
+                    "Ingest quota of " + (long) linesPerSecond + " lines per second exceeded", Math.max(retryAfter, 1));
+        }
+    }
+
+    private double secondsUntilAvailable(User user, long lines) {
+        TokenBucket bucket = buckets.get(user.getId());
+        if (bucket == null) {
+            return 0;
+        }
+        return bucket.deficit(Math.min(lines, burstLines), linesPerSecond, burstLines, System.nanoTime()) / linesPerSecond;
+    }
+
+    private static final class TokenBucket {
+        private double tokens;
+        private long lastRefillNanos;
+
+        private TokenBucket(double tokens) {
+            this.tokens = tokens;
+            this.lastRefillNanos = System.nanoTime();
+        }
+
+        synchronized boolean tryAcquire(long lines, double rate, double burst, long now) {
+            refill(rate, burst, now);
+            if (tokens < Math.min(lines, burst)) {
+                return false;
+            }
+            tokens -= lines;
+            return true;
+        }
+
+        synchronized double deficit(double lines, double rate, double burst, long now) {
+            refill(rate, burst, now);
+            return Math.max(0, lines - tokens);
+        }
+
+        private void refill(double rate, double burst, long now) {
+            tokens = Math.min(burst, tokens + (now - lastRefillNanos) / 1e9 * rate);
+            lastRefillNanos = now;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.dinidu.loglens.service;
+
+import com.dinidu.loglens.dto.IngestionRuleRequest;
+import com.dinidu.loglens.dto.IngestionRuleResponse;
+import com.dinidu.loglens.model.IngestionRule;
+import com.dinidu.loglens.model.User;
+import com.dinidu.loglens.repository.IngestionRuleRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Manages per-user ingestion rules and serves them compiled to the processing pipeline.
+ * <p>
+ * Compiled rule sets are cached per user and replaced on every change made through this node; the
+ * cache also expires so that changes made on other nodes are picked up. Hits are counted in memory
+ * and periodically added to the stored counters.
+ */
+@Service
+@Slf4j
+public class IngestionRuleService {
+
+    private final IngestionRuleRepository ingestionRuleRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxRulesPerUser;
+
+    private final LoadingCache<Long, IngestionRuleSet> compiledRules;
+    private final Map<Long, LongAdder> pendingHits = new ConcurrentHashMap<>();
+
+    public IngestionRuleService(
+            IngestionRuleRepository ingestionRuleRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${log.rules.max-per-user:200}") int maxRulesPerUser,
+            @Value("${log.rules.cache-ttl-seconds:30}") long cacheTtlSeconds) {
+        this.ingestionRuleRepository = ingestionRuleRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.maxRulesPerUser = maxRulesPerUser;
+        this.compiledRules = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .build(this::load);
+    }
+
+    /**
+     * Returns the user's enabled rules compiled for evaluation
+     */
+    public IngestionRuleSet rulesFor(User user) {
+        return compiledRules.get(user.getId());
+    }
+
+    public void recordHit(IngestionRuleSet.CompiledRule rule) {
+        pendingHits.computeIfAbsent(rule.getId(), id -> new LongAdder()).increment();
+    }
+
+    public List<IngestionRuleResponse> list(User user) {
+        return ingestionRuleRepository.findByUserIdOrderByPriorityAscIdAsc(user.getId()).stream()
+                .map(rule -> IngestionRuleResponse.fromRule(rule, pending(rule.getId())))
+                .collect(Collectors.toList());
+    }
+
+    public IngestionRuleResponse create(User user, IngestionRuleRequest request) {
+        if (ingestionRuleRepository.countByUserId(user.getId()) >= maxRulesPerUser) {
+            throw new IllegalArgumentException("A user can have at most " + maxRulesPerUser + " ingestion rules");
+        }
+        IngestionRule rule = IngestionRule.builder()
+                .userId(user.getId())
+                .createdAt(LocalDateTime.now())
+                .build();
+        apply(rule, request);
+        IngestionRule saved = ingestionRuleRepository.save(rule);
+        compiledRules.invalidate(user.getId());
+        log.info("Created ingestion rule {} '{}' for user {}", saved.getId(), saved.getName(), user.getId());
+        return IngestionRuleResponse.fromRule(saved, 0);
+    }
+
+    public Optional<IngestionRuleResponse> update(User user, Long id, IngestionRuleRequest request) {
+        return ingestionRuleRepository.findByIdAndUserId(id, user.getId()).map(rule -> {
+            apply(rule, request);
+            rule.setUpdatedAt(LocalDateTime.now());
+            IngestionRule saved = ingestionRuleRepository.save(rule);
+            compiledRules.invalidate(user.getId());
+            return IngestionRuleResponse.fromRule(saved, pending(id));
+        });
+    }
+
+    public boolean delete(User user, Long id) {
+        Optional<IngestionRule> rule = ingestionRuleRepository.findByIdAndUserId(id, user.getId());
+        if (rule.isEmpty()) {
+            return false;
+        }
+        ingestionRuleRepository.delete(rule.get());
+        pendingHits.remove(id);
+        compiledRules.invalidate(user.getId());
+        return true;
+    }
+
+    /**
+     * Adds the hits counted since the last flush to the stored counters
+     */
+    @Scheduled(fixedDelayString = "${log.rules.hit-flush-ms:10000}")
+    public void flushHits() {
+        LocalDateTime now = LocalDateTime.now();
+        pendingHits.forEach((id, adder) -> {
+            long hits = adder.sumThenReset();
+            if (hits == 0) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> ingestionRuleRepository.addHits(id, hits, now));
+            } catch (Exception e) {
+                adder.add(hits);
+                log.warn("Could not store {} hits of ingestion rule {}: {}", hits, id, e.getMessage());
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushHits();
+    }
+
+    private IngestionRuleSet load(Long userId) {
+        return IngestionRuleSet.compile(ingestionRuleRepository.findByUserIdOrderByPriorityAscIdAsc(userId));
+    }
+
+    private long pending(Long id) {
+        LongAdder adder = pendingHits.get(id);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    /**
+     * Copies a request onto a rule, rejecting invalid regular expressions
+     */
+    private static void apply(IngestionRule rule, IngestionRuleRequest request) {
+        String pattern = request.getPattern() != null && !request.getPattern().isEmpty() ? request.getPattern() : null;
+        if (pattern != null && request.getMatchType() == null) {
+            throw new IllegalArgumentException("matchType is required when a pattern is given");
+        }
+        String levels = request.getLevels() == null ? null : request.getLevels().stream()
+                .map(level -> level.trim().toUpperCase())
+                .filter(level -> !level.isEmpty())
+                .distinct()
+                .collect(Collectors.joining(","));
+
+        rule.setName(request.getName());
+        rule.setPriority(request.getPriority() != null ? request.getPriority() : 100);
+        rule.setAction(request.getAction());
+        rule.setLevels(levels != null && !levels.isEmpty() ? levels : null);
+        rule.setMatchType(pattern != null ? request.getMatchType() : null);
+        rule.setPattern(pattern);
+        rule.setSourcePattern(request.getSourcePattern() != null && !request.getSourcePattern().isEmpty()
+                ? request.getSourcePattern() : null);
+        rule.setEnabled(request.getEnabled() == null || request.getEnabled());
+
+        // Invalid regular expressions surface as PatternSyntaxException, an IllegalArgumentException
+        if (rule.getMatchType() == IngestionRule.MatchType.REGEX) {
+            Pattern.compile(pattern);
+        }
+    }
+}
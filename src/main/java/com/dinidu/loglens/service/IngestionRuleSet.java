@@ -0,0 +1,213 @@
+package com.dinidu.loglens.service;
+
+import com.dinidu.loglens.model.IngestionRule;
+
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A user's enabled ingestion rules compiled for per-line evaluation.
+ * <p>
+ * All substring patterns, including regexes without metacharacters, are matched together by one
+ * Aho-Corasick pass over the message. Regexes are also merged into one alternation that serves as a
+ * prefilter: when it does not match, no individual regex is run. Templates are only extracted when a
+ * template rule is reached. Each of these is computed at most once per line and only on demand, so a
+ * line that matches an early level-only rule never touches the message. Immutable and thread-safe.
+ */
+public final class IngestionRuleSet {
+
+    public static final IngestionRuleSet EMPTY = new IngestionRuleSet(new CompiledRule[0], null, null);
+
+    private static final Pattern REGEX_METACHARACTERS = Pattern.compile("[\\\\^$.|?*+()\\[\\]{}]");
+    // Numbered or named backreferences change meaning once patterns are merged into one alternation
+    private static final Pattern BACKREFERENCE = Pattern.compile("\\\\([1-9]|k<)");
+
+    private final CompiledRule[] rules;
+    private final AhoCorasick literals;
+    private final Pattern mergedRegex;
+
+    private IngestionRuleSet(CompiledRule[] rules, AhoCorasick literals, Pattern mergedRegex) {
+        this.rules = rules;
+        this.literals = literals;
+        this.mergedRegex = mergedRegex;
+    }
+
+    /**
+     * Compiles the enabled rules in priority order
+     *
+     * @throws PatternSyntaxException if a rule's regular expression is invalid
+     */
+    public static IngestionRuleSet compile(List<IngestionRule> rules) {
+        List<IngestionRule> enabled = rules.stream()
+                .filter(IngestionRule::isEnabled)
+                .sorted(Comparator.comparingInt(IngestionRule::getPriority)
+                        .thenComparing(IngestionRule::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+        if (enabled.isEmpty()) {
+            return EMPTY;
+        }
+
+        List<String> literalPatterns = new ArrayList<>();
+        List<String> mergeableRegexes = new ArrayList<>();
+        CompiledRule[] compiled = new CompiledRule[enabled.size()];
+
+        for (int i = 0; i < enabled.size(); i++) {
+            IngestionRule rule = enabled.get(i);
+            CompiledRule c = new CompiledRule(rule.getId(), rule.getName(), rule.getAction(),
+                    parseLevels(rule.getLevels()), emptyToNull(rule.getSourcePattern()));
+            String pattern = emptyToNull(rule.getPattern());
+
+            if (pattern == null || rule.getMatchType() == null) {
+                c.kind = MatchKind.ANY;
+            } else if (rule.getMatchType() == IngestionRule.MatchType.TEMPLATE) {
+                c.kind = MatchKind.TEMPLATE;
+                c.template = pattern;
+            } else if (rule.getMatchType() == IngestionRule.MatchType.SUBSTRING
+                    || !REGEX_METACHARACTERS.matcher(pattern).find()) {
+                c.kind = MatchKind.LITERAL;
+                c.literalIndex = literalPatterns.size();
+                literalPatterns.add(pattern);
+            } else {
+                c.kind = MatchKind.REGEX;
+                c.regex = Pattern.compile(pattern);
+                c.prefiltered = !BACKREFERENCE.matcher(pattern).find();
+                if (c.prefiltered) {
+                    mergeableRegexes.add("(?:" + pattern + ")");
+                }
+            }
+            compiled[i] = c;
+        }
+
+        Pattern merged = null;
+        if (!mergeableRegexes.isEmpty()) {
+            try {
+                merged = Pattern.compile(String.join("|", mergeableRegexes));
+            } catch (PatternSyntaxException e) {
+                // For example the same group name in two patterns; evaluate the regexes one by one instead
+                for (CompiledRule c : compiled) {
+                    c.prefiltered = false;
+                }
+            }
+        }
+
+        return new IngestionRuleSet(compiled,
+                literalPatterns.isEmpty() ? null : new AhoCorasick(literalPatterns), merged);
+    }
+
+    public boolean isEmpty() {
+        return rules.length == 0;
+    }
+
+    public int size() {
+        return rules.length;
+    }
+
+    /**
+     * Returns the first rule that matches the line, or null if no rule does
+     *
+     * @param source file or ingestion source name the line came from, may be null
+     */
+    public CompiledRule evaluate(String level, String message, String source) {
+        if (rules.length == 0) {
+            return null;
+        }
+        String text = message != null ? message : "";
+        BitSet literalHits = null;
+        int regexPrefilter = 0;
+        String template = null;
+
+        for (CompiledRule rule : rules) {
+            if (rule.levels != null && (level == null || !rule.levels.contains(level.toUpperCase(Locale.ROOT)))) {
+                continue;
+            }
+            if (rule.sourcePattern != null && (source == null || !source.contains(rule.sourcePattern))) {
+                continue;
+            }
+            switch (rule.kind) {
+                case ANY:
+                    return rule;
+                case LITERAL:
+                    if (literalHits == null) {
+                        literalHits = new BitSet();
+                        literals.findAll(text, literalHits);
+                    }
+                    if (literalHits.get(rule.literalIndex)) {
+                        return rule;
+                    }
+                    break;
+                case REGEX:
+                    if (rule.prefiltered && mergedRegex != null) {
+                        if (regexPrefilter == 0) {
+                            regexPrefilter = mergedRegex.matcher(text).find() ? 1 : -1;
+                        }
+                        if (regexPrefilter < 0) {
+                            break;
+                        }
+                    }
+                    if (rule.regex.matcher(text).find()) {
+                        return rule;
+                    }
+                    break;
+                case TEMPLATE:
+                    if (template == null) {
+                        template = LogTemplateExtractor.extract(text);
+                    }
+                    if (template.equals(rule.template)) {
+                        return rule;
+                    }
+                    break;
+            }
+        }
+        return null;
+    }
+
+    private static Set<String> parseLevels(String levels) {
+        if (levels == null || levels.isBlank()) {
+            return null;
+        }
+        Set<String> parsed = new HashSet<>();
+        for (String level : levels.split(",")) {
+            if (!level.isBlank()) {
+                parsed.add(level.trim().toUpperCase(Locale.ROOT));
+            }
+        }
+        return parsed.isEmpty() ? null : parsed;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private enum MatchKind {
+        ANY, LITERAL, REGEX, TEMPLATE
+    }
+
+    /**
+     * A rule ready for evaluation
+     */
+    public static final class CompiledRule {
+        private final Long id;
+        private final String name;
+        private final IngestionRule.Action action;
+        private final Set<String> levels;
+        private final String sourcePattern;
+        private MatchKind kind;
+        private int literalIndex;
+        private Pattern regex;
+        private boolean prefiltered;
+        private String template;
+
+        private CompiledRule(Long id, String name, IngestionRule.Action action, Set<String> levels, String sourcePattern) {
+            this.id = id;
+            this.name = name;
+            this.action = action;
+            this.levels = levels;
+            this.sourcePattern = sourcePattern;
+        }
+
+        public Long getId() { return id; }
+        public String getName() { return name; }
+        public IngestionRule.Action getAction() { return action; }
+    }
+}
@@ -0,0 +1,399 @@
+package com.dinidu.loglens.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Segmented append-only write-ahead log for ingested lines.
+ * <p>
+ * Records are appended sequentially to the active segment file and made durable with group commit:
+ * concurrent appenders share a single fsync. Each record is framed as
+ * {@code [int length][int crc32c][long userId][payload]} and addressed by a logical offset that
+ * keeps growing across segments (a segment's file name is the offset of its first byte).
+ * <p>
+ * The consumer reads from its checkpoint offset and commits a new checkpoint once records are processed;
+ * segments entirely below the checkpoint are deleted. On open, a torn record at the tail of the last
+ * segment is truncated, so a crash loses at most records that were never acknowledged.
+ * <p>
+ * Durable records can only fail their checksum through disk corruption. Since records cannot be
+ * resynchronized inside a segment, the reader skips the rest of the segment (rolling the active one
+ * first), logs it and counts the skipped bytes instead of stopping the consumer.
+ */
+@Slf4j
+public class IngestionSpool implements Closeable {
+
+    static final int HEADER_BYTES = 16;
+
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final int maxRecordBytes;
+
+    private final ConcurrentSkipListMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+    private final Object writeLock = new Object();
+    private final Object syncLock = new Object();
+    private final Object dataSignal = new Object();
+
+    private FileChannel activeChannel;
+    private long activeBase;
+    private long writeOffset;
+    private volatile long durableOffset;
+    private volatile long checkpoint;
+    private final AtomicLong skippedBytes = new AtomicLong();
+
+    public IngestionSpool(Path directory, long segmentBytes, int maxRecordBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxRecordBytes = maxRecordBytes;
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    /**
+     * Appends one record and returns once it is durable
+     *
+     * @return the offset just past the record
+     */
+    public long append(long userId, byte[] payload) throws IOException {
+        return appendAll(userId, List.of(payload));
+    }
+
+    /**
+     * Appends several records with a single durability wait
+     *
+     * @return the offset just past the last record
+     */
+    public long appendAll(long userId, List<byte[]> payloads) throws IOException {
+        for (byte[] payload : payloads) {
+            if (payload.length > maxRecordBytes) {
+                throw new IllegalArgumentException("Spool record exceeds " + maxRecordBytes + " bytes");
+            }
+        }
+
+        long end;
+        synchronized (writeLock) {
+            for (byte[] payload : payloads) {
+                int recordBytes = HEADER_BYTES + payload.length;
+                if (writeOffset - activeBase > 0 && writeOffset - activeBase + recordBytes > segmentBytes) {
+                    roll();
+                }
+                ByteBuffer record = ByteBuffer.allocate(recordBytes);
+                record.putInt(payload.length).putInt(checksum(userId, payload)).putLong(userId).put(payload).flip();
+                while (record.hasRemaining()) {
+                    activeChannel.write(record);
+                }
+                writeOffset += recordBytes;
+            }
+            end = writeOffset;
+        }
+        sync(end);
+        return end;
+    }
+
+    /**
+     * Reads up to maxRecords durable records starting at the given offset
+     */
+    public List<SpoolRecord> read(long fromOffset, int maxRecords) throws IOException {
+        return readBatch(fromOffset, maxRecords).getRecords();
+    }
+
+    /**
+     * Reads up to maxRecords durable records starting at the given offset, along with the offset to
+     * read from next, which is past any corrupt data that was skipped
+     */
+    public ReadBatch readBatch(long fromOffset, int maxRecords) throws IOException {
+        List<SpoolRecord> records = new ArrayList<>();
+        long offset = fromOffset;
+        long limit = durableOffset;
+
+        while (records.size() < maxRecords && offset < limit) {
+            Map.Entry<Long, Path> segment = segments.floorEntry(offset);
+            if (segment == null) {
+                throw new IllegalStateException("Offset " + offset + " is before the start of the spool");
+            }
+            Long nextBase = segments.higherKey(segment.getKey());
+
+            try (FileChannel channel = FileChannel.open(segment.getValue(), StandardOpenOption.READ)) {
+                while (records.size() < maxRecords && offset < limit) {
+                    long position = offset - segment.getKey();
+                    if (nextBase != null && offset >= nextBase) {
+                        break;
+                    }
+                    SpoolRecord record = readRecord(channel, position, offset);
+                    if (record == null) {
+                        long resumeOffset = nextBase != null ? nextBase : sealActiveSegment(segment.getKey());
+                        log.error("Corrupt spool record at offset {} in {}, skipping {} bytes to offset {}",
+                                offset, segment.getValue().getFileName(), resumeOffset - offset, resumeOffset);
+                        skippedBytes.addAndGet(resumeOffset - offset);
+                        offset = resumeOffset;
+                        break;
+                    }
+                    records.add(record);
+                    offset = record.getNextOffset();
+                }
+            }
+        }
+        return new ReadBatch(records, offset);
+    }
+
+    /**
+     * Rolls the writer to a new segment if the given one is still active, so that a reader can skip past
+     * a corrupt record in it, and returns the base of the following segment
+     */
+    private long sealActiveSegment(long base) throws IOException {
+        synchronized (writeLock) {
+            if (activeBase == base) {
+                roll();
+            }
+            return segments.higherKey(base);
+        }
+    }
+
+    /**
+     * Waits until records past the given offset are durable
+     *
+     * @return true if data is available
+     */
+    public boolean awaitData(long offset, long timeoutMillis) throws InterruptedException {
+        synchronized (dataSignal) {
+            if (durableOffset <= offset) {
+                dataSignal.wait(timeoutMillis);
+            }
+        }
+        return durableOffset > offset;
+    }
+
+    /**
+     * Records that everything before the offset has been processed and deletes fully consumed segments
+     */
+    public void commit(long offset) throws IOException {
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, offset));
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        checkpoint = offset;
+        deleteConsumedSegments();
+    }
+
+    public long getCheckpoint() {
+        return checkpoint;
+    }
+
+    public long getDurableOffset() {
+        return durableOffset;
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Bytes skipped because of corrupt records
+     */
+    public long getSkippedBytes() {
+        return skippedBytes.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (writeLock) {
+            if (activeChannel != null && activeChannel.isOpen()) {
+                activeChannel.force(false);
+                activeChannel.close();
+            }
+        }
+    }
+
+    /**
+     * Makes everything up to the given offset durable. Appenders that arrive while another one is
+     * forcing the file wait for it and are usually covered by that same fsync.
+     */
+    private void sync(long end) throws IOException {
+        synchronized (syncLock) {
+            if (durableOffset >= end) {
+                return;
+            }
+            long target;
+            FileChannel channel;
+            synchronized (writeLock) {
+                target = writeOffset;
+                channel = activeChannel;
+            }
+            try {
+                channel.force(false);
+            } catch (ClosedChannelException e) {
+                // The segment was rolled meanwhile, which forces it before closing
+            }
+            durableOffset = target;
+        }
+        synchronized (dataSignal) {
+            dataSignal.notifyAll();
+        }
+    }
+
+    private void roll() throws IOException {
+        activeChannel.force(false);
+        activeChannel.close();
+        openSegment(writeOffset);
+    }
+
+    private void openSegment(long base) throws IOException {
+        Path path = directory.resolve(String.format("%020d%s", base, SEGMENT_SUFFIX));
+        activeChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        activeChannel.position(activeChannel.size());
+        activeBase = base;
+        segments.put(base, path);
+    }
+
+    private void recover() throws IOException {
+        Path checkpointFile = directory.resolve(CHECKPOINT_FILE);
+        if (Files.exists(checkpointFile)) {
+            checkpoint = ByteBuffer.wrap(Files.readAllBytes(checkpointFile)).getLong();
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .forEach(path -> {
+                        String name = path.getFileName().toString();
+                        segments.put(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())), path);
+                    });
+        }
+
+        if (segments.isEmpty()) {
+            openSegment(checkpoint);
+            writeOffset = checkpoint;
+        } else {
+            // Only the tail of the last segment can hold a torn write; earlier segments were forced before rolling
+            Map.Entry<Long, Path> last = segments.lastEntry();
+            long validBytes = 0;
+            try (FileChannel channel = FileChannel.open(last.getValue(), StandardOpenOption.READ)) {
+                SpoolRecord record;
+                while ((record = readRecord(channel, validBytes, last.getKey() + validBytes)) != null) {
+                    validBytes = record.getNextOffset() - last.getKey();
+                }
+            }
+            try (FileChannel channel = FileChannel.open(last.getValue(), StandardOpenOption.WRITE)) {
+                if (channel.size() > validBytes) {
+                    channel.truncate(validBytes);
+                    channel.force(true);
+                }
+            }
+            openSegment(last.getKey());
+            writeOffset = last.getKey() + validBytes;
+        }
+
+        durableOffset = writeOffset;
+        if (checkpoint > writeOffset) {
+            checkpoint = writeOffset;
+        }
+        deleteConsumedSegments();
+    }
+
+    /**
+     * Reads the record at a position within a segment, or returns null if it is incomplete or corrupt
+     */
+    private SpoolRecord readRecord(FileChannel channel, long position, long offset) throws IOException {
+        if (channel.size() - position < HEADER_BYTES) {
+            return null;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        readFully(channel, header, position);
+        header.flip();
+        int length = header.getInt();
+        int crc = header.getInt();
+        long userId = header.getLong();
+        if (length < 0 || length > maxRecordBytes || channel.size() - position - HEADER_BYTES < length) {
+            return null;
+        }
+
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        readFully(channel, payload, position + HEADER_BYTES);
+        if (checksum(userId, payload.array()) != crc) {
+            return null;
+        }
+        return new SpoolRecord(offset, offset + HEADER_BYTES + length, userId, payload.array());
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of spool segment");
+            }
+        }
+    }
+
+    private void deleteConsumedSegments() throws IOException {
+        for (Map.Entry<Long, Path> segment : segments.entrySet()) {
+            Long nextBase = segments.higherKey(segment.getKey());
+            if (nextBase == null || nextBase > checkpoint) {
+                break;
+            }
+            Files.deleteIfExists(segment.getValue());
+            segments.remove(segment.getKey());
+        }
+    }
+
+    private static int checksum(long userId, byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, userId));
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Records read in one call and the offset following them
+     */
+    public static class ReadBatch {
+        private final List<SpoolRecord> records;
+        private final long nextOffset;
+
+        public ReadBatch(List<SpoolRecord> records, long nextOffset) {
+            this.records = records;
+            this.nextOffset = nextOffset;
+        }
+
+        public List<SpoolRecord> getRecords() { return records; }
+        public long getNextOffset() { return nextOffset; }
+    }
+
+    /**
+     * A record read back from the spool
+     */
+    public static class SpoolRecord {
+        private final long offset;
+        private final long nextOffset;
+        private final long userId;
+        private final byte[] payload;
+
+        public SpoolRecord(long offset, long nextOffset, long userId, byte[] payload) {
+            this.offset = offset;
+            this.nextOffset = nextOffset;
+            this.userId = userId;
+            this.payload = payload;
+        }
+
+        public long getOffset() { return offset; }
+        public long getNextOffset() { return nextOffset; }
+        public long getUserId() { return userId; }
+        public byte[] getPayload() { return payload; }
+    }
+}
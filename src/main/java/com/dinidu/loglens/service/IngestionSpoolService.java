@@ -0,0 +1,260 @@
+package com.dinidu.loglens.service;
+
+import com.dinidu.loglens.dto.LogProcessingResult;
+import com.dinidu.loglens.exception.LogProcessingException;
+import com.dinidu.loglens.model.User;
+import com.dinidu.loglens.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Durable ingestion: uploaded lines are appended to the on-disk spool and acknowledged as soon as
+ * they are fsynced, then processed in the background from the last checkpoint. After a crash the
+ * consumer replays everything after the checkpoint, so processing is at-least-once.
+ * <p>
+ * Only {@code durable=true} uploads go through the spool. Lines from NDJSON streams and syslog are
+ * buffered in memory by {@link LogIngestionService} and are lost if the node crashes before they are
+ * processed. The spool is off by default and needs an absolute {@code log.spool.dir}.
+ */
+@Service
+@Slf4j
+public class IngestionSpoolService {
+
+    private final LogProcessingService logProcessingService;
+    private final UserRepository userRepository;
+    private final IngestQuotaService ingestQuotaService;
+
+    @Value("${log.spool.enabled:false}")
+    private boolean enabled;
+
+    @Value("${log.spool.dir:}")
+    private String directory;
+
+    @Value("${log.spool.segment-bytes:67108864}")
+    private long segmentBytes;
+
+    @Value("${log.spool.max-record-bytes:16777216}")
+    private int maxRecordBytes;
+
+    @Value("${log.spool.lines-per-record:1000}")
+    private int linesPerRecord;
+
+    @Value("${log.spool.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${log.spool.retry-delay-ms:5000}")
+    private long retryDelayMillis;
+
+    private final AtomicLong abandonedRecords = new AtomicLong();
+    private volatile boolean running;
+    private IngestionSpool spool;
+    private Thread consumer;
+
+    public IngestionSpoolService(LogProcessingService logProcessingService, UserRepository userRepository,
+                                 IngestQuotaService ingestQuotaService) {
+        this.logProcessingService = logProcessingService;
+        this.userRepository = userRepository;
+        this.ingestQuotaService = ingestQuotaService;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        if (directory.isBlank() || !Paths.get(directory).isAbsolute()) {
+            throw new IllegalStateException("log.spool.dir must be an absolute path when log.spool.enabled is true");
+        }
+        spool = new IngestionSpool(Paths.get(directory), segmentBytes, maxRecordBytes);
+        log.info("Opened ingestion spool in {} (checkpoint {}, end {})",
+                directory, spool.getCheckpoint(), spool.getDurableOffset());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startConsumer() {
+        if (spool == null) {
+            return;
+        }
+        running = true;
+        consumer = new Thread(this::runConsumer, "Spool-Consumer");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        running = false;
+        if (consumer != null) {
+            consumer.interrupt();
+            consumer.join(30000);
+        }
+        if (spool != null) {
+            spool.close();
+        }
+    }
+
+    /**
+     * Appends an uploaded file to the spool and returns once it is durable
+     */
+    public Map<String, Object> spoolFile(MultipartFile file, User user) throws IOException {
+        if (spool == null) {
+            throw new LogProcessingException("Durable ingestion is disabled");
+        }
+        logProcessingService.validateFile(file);
+
+        String source = file.getOriginalFilename() != null ? file.getOriginalFilename() : "upload";
+        List<byte[]> records = new ArrayList<>();
+        List<String> chunk = new ArrayList<>(linesPerRecord);
+        int lines = 0;
+        long chunkBytes = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                chunk.add(line);
+                lines++;
+                chunkBytes += line.length() + 1;
+                // Characters may take up to three bytes in UTF-8
+                if (chunk.size() == linesPerRecord || chunkBytes * 3 >= maxRecordBytes / 2) {
+                    records.add(encode(source, chunk));
+                    chunk.clear();
+                    chunkBytes = 0;
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            records.add(encode(source, chunk));
+        }
+
+        ingestQuotaService.acquire(user, lines);
+        long endOffset = records.isEmpty() ? spool.getDurableOffset() : spool.appendAll(user.getId(), records);
+
+        Map<String, Object> receipt = new HashMap<>();
+        receipt.put("fileName", source);
+        receipt.put("acceptedLines", lines);
+        receipt.put("records", records.size());
+        receipt.put("spoolOffset", endOffset);
+        return receipt;
+    }
+
+    public long getPendingBytes() {
+        return spool != null ? spool.getDurableOffset() - spool.getCheckpoint() : 0;
+    }
+
+    public long getSkippedBytes() {
+        return spool != null ? spool.getSkippedBytes() : 0;
+    }
+
+    public long getAbandonedRecords() {
+        return abandonedRecords.get();
+    }
+
+    private void runConsumer() {
+        long offset = spool.getCheckpoint();
+        // Failed attempts at the record at the current offset, whether it failed or threw
+        int attempts = 0;
+        while (running) {
+            try {
+                IngestionSpool.ReadBatch batch = spool.readBatch(offset, 1);
+                if (batch.getRecords().isEmpty()) {
+                    if (batch.getNextOffset() > offset) {
+                        // Corrupt data was skipped
+                        spool.commit(batch.getNextOffset());
+                        offset = batch.getNextOffset();
+                    } else {
+                        spool.awaitData(offset, 1000);
+                    }
+                    continue;
+                }
+                IngestionSpool.SpoolRecord record = batch.getRecords().get(0);
+                if (!process(record, attempts + 1)) {
+                    if (++attempts < maxAttempts) {
+                        if (!sleep(retryDelayMillis)) {
+                            return;
+                        }
+                        continue;
+                    }
+                    // One poison record must not stop durable ingestion for every user
+                    log.error("Giving up on spool record at offset {} for user {} after {} attempts",
+                            record.getOffset(), record.getUserId(), attempts);
+                    abandonedRecords.incrementAndGet();
+                }
+                attempts = 0;
+                spool.commit(record.getNextOffset());
+                offset = record.getNextOffset();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Spool consumer failed at offset {}: {}", offset, e.getMessage(), e);
+                if (!sleep(retryDelayMillis)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Processes one record
+     *
+     * @return false if processing failed or threw, so the record should be retried
+     */
+    private boolean process(IngestionSpool.SpoolRecord record, int attempt) {
+        Optional<User> user = userRepository.findById(record.getUserId());
+        if (user.isEmpty()) {
+            log.warn("Skipping spool record at offset {} for unknown user {}", record.getOffset(), record.getUserId());
+            return true;
+        }
+
+        String payload = new String(record.getPayload(), StandardCharsets.UTF_8);
+        int newline = payload.indexOf('\n');
+        String source = (newline >= 0 ? payload.substring(0, newline) : payload).trim();
+        List<String> lines = newline >= 0 ? Arrays.asList(payload.substring(newline + 1).split("\r?\n")) : List.of();
+
+        String error;
+        try {
+            LogProcessingResult result = logProcessingService.processLines(lines, user.get(), source);
+            if (result.isSuccess()) {
+                return true;
+            }
+            error = result.getErrorMessage();
+        } catch (RuntimeException e) {
+            // e.g. the insert was rejected and the transaction could only be rolled back
+            error = e.getMessage();
+        }
+        log.warn("Processing spool record at offset {} failed (attempt {}/{}): {}",
+                record.getOffset(), attempt, maxAttempts, error);
+        return false;
+    }
+
+    private static byte[] encode(String source, List<String> lines) {
+        return (source.replace('\r', ' ').replace('\n', ' ') + "\n" + String.join("\n", lines)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
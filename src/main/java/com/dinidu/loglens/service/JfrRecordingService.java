@@ -0,0 +1,197 @@
+package com.dinidu.loglens.service;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Manages Java Flight Recorder recordings of the pipeline events in {@link PipelineEvents}.
+ * <p>
+ * An optional continuous recording keeps only LogLens events above their thresholds in a bounded
+ * ring, which is cheap enough to leave on in production. On-demand recordings additionally capture
+ * the JVM's default event set and are bounded in both duration and size.
+ */
+@Service
+@Slf4j
+public class JfrRecordingService {
+
+    private static final String CONTINUOUS_NAME = "loglens-continuous";
+    private static final String ON_DEMAND_NAME = "loglens-on-demand";
+
+    private final boolean continuousEnabled;
+    private final Duration continuousMaxAge;
+    private final long continuousMaxBytes;
+    private final Duration maxDuration;
+    private final long maxBytes;
+    private final boolean includeJvmEvents;
+    private final Map<String, Duration> thresholds = new HashMap<>();
+
+    private Recording continuous;
+    private Recording onDemand;
+
+    public JfrRecordingService(
+            @Value("${log.jfr.continuous.enabled:false}") boolean continuousEnabled,
+            @Value("${log.jfr.continuous.max-age-minutes:30}") long continuousMaxAgeMinutes,
+            @Value("${log.jfr.continuous.max-size-mb:50}") long continuousMaxSizeMb,
+            @Value("${log.jfr.recording.max-duration-minutes:60}") long maxDurationMinutes,
+            @Value("${log.jfr.recording.max-size-mb:250}") long maxSizeMb,
+            @Value("${log.jfr.recording.include-jvm-events:true}") boolean includeJvmEvents,
+            @Value("${log.jfr.threshold.parse-ms:20}") long parseThresholdMs,
+            @Value("${log.jfr.threshold.ai-request-ms:200}") long aiRequestThresholdMs,
+            @Value("${log.jfr.threshold.knn-ms:50}") long knnThresholdMs,
+            @Value("${log.jfr.threshold.persist-ms:100}") long persistThresholdMs) {
+        this.continuousEnabled = continuousEnabled;
+        this.continuousMaxAge = Duration.ofMinutes(continuousMaxAgeMinutes);
+        this.continuousMaxBytes = continuousMaxSizeMb * 1024 * 1024;
+        this.maxDuration = Duration.ofMinutes(maxDurationMinutes);
+        this.maxBytes = maxSizeMb * 1024 * 1024;
+        this.includeJvmEvents = includeJvmEvents;
+        thresholds.put(PipelineEvents.PARSE_CHUNK, Duration.ofMillis(parseThresholdMs));
+        thresholds.put(PipelineEvents.AI_REQUEST, Duration.ofMillis(aiRequestThresholdMs));
+        thresholds.put(PipelineEvents.KNN_QUERY, Duration.ofMillis(knnThresholdMs));
+        thresholds.put(PipelineEvents.BATCH_PERSIST, Duration.ofMillis(persistThresholdMs));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void startContinuous() {
+        if (!continuousEnabled || continuous != null) {
+            return;
+        }
+        Recording recording = new Recording();
+        recording.setName(CONTINUOUS_NAME);
+        enablePipelineEvents(recording);
+        recording.setMaxAge(continuousMaxAge);
+        recording.setMaxSize(continuousMaxBytes);
+        recording.setToDisk(true);
+        recording.start();
+        continuous = recording;
+        log.info("Started continuous JFR recording of pipeline events (max age {}, max size {} bytes)",
+                continuousMaxAge, continuousMaxBytes);
+    }
+
+    /**
+     * Starts an on-demand recording; only one can run at a time
+     *
+     * @param durationSeconds how long to record, capped at the configured maximum; null for the maximum
+     * @param maxSizeMb       size limit of the recording, capped at the configured maximum; null for the maximum
+     */
+    public synchronized Map<String, Object> start(Long durationSeconds, Long maxSizeMb) throws IOException, ParseException {
+        if (durationSeconds != null && durationSeconds < 1) {
+            throw new IllegalArgumentException("Duration must be at least one second");
+        }
+        if (maxSizeMb != null && maxSizeMb < 1) {
+            throw new IllegalArgumentException("Maximum size must be at least 1 MB");
+        }
+        if (onDemand != null && onDemand.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("A recording is already running");
+        }
+        if (onDemand != null) {
+            onDemand.close();
+        }
+
+        Recording recording = includeJvmEvents
+                ? new Recording(Configuration.getConfiguration("default"))
+                : new Recording();
+        recording.setName(ON_DEMAND_NAME);
+        enablePipelineEvents(recording);
+        Duration duration = durationSeconds != null ? Duration.ofSeconds(durationSeconds) : maxDuration;
+        recording.setDuration(duration.compareTo(maxDuration) < 0 ? duration : maxDuration);
+        recording.setMaxSize(maxSizeMb != null ? Math.min(maxSizeMb * 1024 * 1024, maxBytes) : maxBytes);
+        recording.setToDisk(true);
+        recording.start();
+        onDemand = recording;
+
+        log.info("Started on-demand JFR recording for {}", recording.getDuration());
+        return status();
+    }
+
+    /**
+     * Stops the running on-demand recording; its data stays available for download until the next start
+     */
+    public synchronized Map<String, Object> stop() {
+        if (onDemand == null || onDemand.getState() != RecordingState.RUNNING) {
+            throw new IllegalStateException("No recording is running");
+        }
+        onDemand.stop();
+        log.info("Stopped on-demand JFR recording");
+        return status();
+    }
+
+    /**
+     * Writes the latest on-demand recording, or the continuous recording if there is none, to a temporary file.
+     * Returns null when there is nothing to download; the caller deletes the file.
+     */
+    public synchronized Path dump() throws IOException {
+        Recording recording = isDumpable(onDemand) ? onDemand : isDumpable(continuous) ? continuous : null;
+        if (recording == null) {
+            return null;
+        }
+        Path file = Files.createTempFile("loglens-", ".jfr");
+        try {
+            recording.dump(file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return file;
+    }
+
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("continuous", describe(continuous));
+        status.put("onDemand", describe(onDemand));
+        Map<String, Object> thresholdMillis = new HashMap<>();
+        thresholds.forEach((event, threshold) -> thresholdMillis.put(event, threshold.toMillis()));
+        status.put("thresholdsMs", thresholdMillis);
+        return status;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (onDemand != null) {
+            onDemand.close();
+        }
+        if (continuous != null) {
+            continuous.close();
+        }
+    }
+
+    private void enablePipelineEvents(Recording recording) {
+        thresholds.forEach((event, threshold) -> recording.enable(event).withThreshold(threshold));
+    }
+
+    private static boolean isDumpable(Recording recording) {
+        return recording != null
+                && (recording.getState() == RecordingState.RUNNING || recording.getState() == RecordingState.STOPPED);
+    }
+
+    private static Map<String, Object> describe(Recording recording) {
+        Map<String, Object> description = new HashMap<>();
+        if (recording == null) {
+            description.put("state", "NONE");
+            return description;
+        }
+        description.put("state", recording.getState().name());
+        description.put("startTime", recording.getStartTime());
+        description.put("stopTime", recording.getStopTime());
+        description.put("duration", recording.getDuration());
+        description.put("maxAge", recording.getMaxAge());
+        description.put("maxSizeBytes", recording.getMaxSize());
+        description.put("sizeBytes", recording.getSize());
+        return description;
+    }
+}
@@ -0,0 +1,125 @@
+package com.dinidu.loglens.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * In-process embeddings without a network hop: character 3- to 5-grams of the message are feature-hashed
+ * into a fixed number of dimensions with a random sign, and the vector is L2-normalized.
+ * <p>
+ * Messages are lower-cased and every run of digits is mapped to a single '0', so lines that only differ in
+ * numbers get the same vector, much like their templates. Similarity reflects shared surface text, not meaning,
+ * which is enough to recognise lines that look like ones already seen. {@link #embedInto} allocates
+ * nothing. The dimension matches the embedding column so these vectors can also be stored.
+ */
+@Component
+public class LocalEmbeddingProvider implements EmbeddingProvider {
+
+    public static final String NAME = "local";
+    public static final int DIMENSIONS = 384;
+
+    private static final int FNV_OFFSET = 0x811C9DC5;
+    private static final int FNV_PRIME = 0x01000193;
+    private static final char BOUNDARY = ' ';
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public List<Float> embed(String text) {
+        float[] vector = new float[DIMENSIONS];
+        embedInto(text, vector);
+        List<Float> embedding = new ArrayList<>(DIMENSIONS);
+        for (float value : vector) {
+            embedding.add(value);
+        }
+        return embedding;
+    }
+
+    /**
+     * Writes the normalized embedding of the text into {@code vector}, which must have {@link #DIMENSIONS} entries
+     */
+    public void embedInto(CharSequence text, float[] vector) {
+        if (vector.length != DIMENSIONS) {
+            throw new IllegalArgumentException("Vector must have " + DIMENSIONS + " dimensions");
+        }
+        Arrays.fill(vector, 0f);
+        int length = text != null ? text.length() : 0;
+
+        // The text is padded with one boundary character on each side so prefixes and suffixes get their own
+        // grams; runs of digits or whitespace collapse to one character, the last four are kept in p1..p4
+        char p1 = 0, p2 = 0, p3 = 0, p4 = 0;
+        int emitted = 0;
+        for (int position = -1; position <= length; position++) {
+            char c = normalize(text, position, length);
+            if (emitted > 0 && c == p1 && (c == '0' || c == BOUNDARY)) {
+                continue;
+            }
+            emitted++;
+            if (emitted >= 3) {
+                addGram(vector, fnv(fnv(fnv(FNV_OFFSET, p2), p1), c), 3);
+            }
+            if (emitted >= 4) {
+                addGram(vector, fnv(fnv(fnv(fnv(FNV_OFFSET, p3), p2), p1), c), 4);
+            }
+            if (emitted >= 5) {
+                addGram(vector, fnv(fnv(fnv(fnv(fnv(FNV_OFFSET, p4), p3), p2), p1), c), 5);
+            }
+            p4 = p3;
+            p3 = p2;
+            p2 = p1;
+            p1 = c;
+        }
+
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm > 0) {
+            float scale = (float) (1.0 / Math.sqrt(norm));
+            for (int i = 0; i < DIMENSIONS; i++) {
+                vector[i] *= scale;
+            }
+        }
+    }
+
+    private static int fnv(int hash, char c) {
+        return (hash ^ c) * FNV_PRIME;
+    }
+
+    private static void addGram(float[] vector, int hash, int n) {
+        int mixed = mix(hash ^ n);
+        vector[(mixed >>> 1) % DIMENSIONS] += (mixed & 1) == 0 ? 1f : -1f;
+    }
+
+    private static char normalize(CharSequence text, int position, int length) {
+        if (position < 0 || position >= length) {
+            return BOUNDARY;
+        }
+        char c = text.charAt(position);
+        if (c >= '0' && c <= '9') {
+            return '0';
+        }
+        if (Character.isWhitespace(c)) {
+            return BOUNDARY;
+        }
+        return Character.toLowerCase(c);
+    }
+
+    /**
+     * Murmur3 finalizer, spreading the FNV hash over all bits before picking a dimension and sign
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
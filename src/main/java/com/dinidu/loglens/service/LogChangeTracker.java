@@ -0,0 +1,46 @@
+package com.dinidu.loglens.service;
+
+import com.dinidu.loglens.repository.LogDataVersionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Tracks a monotonically increasing data version per user. Caches include the version in
+ * their keys, so any write to a user's logs invalidates their cached results at once.
+ * <p>
+ * Versions are stored in the database and bumped in the writer's transaction, so a new version
+ * becomes visible together with the data it describes, on every node.
+ */
+@Component
+@RequiredArgsConstructor
+public class LogChangeTracker {
+
+    private static final Long GLOBAL = 0L;
+
+    private final LogDataVersionRepository versionRepository;
+
+    /**
+     * Returns the current data version for a user
+     */
+    @Transactional(readOnly = true)
+    public long version(Long userId) {
+        return versionRepository.sumVersions(userId, GLOBAL);
+    }
+
+    /**
+     * Records that a user's logs were written or deleted; call it in the transaction making the change
+     */
+    @Transactional
+    public void markChanged(Long userId) {
+        versionRepository.increment(userId);
+    }
+
+    /**
+     * Records a change affecting every user, such as retention
+     */
+    @Transactional
+    public void markAllChanged() {
+        versionRepository.increment(GLOBAL);
+    }
+}
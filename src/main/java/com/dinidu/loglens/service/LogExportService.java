@@ -0,0 +1,207 @@
+package com.dinidu.loglens.service;
+
+import com.dinidu.loglens.dto.LogEntryExportRow;
+import com.dinidu.loglens.model.User;
+import com.dinidu.loglens.repository.LogEntryRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams a user's logs as NDJSON or CSV straight from a forward-only database cursor.
+ * Rows are written and flushed as they are read, so heap usage does not grow with the export size.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LogExportService {
+
+    private static final int FLUSH_EVERY_ROWS = 1000;
+    private static final LocalDateTime MIN_TIMESTAMP = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_TIMESTAMP = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final String CSV_HEADER =
+            "id,timestamp,log_level,log_message,is_anomaly,similarity_score,explanation,source_file";
+
+    private final LogEntryRepository logEntryRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    public enum ExportFormat {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() { return contentType; }
+        public String getExtension() { return extension; }
+
+        public static ExportFormat from(String value) {
+            for (ExportFormat format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format: " + value);
+        }
+    }
+
+    /**
+     * Writes the export to the given stream and returns the number of rows written
+     */
+    public long export(User user, ExportFormat format, boolean gzip, boolean anomaliesOnly,
+                       LocalDateTime from, LocalDateTime to, OutputStream outputStream) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(outputStream, 64 * 1024) : outputStream;
+
+        long rows = inReadOnlyTransaction(() -> {
+            try (Stream<LogEntryExportRow> stream = logEntryRepository.streamExportRows(user, anomaliesOnly,
+                    from != null ? from : MIN_TIMESTAMP, to != null ? to : MAX_TIMESTAMP)) {
+                return format == ExportFormat.CSV ? writeCsv(stream, target) : writeNdjson(stream, target);
+            }
+        });
+
+        if (target instanceof GZIPOutputStream gzipStream) {
+            gzipStream.finish();
+        }
+        target.flush();
+
+        log.info("Exported {} log entries for user {} as {}", rows, user.getId(), format);
+        return rows;
+    }
+
+    /**
+     * Writes the entries one processing job stored as NDJSON export rows, in file order and without embeddings.
+     * Used to stream an upload's entries back to the caller from the database instead of from memory.
+     */
+    public long exportJob(User user, String jobId, OutputStream outputStream) throws IOException {
+        return inReadOnlyTransaction(() -> {
+            try (Stream<LogEntryExportRow> stream = logEntryRepository.streamJobExportRows(user, jobId)) {
+                return writeNdjson(stream, outputStream);
+            }
+        });
+    }
+
+    /**
+     * Runs a cursor-reading export in a read-only transaction, rethrowing its I/O failure
+     */
+    private long inReadOnlyTransaction(RowWriter work) throws IOException {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        Long rows;
+        try {
+            rows = transactionTemplate.execute(status -> {
+                try {
+                    return work.write();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return rows != null ? rows : 0;
+    }
+
+    private long writeNdjson(Stream<LogEntryExportRow> rows, OutputStream outputStream) throws IOException {
+        long count = 0;
+        // Flushing is done in chunks below rather than after every row
+        ObjectWriter rowWriter = objectMapper.writerFor(LogEntryExportRow.class)
+                .without(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            Iterator<LogEntryExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                rowWriter.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                if (++count % FLUSH_EVERY_ROWS == 0) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        }
+        return count;
+    }
+
+    private long writeCsv(Stream<LogEntryExportRow> rows, OutputStream outputStream) throws IOException {
+        long count = 0;
+        Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        Iterator<LogEntryExportRow> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            LogEntryExportRow row = iterator.next();
+            writer.write(String.valueOf(row.getId()));
+            writer.write(',');
+            writer.write(row.getTimestamp() != null ? row.getTimestamp().toString() : "");
+            writer.write(',');
+            writeCsvField(writer, row.getLogLevel());
+            writer.write(',');
+            writeCsvField(writer, row.getLogMessage());
+            writer.write(',');
+            writer.write(String.valueOf(Boolean.TRUE.equals(row.getIsAnomaly())));
+            writer.write(',');
+            writer.write(row.getSimilarityScore() != null ? row.getSimilarityScore().toString() : "");
+            writer.write(',');
+            writeCsvField(writer, row.getExplanation());
+            writer.write(',');
+            writeCsvField(writer, row.getSourceFile());
+            writer.write('\n');
+
+            if (++count % FLUSH_EVERY_ROWS == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * Writes a CSV field, quoting it when it contains separators, quotes or line breaks
+     */
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean needsQuotes = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        long write() throws IOException;
+    }
+}
@@ -0,0 +1,469 @@
+package com.dinidu.loglens.service;
+
+import com.dinidu.loglens.model.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Continuous ingestion: lines pushed over HTTP streams or syslog are queued in a bounded buffer and
+ * handed to the regular parse/embed/detect path in micro-batches, flushed when a batch reaches its
+ * size limit or its oldest line reaches the delay limit.
+ * <p>
+ * The batcher thread only assembles batches. Each user/source group is handed to that user's lane,
+ * which processes its groups in order on a shared dispatch pool, so one slow user does not hold back
+ * the others or stop the buffer from draining. A user whose lane backlog reaches its limit is pushed
+ * back on like a full buffer.
+ * <p>
+ * When the buffer is full, blocking producers wait up to the offer timeout, which slows the sending
+ * client down; non-blocking producers either drop the line (UDP) or retry it later (syslog over TCP).
+ */
+@Service
+@Slf4j
+public class LogIngestionService {
+
+    private static final DateTimeFormatter LINE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String DEFAULT_LEVEL = "INFO";
+
+    private final LogProcessingService logProcessingService;
+    private final IngestQuotaService ingestQuotaService;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<PendingLine> queue;
+    private final int maxBatchLines;
+    private final long maxBatchDelayMillis;
+    private final long offerTimeoutMillis;
+    private final int maxLineLength;
+    private final int maxPendingLinesPerUser;
+    private final Map<Long, UserLane> lanes = new ConcurrentHashMap<>();
+    private final ExecutorService dispatcher;
+
+    private final AtomicLong acceptedLines = new AtomicLong();
+    private final AtomicLong droppedLines = new AtomicLong();
+    private final AtomicLong flushedBatches = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread batcher;
+
+    public LogIngestionService(
+            LogProcessingService logProcessingService,
+            IngestQuotaService ingestQuotaService,
+            ObjectMapper objectMapper,
+            @Value("${log.ingest.queue-capacity:100000}") int queueCapacity,
+            @Value("${log.ingest.max-batch-lines:1000}") int maxBatchLines,
+            @Value("${log.ingest.max-batch-delay-ms:1000}") long maxBatchDelayMillis,
+            @Value("${log.ingest.offer-timeout-ms:5000}") long offerTimeoutMillis,
+            @Value("${log.ingest.max-line-length:65536}") int maxLineLength,
+            @Value("${log.ingest.dispatch-threads:16}") int dispatchThreads,
+            @Value("${log.ingest.max-pending-lines-per-user:10000}") int maxPendingLinesPerUser) {
+        this.logProcessingService = logProcessingService;
+        this.ingestQuotaService = ingestQuotaService;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchLines = maxBatchLines;
+        this.maxBatchDelayMillis = maxBatchDelayMillis;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.maxLineLength = maxLineLength;
+        this.maxPendingLinesPerUser = maxPendingLinesPerUser;
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(dispatchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "LogIngest-Dispatch-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        batcher = new Thread(this::runBatcher, "LogIngest-Batcher");
+        batcher.setDaemon(true);
+        batcher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        batcher.interrupt();
+        batcher.join(TimeUnit.SECONDS.toMillis(30));
+        dispatcher.shutdown();
+        dispatcher.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Queues a line, waiting up to the offer timeout for space in the buffer
+     *
+     * @return false if the buffer stayed full
+     */
+    public boolean submit(User user, String line, String source) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(offerTimeoutMillis);
+        if (awaitLaneCapacity(user, deadline)
+                && queue.offer(new PendingLine(user, line, source), deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+            acceptedLines.incrementAndGet();
+            return true;
+        }
+        droppedLines.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Queues a line without waiting, dropping it if the buffer is full
+     */
+    public boolean trySubmit(User user, String line, String source) {
+        if (hasLaneCapacity(user) && queue.offer(new PendingLine(user, line, source))) {
+            acceptedLines.incrementAndGet();
+            return true;
+        }
+        droppedLines.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Queues a line if there is space, without counting a refusal as a drop; for producers that retry
+     */
+    public boolean offer(User user, String line, String source) {
+        if (hasLaneCapacity(user) && queue.offer(new PendingLine(user, line, source))) {
+            acceptedLines.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    private boolean hasLaneCapacity(User user) {
+        UserLane lane = lanes.get(user.getId());
+        if (lane == null) {
+            return true;
+        }
+        synchronized (lane) {
+            return lane.pendingLines < maxPendingLinesPerUser;
+        }
+    }
+
+    /**
+     * Waits until the user's lane backlog is below its limit or the deadline passes
+     */
+    private boolean awaitLaneCapacity(User user, long deadline) throws InterruptedException {
+        UserLane lane = lanes.get(user.getId());
+        if (lane == null) {
+            return true;
+        }
+        synchronized (lane) {
+            while (lane.pendingLines >= maxPendingLinesPerUser) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(lane, remaining);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Reads an NDJSON stream until it ends or the buffer stays full. Each line is either a JSON object
+     * with "message" and optional "timestamp" and "level" fields, a JSON object with a raw "line",
+     * or a plain log line.
+     */
+    public IngestResult ingestNdjson(User user, InputStream inputStream) throws IOException {
+        IngestResult result = new IngestResult();
+        Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+        StringBuilder buffer = new StringBuilder(256);
+
+        char[] chunk = new char[8192];
+        try {
+            int read;
+            boolean overlong = false;
+            while ((read = reader.read(chunk)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    char ch = chunk[i];
+                    if (ch != '\n') {
+                        // Overlong lines are discarded rather than buffered
+                        if (buffer.length() < maxLineLength) {
+                            buffer.append(ch);
+                        } else {
+                            overlong = true;
+                        }
+                        continue;
+                    }
+                    if (!handleNdjsonLine(user, buffer, overlong, result)) {
+                        return result;
+                    }
+                    buffer.setLength(0);
+                    overlong = false;
+                }
+            }
+            handleNdjsonLine(user, buffer, overlong, result);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.throttled = true;
+        }
+        return result;
+    }
+
+    private boolean handleNdjsonLine(User user, StringBuilder buffer, boolean overlong, IngestResult result)
+            throws InterruptedException {
+        String text = buffer.toString().trim();
+        if (text.isEmpty()) {
+            return true;
+        }
+        if (overlong) {
+            result.rejected++;
+            return true;
+        }
+
+        String line = toLogLine(text);
+        if (line == null) {
+            result.rejected++;
+            return true;
+        }
+        if (!ingestQuotaService.tryAcquire(user, 1)) {
+            result.quotaExceeded = true;
+            return false;
+        }
+        if (!submit(user, line, "ndjson-stream")) {
+            result.throttled = true;
+            return false;
+        }
+        result.accepted++;
+        return true;
+    }
+
+    private String toLogLine(String text) {
+        if (!text.startsWith("{")) {
+            return text;
+        }
+        try {
+            JsonNode node = objectMapper.readTree(text);
+            if (node.hasNonNull("line")) {
+                return node.get("line").asText();
+            }
+            if (!node.hasNonNull("message")) {
+                return null;
+            }
+
+            StringBuilder line = new StringBuilder();
+            LocalDateTime timestamp = node.hasNonNull("timestamp") ? parseTimestamp(node.get("timestamp").asText()) : null;
+            if (timestamp != null) {
+                line.append(timestamp.format(LINE_TIMESTAMP)).append(' ');
+            }
+            String level = node.hasNonNull("level") ? node.get("level").asText().toUpperCase() : DEFAULT_LEVEL;
+            return line.append('[').append(level).append("] ").append(node.get("message").asText()).toString();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static LocalDateTime parseTimestamp(String value) {
+        try {
+            return OffsetDateTime.parse(value).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDateTime.parse(value);
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+
+    private void runBatcher() {
+        List<PendingLine> batch = new ArrayList<>(maxBatchLines);
+        while (running) {
+            try {
+                PendingLine first = queue.poll(maxBatchDelayMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxBatchDelayMillis);
+                while (batch.size() < maxBatchLines) {
+                    queue.drainTo(batch, maxBatchLines - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchLines || remaining <= 0) {
+                        break;
+                    }
+                    PendingLine next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                if (running) {
+                    Thread.currentThread().interrupt();
+                }
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+
+        // Process whatever is still buffered before shutting down
+        while (!queue.isEmpty()) {
+            queue.drainTo(batch, maxBatchLines);
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Splits a batch by user and source and hands each group, which becomes one processing job, to the user's lane
+     */
+    private void flush(List<PendingLine> batch) {
+        Map<String, LineGroup> groups = new LinkedHashMap<>();
+        for (PendingLine line : batch) {
+            groups.computeIfAbsent(line.user.getId() + ":" + line.source, k -> new LineGroup(line.user, line.source))
+                    .lines.add(line.line);
+        }
+        for (LineGroup group : groups.values()) {
+            dispatch(group);
+        }
+        flushedBatches.incrementAndGet();
+    }
+
+    private void dispatch(LineGroup group) {
+        while (true) {
+            UserLane lane = lanes.computeIfAbsent(group.user.getId(), UserLane::new);
+            boolean start;
+            synchronized (lane) {
+                // A lane that went idle was removed; queue on its replacement
+                if (lane.retired) {
+                    continue;
+                }
+                lane.groups.addLast(group);
+                lane.pendingLines += group.lines.size();
+                start = !lane.running;
+                lane.running = true;
+            }
+            if (start) {
+                dispatcher.execute(() -> drainLane(lane));
+            }
+            return;
+        }
+    }
+
+    /**
+     * Processes a lane's groups in order until it is empty
+     */
+    private void drainLane(UserLane lane) {
+        while (true) {
+            LineGroup group;
+            synchronized (lane) {
+                group = lane.groups.pollFirst();
+                if (group == null) {
+                    lane.running = false;
+                    lane.retired = true;
+                    lanes.remove(lane.userId, lane);
+                    return;
+                }
+            }
+            try {
+                logProcessingService.processLines(group.lines, group.user, group.source);
+            } catch (Exception e) {
+                log.error("Failed to process {} ingested lines from {}: {}", group.lines.size(), group.source, e.getMessage(), e);
+            } finally {
+                synchronized (lane) {
+                    lane.pendingLines -= group.lines.size();
+                    lane.notifyAll();
+                }
+            }
+        }
+    }
+
+    public int getQueuedLines() {
+        return queue.size();
+    }
+
+    /**
+     * Lines taken from the buffer whose processing job has not finished yet
+     */
+    public int getDispatchedLines() {
+        int pending = 0;
+        for (UserLane lane : lanes.values()) {
+            synchronized (lane) {
+                pending += lane.pendingLines;
+            }
+        }
+        return pending;
+    }
+
+    public long getAcceptedLines() {
+        return acceptedLines.get();
+    }
+
+    public long getDroppedLines() {
+        return droppedLines.get();
+    }
+
+    public long getFlushedBatches() {
+        return flushedBatches.get();
+    }
+
+    /**
+     * Outcome of reading one ingestion stream
+     */
+    public static class IngestResult {
+        private long accepted;
+        private long rejected;
+        private boolean throttled;
+        private boolean quotaExceeded;
+
+        public long getAccepted() { return accepted; }
+        public long getRejected() { return rejected; }
+        public boolean isThrottled() { return throttled; }
+        public boolean isQuotaExceeded() { return quotaExceeded; }
+    }
+
+    private static final class LineGroup {
+        private final User user;
+        private final String source;
+        private final List<String> lines = new ArrayList<>();
+
+        private LineGroup(User user, String source) {
+            this.user = user;
+            this.source = source;
+        }
+    }
+
+    private static final class UserLane {
+        private final Long userId;
+        private final ArrayDeque<LineGroup> groups = new ArrayDeque<>();
+        private int pendingLines;
+        private boolean running;
+        private boolean retired;
+
+        private UserLane(Long userId) {
+            this.userId = userId;
+        }
+    }
+
+    private static final class PendingLine {
+        private final User user;
+        private final String line;
+        private final String source;
+
+        private PendingLine(User user, String line, String source) {
+            this.user = user;
+            this.line = line;
+            this.source = source;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.dinidu.loglens.service;
+
+import com.dinidu.loglens.repository.LogEntryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Manages daily range partitions of the log_entries table and applies the retention policy.
+ * <p>
+ * When partitioning is enabled, log_entries is converted once into a table partitioned by
+ * timestamp with a default partition for out-of-range rows. Partitions are created ahead of
+ * time and expired partitions are dropped whole, so retention costs O(partitions).
+ * Without partitioning, retention falls back to a single set-based delete.
+ */
+@Service
+@Slf4j
+public class LogPartitionService {
+
+    private static final String TABLE = "log_entries";
+    private static final String DEFAULT_PARTITION = TABLE + "_default";
+    private static final String PARTITION_PREFIX = TABLE + "_p";
+    private static final String ID_SEQUENCE = TABLE + "_partitioned_id_seq";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter BOUND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LogEntryRepository logEntryRepository;
+    private final LogStatsRollupService logStatsRollupService;
+    private final LogChangeTracker logChangeTracker;
+
+    @Value("${log.partitioning.enabled:false}")
+    private boolean partitioningEnabled;
+
+    @Value("${log.partitioning.premake-days:7}")
+    private int premakeDays;
+
+    @Value("${log.retention.days:0}")
+    private int retentionDays;
+
+    public LogPartitionService(JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               LogEntryRepository logEntryRepository,
+                               LogStatsRollupService logStatsRollupService,
+                               LogChangeTracker logChangeTracker) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.logEntryRepository = logEntryRepository;
+        this.logStatsRollupService = logStatsRollupService;
+        this.logChangeTracker = logChangeTracker;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        maintain();
+    }
+
+    /**
+     * Creates upcoming partitions and applies retention
+     */
+    @Scheduled(cron = "${log.partitioning.cron:0 15 0 * * *}")
+    public void maintain() {
+        try {
+            if (partitioningEnabled) {
+                if (!isPartitioned()) {
+                    convertToPartitioned();
+                }
+                createPartitions();
+            }
+            applyRetention();
+        } catch (Exception e) {
+            log.error("Log partition maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Drops or deletes log data older than the retention window
+     */
+    public void applyRetention() {
+        if (retentionDays <= 0) {
+            return;
+        }
+
+        LocalDate cutoffDay = LocalDate.now().minusDays(retentionDays);
+        LocalDateTime cutoff = cutoffDay.atStartOfDay();
+
+        if (partitioningEnabled && isPartitioned()) {
+            int dropped = 0;
+            for (String partition : listPartitions()) {
+                LocalDate day = partitionDay(partition);
+                if (day != null && day.isBefore(cutoffDay)) {
+                    jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                    dropped++;
+                }
+            }
+            int purged = jdbcTemplate.update(
+                    "DELETE FROM " + DEFAULT_PARTITION + " WHERE timestamp < ?", cutoff);
+            log.info("Retention dropped {} partitions and {} rows from the default partition (cutoff {})",
+                    dropped, purged, cutoffDay);
+        } else {
+            Integer deleted = transactionTemplate.execute(status -> logEntryRepository.deleteByTimestampBefore(cutoff));
+            log.info("Retention deleted {} log entries older than {}", deleted, cutoffDay);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> logStatsRollupService.deleteBefore(cutoff));
+        logChangeTracker.markAllChanged();
+    }
+
+    /**
+     * Ensures daily partitions exist from the retention cutoff up to the premake horizon
+     */
+    void createPartitions() {
+        LocalDate today = LocalDate.now();
+        LocalDate first = retentionDays > 0 ? today.minusDays(retentionDays) : today;
+        LocalDate last = today.plusDays(premakeDays);
+        List<String> existing = listPartitions();
+
+        for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+            String partition = PARTITION_PREFIX + day.format(PARTITION_SUFFIX);
+            if (existing.contains(partition)) {
+                continue;
+            }
+            try {
+                createPartition(partition, day);
+            } catch (Exception e) {
+                log.warn("Could not create partition {}: {}", partition, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Creates a single partition, moving any rows for its range out of the default partition first
+     */
+    private void createPartition(String partition, LocalDate day) {
+        String from = day.atStartOfDay().format(BOUND_FORMAT);
+        String to = day.plusDays(1).atStartOfDay().format(BOUND_FORMAT);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("CREATE TABLE " + partition + " (LIKE " + TABLE
+                    + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION
+                    + " WHERE timestamp >= ?::timestamp AND timestamp < ?::timestamp RETURNING *) "
+                    + "INSERT INTO " + partition + " SELECT * FROM moved", from, to);
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + partition
+                    + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+            if (moved > 0) {
+                log.info("Moved {} rows from the default partition into {}", moved, partition);
+            }
+        });
+        log.debug("Created partition {}", partition);
+    }
+
+    /**
+     * Converts a plain log_entries table into a partitioned one, copying existing rows
+     */
+    private void convertToPartitioned() {
+        Boolean exists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, TABLE);
+        if (!Boolean.TRUE.equals(exists)) {
+            log.warn("Table {} does not exist yet, skipping partition conversion", TABLE);
+            return;
+        }
+
+        log.info("Converting {} into a range-partitioned table", TABLE);
+        transactionTemplate.executeWithoutResult(status -> {
+            Long nextId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM " + TABLE, Long.class);
+
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " RENAME TO " + TABLE + "_legacy");
+            jdbcTemplate.execute("CREATE TABLE " + TABLE + " (LIKE " + TABLE + "_legacy"
+                    + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)"
+                    + " PARTITION BY RANGE (timestamp)");
+            // Identity columns are not supported on partitioned tables before PostgreSQL 17
+            jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + ID_SEQUENCE + " START WITH " + nextId);
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " ALTER COLUMN id SET DEFAULT nextval('" + ID_SEQUENCE + "')");
+            jdbcTemplate.execute("ALTER SEQUENCE " + ID_SEQUENCE + " OWNED BY " + TABLE + ".id");
+            // The partition key must be part of the primary key
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD PRIMARY KEY (id, timestamp)");
+            jdbcTemplate.execute("ALTER TABLE " + TABLE
+                    + " ADD CONSTRAINT fk_log_entries_user FOREIGN KEY (user_id) REFERENCES users (id)");
+            jdbcTemplate.execute("CREATE TABLE " + DEFAULT_PARTITION + " PARTITION OF " + TABLE + " DEFAULT");
+
+            jdbcTemplate.execute("INSERT INTO " + TABLE + " SELECT * FROM " + TABLE + "_legacy");
+            jdbcTemplate.execute("DROP TABLE " + TABLE + "_legacy");
+
+            jdbcTemplate.execute("CREATE INDEX idx_log_entries_user_id ON " + TABLE + " (user_id)");
+            jdbcTemplate.execute("CREATE INDEX idx_log_entries_is_anomaly ON " + TABLE + " (is_anomaly)");
+            jdbcTemplate.execute("CREATE INDEX idx_log_entries_timestamp ON " + TABLE + " (timestamp)");
+            jdbcTemplate.execute("CREATE INDEX idx_log_entries_user_ts_id ON " + TABLE + " (user_id, timestamp, id)");
+            jdbcTemplate.execute("CREATE INDEX idx_log_entries_user_anomaly_ts_id ON " + TABLE
+                    + " (user_id, is_anomaly, timestamp, id)");
+            jdbcTemplate.execute(LogSearchService.CREATE_INDEX_SQL);
+        });
+        log.info("Converted {} into a partitioned table", TABLE);
+    }
+
+    private boolean isPartitioned() {
+        Boolean partitioned = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(?))",
+                Boolean.class, TABLE);
+        return Boolean.TRUE.equals(partitioned);
+    }
+
+    private List<String> listPartitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "WHERE i.inhparent = to_regclass(?)", String.class, TABLE);
+    }
+
+    private static LocalDate partitionDay(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.dinidu.loglens.service;
 
 
+import com.dinidu.loglens.dto.AnomalyEvent;
+import com.dinidu.loglens.dto.AnomalySummary;
+import com.dinidu.loglens.dto.JobProgressEvent;
 import com.dinidu.loglens.dto.LogProcessingResult;
 import com.dinidu.loglens.dto.LogProcessingStats;
 import com.dinidu.loglens.exception.LogProcessingException;
+import com.dinidu.loglens.model.IngestionRule;
 import com.dinidu.loglens.model.LogEntry;
 import com.dinidu.loglens.model.User;
 import com.dinidu.loglens.repository.LogEntryRepository;
@@ -21,8 +25,6 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -35,6 +37,15 @@ public class LogProcessingService {
     private final AIService aiService;
     private final LogEntryRepository logEntryRepository;
     private final AnomalyDetectionService anomalyDetectionService;
+    private final BurstDetectionService burstDetectionService;
+    private final LogStatsRollupService logStatsRollupService;
+    private final LogChangeTracker logChangeTracker;
+    private final LogStreamService logStreamService;
+    private final FairWorkScheduler fairWorkScheduler;
+    private final IngestQuotaService ingestQuotaService;
+    private final IngestionRuleService ingestionRuleService;
+    private final EmbeddingService embeddingService;
+    private final ProcessingMetrics processingMetrics;
 
     @Value("${log.processing.anomaly-threshold:0.2}")
     private double anomalyThreshold;
@@ -45,7 +56,21 @@ public class LogProcessingService {
     @Value("${log.processing.max-similar-logs:5}")
     private int maxSimilarLogs;
 
-    private final ExecutorService executorService = Executors.newFixedThreadPool(4);
+    @Value("${log.upload.max-anomalies-in-response:1000}")
+    private int maxAnomaliesInResponse;
+
+    @Value("${log.processing.priority-ordering:true}")
+    private boolean priorityOrdering;
+
+    @Value("${log.processing.rare-template-max-count:3}")
+    private int rareTemplateMaxCount;
+
+    private static final Set<String> ERROR_LEVELS = Set.of(
+            "FATAL", "ERROR", "ERR", "CRITICAL", "CRIT", "SEVERE", "ALERT", "EMERG", "EMERGENCY");
+    private static final Set<String> WARN_LEVELS = Set.of("WARN", "WARNING");
+    private static final int LANE_ERROR = 0;
+    private static final int LANE_WARN_OR_RARE = 1;
+    private static final int LANE_NORMAL = 2;
 
     // Common log patterns
     private static final List<Pattern> LOG_PATTERNS = Arrays.asList(
@@ -69,42 +94,153 @@ public class LogProcessingService {
 
         validateFile(file);
 
-        LogProcessingStats stats = LogProcessingStats.builder()
-                .fileName(file.getOriginalFilename())
-                .fileSize(file.getSize())
-                .startTime(LocalDateTime.now())
-                .build();
-
-        List<LogEntry> processedEntries = new ArrayList<>();
-        List<CompletableFuture<LogEntry>> futures = new ArrayList<>();
+        LogProcessingStats stats = newStats(file.getOriginalFilename(), file.getSize(), UUID.randomUUID().toString());
 
+        List<String> logLines;
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
-            List<String> logLines = reader.lines()
+            logLines = reader.lines()
                     .filter(line -> !line.trim().isEmpty())
                     .collect(Collectors.toList());
+        } catch (Exception e) {
+            return failedResult(user, stats, e);
+        }
+
+        ingestQuotaService.acquire(user, logLines.size());
+        return processLines(logLines, user, stats);
+    }
+
+    /**
+     * Processes a micro-batch of log lines received from a continuous ingestion source
+     *
+     * @param source name of the ingestion source, reported as the file name in the stats
+     */
+    @Transactional
+    public LogProcessingResult processLines(List<String> lines, User user, String source) {
+        return processLines(lines, user, source, UUID.randomUUID().toString());
+    }
 
+    /**
+     * Processes lines as part of an existing job, whose id is stamped on the stored entries
+     *
+     * @param source name of the ingestion source, reported as the file name in the stats
+     */
+    @Transactional
+    public LogProcessingResult processLines(List<String> lines, User user, String source, String jobId) {
+        List<String> logLines = lines.stream()
+                .filter(line -> line != null && !line.trim().isEmpty())
+                .collect(Collectors.toList());
+        long size = logLines.stream().mapToLong(String::length).sum();
+
+        return processLines(logLines, user, newStats(source, size, jobId));
+    }
+
+    private LogProcessingResult processLines(List<String> logLines, User user, LogProcessingStats stats) {
+        long jobStart = System.nanoTime();
+        StageProfile profile = new StageProfile();
+        try {
             stats.setTotalLines(logLines.size());
             log.info("Processing {} log lines", logLines.size());
 
+            // Parsing and burst detection need no AI calls and depend on line order, so they run up front in file order
+            LogEntry[] entries = new LogEntry[logLines.size()];
+            List<PendingLine> pendingLines = new ArrayList<>(logLines.size());
+            IngestionRuleSet rules = ingestionRuleService.rulesFor(user);
+            int burstLines = 0;
+            int droppedLines = 0;
+            int storedOnlyLines = 0;
+            // One parse event per batch, so a slow stretch of a large upload shows up on its own
+            for (int chunkStart = 0; chunkStart < logLines.size(); chunkStart += batchSize) {
+                int chunkEnd = Math.min(chunkStart + batchSize, logLines.size());
+                int chunkBurstLines = burstLines;
+                PipelineEvents.ParseChunkEvent parseEvent = new PipelineEvents.ParseChunkEvent();
+                parseEvent.begin();
+                for (int i = chunkStart; i < chunkEnd; i++) {
+                    try {
+                        String logLine = logLines.get(i);
+                        ParsedLogEntry parsed = processingMetrics.time(
+                                ProcessingMetrics.STAGE_PARSE, profile, () -> parseLogLine(logLine));
+
+                        // Ingestion rules run before burst detection and embedding, so filtered lines cost no AI calls
+                        IngestionRuleSet.CompiledRule rule = rules.evaluate(parsed.getLevel(), parsed.getMessage(), stats.getFileName());
+                        if (rule != null) {
+                            ingestionRuleService.recordHit(rule);
+                            if (rule.getAction() == IngestionRule.Action.DROP) {
+                                droppedLines++;
+                                continue;
+                            }
+                            if (rule.getAction() == IngestionRule.Action.STORE_ONLY) {
+                                entries[i] = createStoredEntry(parsed, user);
+                                storedOnlyLines++;
+                                continue;
+                            }
+                        }
+
+                        BurstDetectionService.BurstObservation burst =
+                                burstDetectionService.observe(user, parsed.getMessage(), parsed.getTimestamp());
+                        if (burst.isSpike()) {
+                            entries[i] = createBurstEntry(parsed, burst, user);
+                            burstLines++;
+                            if (entries[i].getIsAnomaly()) {
+                                publishAnomaly(user, stats.getJobId(), entries[i]);
+                            }
+                        } else {
+                            pendingLines.add(new PendingLine(i, parsed));
+                        }
+                    } catch (Exception e) {
+                        log.error("Error parsing log line '{}': {}", logLines.get(i), e.getMessage());
+                    }
+                }
+                parseEvent.end();
+                if (parseEvent.shouldCommit()) {
+                    parseEvent.jobId = stats.getJobId();
+                    parseEvent.source = stats.getFileName();
+                    parseEvent.firstLine = chunkStart;
+                    parseEvent.lines = chunkEnd - chunkStart;
+                    parseEvent.burstLines = burstLines - chunkBurstLines;
+                    parseEvent.commit();
+                }
+            }
+
+            // Lines likely to be anomalous go first so their results surface early on large inputs
+            if (priorityOrdering) {
+                prioritize(pendingLines);
+            }
+
+            stats.setDroppedLines(droppedLines);
+            stats.setStoredOnlyLines(storedOnlyLines);
+            // Only lines that already have an entry count; dropped and unparseable lines never do
+            int processedCount = burstLines + storedOnlyLines;
+            int anomalyCount = (int) Arrays.stream(entries).filter(e -> e != null && e.getIsAnomaly()).count();
+
+            int screenedLines = 0;
+            if (!pendingLines.isEmpty()) {
+                embeddingService.pinProvider(user);
+            }
+
             // Process logs in batches to avoid overwhelming the AI service
-            List<List<String>> batches = createBatches(logLines, batchSize);
+            List<List<PendingLine>> batches = createBatches(pendingLines, batchSize);
 
-            for (List<String> batch : batches) {
+            for (List<PendingLine> batch : batches) {
                 List<CompletableFuture<LogEntry>> batchFutures = batch.stream()
-                        .map(logLine -> processLogLineAsync(logLine, user))
+                        .map(line -> processLogLineAsync(line, user, stats.getJobId(), profile))
                         .collect(Collectors.toList());
 
-                futures.addAll(batchFutures);
-
                 // Wait for batch to complete before starting next batch
                 CompletableFuture.allOf(batchFutures.toArray(new CompletableFuture[0])).join();
 
                 // Collect completed entries
-                for (CompletableFuture<LogEntry> future : batchFutures) {
+                for (int i = 0; i < batch.size(); i++) {
                     try {
-                        LogEntry entry = future.get();
+                        LogEntry entry = batchFutures.get(i).get();
                         if (entry != null) {
-                            processedEntries.add(entry);
+                            entries[batch.get(i).index] = entry;
+                            processedCount++;
+                            if (entry.getEmbedding() == null) {
+                                screenedLines++;
+                            }
+                            if (entry.getIsAnomaly()) {
+                                anomalyCount++;
+                            }
                         }
                     } catch (Exception e) {
                         log.error("Error processing log entry: {}", e.getMessage());
@@ -112,65 +248,152 @@ public class LogProcessingService {
                     }
                 }
 
-                log.info("Processed batch of {} entries. Total processed: {}",
-                        batch.size(), processedEntries.size());
+                log.info("Processed batch of {} entries. Total processed: {}", batch.size(), processedCount);
+
+                stats.setProcessedLines(processedCount);
+                stats.setAnomaliesDetected(anomalyCount);
+                publishProgress(user, stats, false);
             }
 
+            stats.setScreenedLines(screenedLines);
+
+            // Entries are saved in file order regardless of processing order
+            List<LogEntry> processedEntries = Arrays.stream(entries)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+            processedEntries.forEach(entry -> entry.setJobId(stats.getJobId()));
+
             // Save all processed entries
-            List<LogEntry> savedEntries = logEntryRepository.saveAll(processedEntries);
+            PipelineEvents.BatchPersistEvent persistEvent = new PipelineEvents.BatchPersistEvent();
+            persistEvent.begin();
+            List<LogEntry> savedEntries = processingMetrics.time(ProcessingMetrics.STAGE_PERSIST, profile, () -> {
+                List<LogEntry> saved = logEntryRepository.saveAll(processedEntries);
+                logStatsRollupService.recordEntries(user, saved);
+                return saved;
+            });
+            persistEvent.end();
+            if (persistEvent.shouldCommit()) {
+                persistEvent.jobId = stats.getJobId();
+                persistEvent.rows = savedEntries.size();
+                persistEvent.commit();
+            }
+            processingMetrics.recordPersisted(savedEntries.size());
+            logChangeTracker.markChanged(user.getId());
 
             // Update statistics
             stats.setProcessedLines(savedEntries.size());
             stats.setAnomaliesDetected((int) savedEntries.stream().filter(LogEntry::getIsAnomaly).count());
             stats.setEndTime(LocalDateTime.now());
+            stats.setStageLatencies(profile.snapshot());
+            publishProgress(user, stats, true);
+            processingMetrics.recordJob(jobStart, stats.getProcessedLines(),
+                    stats.getTotalLines() - stats.getProcessedLines() - stats.getDroppedLines(),
+                    stats.getDroppedLines(), stats.getAnomaliesDetected());
 
             log.info("Log processing completed. Processed: {}, Anomalies: {}",
                     stats.getProcessedLines(), stats.getAnomaliesDetected());
 
+            List<AnomalySummary> anomalies = savedEntries.stream()
+                    .filter(LogEntry::getIsAnomaly)
+                    .limit(maxAnomaliesInResponse)
+                    .map(AnomalySummary::fromEntry)
+                    .collect(Collectors.toList());
+
             return LogProcessingResult.builder()
                     .stats(stats)
-                    .logEntries(savedEntries)
+                    .anomalies(anomalies)
+                    .anomaliesTruncated(anomalies.size() < stats.getAnomaliesDetected())
                     .success(true)
                     .build();
 
         } catch (Exception e) {
-            log.error("Error processing log file: {}", e.getMessage(), e);
-            stats.setEndTime(LocalDateTime.now());
-            stats.setErrorMessage(e.getMessage());
+            stats.setStageLatencies(profile.snapshot());
+            return failedResult(user, stats, e);
+        }
+    }
 
-            return LogProcessingResult.builder()
-                    .stats(stats)
-                    .success(false)
-                    .errorMessage(e.getMessage())
-                    .build();
+    private LogProcessingStats newStats(String fileName, long fileSize, String jobId) {
+        return LogProcessingStats.builder()
+                .jobId(jobId)
+                .fileName(fileName)
+                .fileSize(fileSize)
+                .startTime(LocalDateTime.now())
+                .build();
+    }
+
+    private LogProcessingResult failedResult(User user, LogProcessingStats stats, Exception e) {
+        log.error("Error processing log file: {}", e.getMessage(), e);
+        stats.setEndTime(LocalDateTime.now());
+        stats.setErrorMessage(e.getMessage());
+        publishProgress(user, stats, true);
+
+        return LogProcessingResult.builder()
+                .stats(stats)
+                .success(false)
+                .errorMessage(e.getMessage())
+                .build();
+    }
+
+    /**
+     * Orders pending lines by lane: error levels first, then warnings and lines whose template is rare
+     * in this batch, then everything else. The sort is stable, so file order is kept within a lane.
+     */
+    private void prioritize(List<PendingLine> pendingLines) {
+        Map<String, Integer> templateCounts = new HashMap<>();
+        for (PendingLine line : pendingLines) {
+            line.template = LogTemplateExtractor.extract(line.parsed.getMessage());
+            templateCounts.merge(line.template, 1, Integer::sum);
+        }
+
+        for (PendingLine line : pendingLines) {
+            String level = line.parsed.getLevel();
+            if (ERROR_LEVELS.contains(level)) {
+                line.lane = LANE_ERROR;
+            } else if (WARN_LEVELS.contains(level) || templateCounts.get(line.template) <= rareTemplateMaxCount) {
+                line.lane = LANE_WARN_OR_RARE;
+            }
         }
+
+        pendingLines.sort(Comparator.comparingInt(line -> line.lane));
     }
 
     /**
-     * Processes a single log line asynchronously
+     * Processes a single log line asynchronously on the user's fair share of the worker slots
      */
-    private CompletableFuture<LogEntry> processLogLineAsync(String logLine, User user) {
-        return CompletableFuture.supplyAsync(() -> {
+    private CompletableFuture<LogEntry> processLogLineAsync(PendingLine line, User user, String jobId,
+                                                            StageProfile profile) {
+        FairWorkScheduler.Lane lane = line.lane < LANE_NORMAL ? FairWorkScheduler.Lane.HIGH : FairWorkScheduler.Lane.NORMAL;
+        return fairWorkScheduler.submit(user, lane, () -> {
             try {
-                return processLogLine(logLine, user);
+                return processLogLine(line.parsed, user, jobId, profile);
             } catch (Exception e) {
-                log.error("Error processing log line '{}': {}", logLine, e.getMessage());
+                log.error("Error processing log line '{}': {}", line.parsed.getMessage(), e.getMessage());
                 return null;
             }
-        }, executorService);
+        });
     }
 
     /**
-     * Processes a single log line
+     * Embeds a parsed log line and runs anomaly detection on it
      */
-    private LogEntry processLogLine(String logLine, User user) {
-        log.debug("Processing log line: {}", logLine);
-
-        // Parse log entry
-        ParsedLogEntry parsed = parseLogLine(logLine);
+    private LogEntry processLogLine(ParsedLogEntry parsed, User user, String jobId, StageProfile profile) {
+        log.debug("Processing log line: {}", parsed.getMessage());
+
+        // Near-duplicates of lines already found normal are stored without calling the analysis provider
+        float[] screeningVector = null;
+        if (embeddingService.isScreeningEnabled(user)) {
+            screeningVector = processingMetrics.time(ProcessingMetrics.STAGE_SCREEN, profile, () -> {
+                float[] vector = embeddingService.screeningVector(parsed.getMessage());
+                return embeddingService.isKnownNormal(user, vector) ? null : vector;
+            });
+            if (screeningVector == null) {
+                return createStoredEntry(parsed, user);
+            }
+        }
 
         // Generate embedding
-        List<Float> embedding = aiService.generateEmbedding(parsed.getMessage());
+        List<Float> embedding = processingMetrics.time(ProcessingMetrics.STAGE_EMBED, profile,
+                () -> aiService.generateEmbedding(user, parsed.getMessage()));
 
         // Create initial log entry
         LogEntry logEntry = LogEntry.builder()
@@ -183,14 +406,18 @@ public class LogProcessingService {
                 .build();
 
         // Perform anomaly detection
-        boolean isAnomaly = anomalyDetectionService.detectAnomaly(embedding, user, anomalyThreshold);
+        boolean isAnomaly = processingMetrics.time(ProcessingMetrics.STAGE_DETECT, profile,
+                () -> anomalyDetectionService.detectAnomaly(embedding, user, anomalyThreshold));
         logEntry.setIsAnomaly(isAnomaly);
+        if (!isAnomaly && screeningVector != null) {
+            embeddingService.recordNormal(user, screeningVector);
+        }
 
         // Generate explanation if anomaly detected
         if (isAnomaly) {
             try {
-                List<String> similarLogs = findSimilarLogs(embedding, user);
-                String explanation = aiService.getExplanation(parsed.getMessage(), similarLogs);
+                String explanation = processingMetrics.time(ProcessingMetrics.STAGE_EXPLAIN, profile, () ->
+                        aiService.getExplanation(parsed.getMessage(), findSimilarLogs(embedding, user)));
                 logEntry.setExplanation(explanation);
 
                 // Calculate similarity score for the most similar log
@@ -203,15 +430,114 @@ public class LogProcessingService {
                 log.warn("Failed to generate explanation for anomaly: {}", e.getMessage());
                 logEntry.setExplanation("Anomaly detected but explanation generation failed: " + e.getMessage());
             }
+            publishAnomaly(user, jobId, logEntry);
         }
 
         return logEntry;
     }
 
+    /**
+     * Embeds and scores parsed lines without explaining, publishing or persisting them.
+     * Lines run on the user's fair share of the worker slots in batches; a line that fails is reported as null.
+     */
+    Boolean[] detectOnly(List<ParsedLogEntry> lines, User user, StageProfile profile) {
+        Boolean[] anomalous = new Boolean[lines.size()];
+        for (int start = 0; start < lines.size(); start += batchSize) {
+            int end = Math.min(start + batchSize, lines.size());
+            List<CompletableFuture<Boolean>> futures = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                ParsedLogEntry parsed = lines.get(i);
+                futures.add(fairWorkScheduler.submit(user, () -> {
+                    try {
+                        List<Float> embedding = processingMetrics.time(ProcessingMetrics.STAGE_EMBED, profile,
+                                () -> aiService.generateEmbedding(user, parsed.getMessage()));
+                        return processingMetrics.time(ProcessingMetrics.STAGE_DETECT, profile,
+                                () -> anomalyDetectionService.detectAnomaly(embedding, user, anomalyThreshold));
+                    } catch (Exception e) {
+                        log.debug("Error scoring sampled log line '{}': {}", parsed.getMessage(), e.getMessage());
+                        return null;
+                    }
+                }));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+            for (int i = start; i < end; i++) {
+                anomalous[i] = futures.get(i - start).join();
+            }
+        }
+        return anomalous;
+    }
+
+    /**
+     * Creates a log entry for a line belonging to a rate spike. Only the first line of a spike is
+     * flagged as an anomaly; repeats are stored without an embedding to avoid paying for copies.
+     */
+    private LogEntry createBurstEntry(ParsedLogEntry parsed, BurstDetectionService.BurstObservation burst, User user) {
+        boolean onset = burst.getSignal() == BurstDetectionService.BurstSignal.ONSET;
+
+        LogEntry logEntry = LogEntry.builder()
+                .timestamp(parsed.getTimestamp())
+                .logMessage(parsed.getMessage())
+                .logLevel(parsed.getLevel())
+                .user(user)
+                .isAnomaly(onset)
+                .build();
+
+        if (onset) {
+            logEntry.setExplanation(String.format(
+                    "Rate spike: this message pattern occurred %d times within %d seconds (baseline %.1f)",
+                    burst.getCount(), burstDetectionService.getBucketSeconds(), burst.getBaseline()));
+        }
+
+        return logEntry;
+    }
+
+    /**
+     * Creates a log entry for a line that is stored without analysis (an ingestion rule's store-only action or
+     * a screened-out near-duplicate): no embedding, never an anomaly
+     */
+    private LogEntry createStoredEntry(ParsedLogEntry parsed, User user) {
+        return LogEntry.builder()
+                .timestamp(parsed.getTimestamp())
+                .logMessage(parsed.getMessage())
+                .logLevel(parsed.getLevel())
+                .user(user)
+                .isAnomaly(false)
+                .build();
+    }
+
+    /**
+     * Pushes a detected anomaly to the user's live stream subscribers
+     */
+    private void publishAnomaly(User user, String jobId, LogEntry logEntry) {
+        logStreamService.publishAnomaly(user, AnomalyEvent.builder()
+                .jobId(jobId)
+                .timestamp(logEntry.getTimestamp())
+                .logLevel(logEntry.getLogLevel())
+                .logMessage(logEntry.getLogMessage())
+                .explanation(logEntry.getExplanation())
+                .similarityScore(logEntry.getSimilarityScore())
+                .detectedAt(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Pushes job progress to the user's live stream subscribers
+     */
+    private void publishProgress(User user, LogProcessingStats stats, boolean completed) {
+        logStreamService.publishProgress(user, JobProgressEvent.builder()
+                .jobId(stats.getJobId())
+                .fileName(stats.getFileName())
+                .totalLines(stats.getTotalLines())
+                .processedLines(stats.getProcessedLines())
+                .anomaliesDetected(stats.getAnomaliesDetected())
+                .completed(completed)
+                .build());
+    }
+
     /**
      * Parses a log line to extract timestamp, level, and message
      */
-    private ParsedLogEntry parseLogLine(String logLine) {
+    ParsedLogEntry parseLogLine(String logLine) {
         for (Pattern pattern : LOG_PATTERNS) {
             Matcher matcher = pattern.matcher(logLine.trim());
             if (matcher.matches()) {
@@ -240,7 +566,7 @@ public class LogProcessingService {
     /**
      * Parses timestamp from various formats
      */
-    private LocalDateTime parseTimestamp(String timestampStr) {
+    LocalDateTime parseTimestamp(String timestampStr) {
         List<DateTimeFormatter> formatters = Arrays.asList(
                 DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"),
                 DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'"),
@@ -276,8 +602,17 @@ public class LogProcessingService {
             // Convert embedding to string for native query
             String embeddingStr = embedding.toString();
 
+            PipelineEvents.KnnQueryEvent event = new PipelineEvents.KnnQueryEvent();
+            event.begin();
             List<LogEntry> similarEntries = logEntryRepository.findSimilarLogEntries(
                     user.getId(), embeddingStr, maxSimilarLogs);
+            event.end();
+            if (event.shouldCommit()) {
+                event.userId = user.getId();
+                event.limit = maxSimilarLogs;
+                event.results = similarEntries.size();
+                event.commit();
+            }
 
             return similarEntries.stream()
                     .map(LogEntry::getLogMessage)
@@ -302,7 +637,7 @@ public class LogProcessingService {
     /**
      * Validates uploaded file
      */
-    private void validateFile(MultipartFile file) {
+    public void validateFile(MultipartFile file) {
         if (file.isEmpty()) {
             throw new LogProcessingException("Uploaded file is empty");
         }
@@ -318,10 +653,25 @@ public class LogProcessingService {
         }
     }
 
+    /**
+     * A parsed line waiting for embedding and detection, with its position in the input
+     */
+    private static class PendingLine {
+        private final int index;
+        private final ParsedLogEntry parsed;
+        private String template;
+        private int lane = LANE_NORMAL;
+
+        PendingLine(int index, ParsedLogEntry parsed) {
+            this.index = index;
+            this.parsed = parsed;
+        }
+    }
+
     /**
      * Helper class for parsed log entry
      */
-    private static class ParsedLogEntry {
+    static class ParsedLogEntry {
         private final LocalDateTime timestamp;
         private final String level;
         private final String message;
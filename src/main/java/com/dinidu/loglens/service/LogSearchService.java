@@ -0,0 +1,75 @@
+package com.dinidu.loglens.service;
+
+import com.dinidu.loglens.dto.LogSearchHit;
+import com.dinidu.loglens.model.User;
+import com.dinidu.loglens.repository.LogEntryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Full-text search over log messages using a PostgreSQL GIN index on the message tsvector.
+ * The index is an expression index, so it is maintained by the database at insert time.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LogSearchService {
+
+    public static final String CREATE_INDEX_SQL = "CREATE INDEX IF NOT EXISTS idx_log_entries_message_fts "
+            + "ON log_entries USING GIN (to_tsvector('simple', log_message))";
+
+    private static final Set<String> MODES = Set.of("websearch", "phrase", "plain");
+    private static final LocalDateTime MIN_TIMESTAMP = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_TIMESTAMP = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final int MAX_LIMIT = 200;
+
+    private final LogEntryRepository logEntryRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndex() {
+        try {
+            jdbcTemplate.execute(CREATE_INDEX_SQL);
+        } catch (Exception e) {
+            log.warn("Could not create full-text index on log_entries: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Searches a user's log messages ranked by relevance
+     *
+     * @param mode "websearch" (terms, "quoted phrases", OR, -exclusions), "phrase" or "plain"
+     */
+    @Transactional(readOnly = true)
+    public List<LogSearchHit> search(User user, String query, String mode, String level,
+                                     LocalDateTime from, LocalDateTime to, int limit) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new IllegalArgumentException("Search query cannot be empty");
+        }
+        String searchMode = mode != null ? mode.toLowerCase() : "websearch";
+        if (!MODES.contains(searchMode)) {
+            throw new IllegalArgumentException("Unsupported search mode: " + mode);
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        return logEntryRepository.searchByText(
+                user.getId(),
+                query.trim(),
+                searchMode,
+                level != null ? level.toUpperCase() : "",
+                from != null ? from : MIN_TIMESTAMP,
+                to != null ? to : MAX_TIMESTAMP,
+                limit);
+    }
+}
@@ -0,0 +1,160 @@
+package com.dinidu.loglens.service;
+
+import com.dinidu.loglens.dto.LogStatsBucket;
+import com.dinidu.loglens.model.LogEntry;
+import com.dinidu.loglens.model.LogStatsRollup;
+import com.dinidu.loglens.model.User;
+import com.dinidu.loglens.repository.LogStatsRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+
+/**
+ * Maintains hourly per-level rollups of log counts so that statistics are served from
+ * the rollup table instead of counting log entries.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LogStatsRollupService {
+
+    private static final String UNKNOWN_LEVEL = "UNKNOWN";
+
+    private final LogStatsRollupRepository rollupRepository;
+
+    /**
+     * Adds newly persisted entries to the rollups
+     */
+    @Transactional
+    public void recordEntries(User user, Collection<LogEntry> entries) {
+        aggregate(entries).forEach((level, buckets) -> buckets.forEach((bucketStart, counts) ->
+                rollupRepository.upsertCounts(user.getId(), level, bucketStart, counts[0], counts[1])));
+    }
+
+    /**
+     * Removes deleted entries from the rollups
+     */
+    @Transactional
+    public void recordDeletions(User user, Collection<LogEntry> entries) {
+        // Only existing buckets are decremented; a missing bucket has nothing to subtract from
+        aggregate(entries).forEach((level, buckets) -> buckets.forEach((bucketStart, counts) ->
+                rollupRepository.subtractCounts(user.getId(), level, bucketStart, counts[0], counts[1])));
+    }
+
+    /**
+     * Drops all rollups for a user, used when all of their logs are purged
+     */
+    @Transactional
+    public void deleteAll(User user) {
+        rollupRepository.deleteByUserId(user.getId());
+    }
+
+    /**
+     * Drops rollup buckets that start before the retention cutoff
+     */
+    @Transactional
+    public int deleteBefore(LocalDateTime cutoff) {
+        return rollupRepository.deleteByBucketStartBefore(cutoff);
+    }
+
+    /**
+     * Recomputes a user's rollups from the log entries table
+     */
+    @Transactional
+    public int rebuild(User user) {
+        rollupRepository.deleteByUserId(user.getId());
+        int rows = rollupRepository.rebuildForUser(user.getId());
+        log.info("Rebuilt {} stats rollup rows for user {}", rows, user.getId());
+        return rows;
+    }
+
+    @Transactional(readOnly = true)
+    public long getTotalLogs(User user) {
+        return rollupRepository.sumTotalCountByUserId(user.getId());
+    }
+
+    @Transactional(readOnly = true)
+    public long getTotalAnomalies(User user) {
+        return rollupRepository.sumAnomalyCountByUserId(user.getId());
+    }
+
+    /**
+     * Returns counts per time bucket between two instants, optionally restricted to one log level
+     *
+     * @param interval "hour", "day" or "week"
+     */
+    @Transactional(readOnly = true)
+    public List<LogStatsBucket> getSeries(User user, LocalDateTime from, LocalDateTime to,
+                                          String level, String interval) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        from = truncate(from, interval);
+
+        List<LogStatsRollup> rollups = rollupRepository.findByUserIdAndBucketStartBetweenOrderByBucketStart(
+                user.getId(), bucketStart(from), to);
+
+        Map<LocalDateTime, LogStatsBucket> series = new TreeMap<>();
+        for (LogStatsRollup rollup : rollups) {
+            if (level != null && !level.equalsIgnoreCase(rollup.getLogLevel())) {
+                continue;
+            }
+            LocalDateTime key = truncate(rollup.getBucketStart(), interval);
+            LogStatsBucket bucket = series.computeIfAbsent(key,
+                    k -> LogStatsBucket.builder().bucketStart(k).build());
+            bucket.setTotalLogs(bucket.getTotalLogs() + rollup.getTotalCount());
+            bucket.setTotalAnomalies(bucket.getTotalAnomalies() + rollup.getAnomalyCount());
+        }
+
+        return new ArrayList<>(series.values());
+    }
+
+    private static Map<String, Map<LocalDateTime, long[]>> aggregate(Collection<LogEntry> entries) {
+        // Aggregate in memory first so each (level, bucket) pair is written once
+        Map<String, Map<LocalDateTime, long[]>> counts = new HashMap<>();
+        if (entries == null) {
+            return counts;
+        }
+        for (LogEntry entry : entries) {
+            if (entry.getTimestamp() == null) {
+                continue;
+            }
+            String level = entry.getLogLevel() != null ? entry.getLogLevel() : UNKNOWN_LEVEL;
+            long[] bucket = counts.computeIfAbsent(level, l -> new HashMap<>())
+                    .computeIfAbsent(bucketStart(entry.getTimestamp()), b -> new long[2]);
+            bucket[0]++;
+            if (Boolean.TRUE.equals(entry.getIsAnomaly())) {
+                bucket[1]++;
+            }
+        }
+        return counts;
+    }
+
+    private static LocalDateTime bucketStart(LocalDateTime timestamp) {
+        return timestamp.truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private static LocalDateTime truncate(LocalDateTime bucketStart, String interval) {
+        if (interval == null) {
+            return bucketStart;
+        }
+        switch (interval.toLowerCase()) {
+            case "hour":
+                return bucketStart;
+            case "day":
+                return bucketStart.truncatedTo(ChronoUnit.DAYS);
+            case "week":
+                return bucketStart.truncatedTo(ChronoUnit.DAYS)
+                        .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            default:
+                throw new IllegalArgumentException("Unsupported interval: " + interval);
+        }
+    }
+}
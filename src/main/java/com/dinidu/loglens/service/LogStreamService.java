@@ -0,0 +1,294 @@
+package com.dinidu.loglens.service;
+
+import com.dinidu.loglens.dto.AnomalyEvent;
+import com.dinidu.loglens.dto.JobProgressEvent;
+import com.dinidu.loglens.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes anomalies and job progress to a user's live Server-Sent Events subscribers.
+ * <p>
+ * Publishing never blocks ingestion: each subscriber has a bounded buffer that drops its oldest
+ * anomalies when full, progress updates are coalesced to the latest one per job, and buffers are
+ * drained to the connection on a separate executor. Subscribers are told how many anomalies they missed.
+ * <p>
+ * A drain blocks while the client is not reading, so the executor gives every draining subscriber its own
+ * thread, up to the total subscriber limit, and one stalled connection cannot hold up the others. A subscriber
+ * whose send has not finished within the send timeout is dropped: it gets no more events and its connection
+ * is closed once the blocked write returns or fails.
+ */
+@Service
+@Slf4j
+public class LogStreamService {
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Executor executor;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final int maxSubscribersPerUser;
+    private final int maxSubscribers;
+    private final long sendTimeoutNanos;
+    private final AtomicLong slowSubscribers = new AtomicLong();
+
+    public LogStreamService(
+            @Qualifier("logStreamExecutor") Executor executor,
+            @Value("${log.stream.buffer-size:256}") int bufferSize,
+            @Value("${log.stream.timeout-ms:1800000}") long timeoutMillis,
+            @Value("${log.stream.max-subscribers-per-user:5}") int maxSubscribersPerUser,
+            @Value("${log.stream.max-subscribers:500}") int maxSubscribers,
+            @Value("${log.stream.send-timeout-ms:10000}") long sendTimeoutMillis) {
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+        this.maxSubscribersPerUser = maxSubscribersPerUser;
+        this.maxSubscribers = maxSubscribers;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+    }
+
+    /**
+     * Opens a new live stream for the user
+     */
+    public SseEmitter subscribe(User user) {
+        if (getSubscriberCount() >= maxSubscribers) {
+            throw new IllegalArgumentException("Too many open streams on this server, try again later");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(user.getId(), emitter);
+
+        Set<Subscriber> userSubscribers = subscribers.compute(user.getId(), (id, existing) -> {
+            Set<Subscriber> set = existing != null ? existing : new CopyOnWriteArraySet<>();
+            if (set.size() >= maxSubscribersPerUser) {
+                throw new IllegalArgumentException("Too many open streams, the limit is " + maxSubscribersPerUser);
+            }
+            set.add(subscriber);
+            return set;
+        });
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        log.debug("Opened live stream for user {} ({} open)", user.getId(), userSubscribers.size());
+        return emitter;
+    }
+
+    /**
+     * Queues an anomaly for every subscriber of the user
+     */
+    public void publishAnomaly(User user, AnomalyEvent event) {
+        Set<Subscriber> userSubscribers = subscribers.get(user.getId());
+        if (userSubscribers == null || userSubscribers.isEmpty()) {
+            return;
+        }
+        for (Subscriber subscriber : userSubscribers) {
+            subscriber.offerAnomaly(event, bufferSize);
+            schedule(subscriber);
+        }
+    }
+
+    /**
+     * Queues a progress update for every subscriber of the user, replacing any undelivered update for the same job
+     */
+    public void publishProgress(User user, JobProgressEvent event) {
+        Set<Subscriber> userSubscribers = subscribers.get(user.getId());
+        if (userSubscribers == null || userSubscribers.isEmpty()) {
+            return;
+        }
+        for (Subscriber subscriber : userSubscribers) {
+            subscriber.offerProgress(event);
+            schedule(subscriber);
+        }
+    }
+
+    /**
+     * Sends a comment to idle streams so proxies do not close them
+     */
+    @Scheduled(fixedDelayString = "${log.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Set<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                subscriber.requestHeartbeat();
+                schedule(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Drops subscribers whose current send has been blocked for longer than the send timeout
+     */
+    @Scheduled(fixedDelayString = "${log.stream.send-check-ms:1000}")
+    public void dropSlowSubscribers() {
+        long now = System.nanoTime();
+        for (Set<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                long started = subscriber.sendStartedAt;
+                if (started != 0 && now - started > sendTimeoutNanos) {
+                    // The emitter is locked by the blocked send, so the drain closes it when the write returns
+                    subscriber.closed = true;
+                    remove(subscriber);
+                    slowSubscribers.incrementAndGet();
+                    schedule(subscriber);
+                    log.warn("Dropped live stream of user {}: a send has been blocked for over {} ms",
+                            subscriber.userId, TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos));
+                }
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    public long getSlowSubscribers() {
+        return slowSubscribers.get();
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            // The buffer keeps the events; the next publish retries
+            subscriber.draining.set(false);
+        }
+    }
+
+    /**
+     * Sends everything buffered for a subscriber. Only one drain runs per subscriber at a time.
+     */
+    private void drain(Subscriber subscriber) {
+        try {
+            while (!subscriber.closed) {
+                Pending pending = subscriber.takePending();
+                if (pending.isEmpty()) {
+                    subscriber.draining.set(false);
+                    // Re-check in case an event arrived or the subscriber was dropped after the buffer was emptied
+                    if ((!subscriber.closed && !subscriber.hasPending())
+                            || !subscriber.draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                subscriber.sendStartedAt = System.nanoTime();
+                try {
+                    send(subscriber.emitter, pending);
+                } finally {
+                    subscriber.sendStartedAt = 0;
+                }
+            }
+            // Dropped: draining stays set so no further drain is started
+            subscriber.emitter.completeWithError(new IOException("Client did not read the stream in time"));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Closing live stream for user {}: {}", subscriber.userId, e.getMessage());
+            subscriber.draining.set(false);
+            remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        }
+    }
+
+    private void send(SseEmitter emitter, Pending pending) throws IOException {
+        if (pending.dropped > 0) {
+            Map<String, Object> dropped = new HashMap<>();
+            dropped.put("dropped", pending.dropped);
+            emitter.send(SseEmitter.event().name("dropped").data(dropped));
+        }
+        for (AnomalyEvent anomaly : pending.anomalies) {
+            emitter.send(SseEmitter.event().name("anomaly").data(anomaly));
+        }
+        for (JobProgressEvent progress : pending.progress) {
+            emitter.send(SseEmitter.event().name("progress").data(progress));
+        }
+        if (pending.heartbeat) {
+            emitter.send(SseEmitter.event().comment("ping"));
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+
+    private static final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile long sendStartedAt;
+        private volatile boolean closed;
+        private final ArrayDeque<AnomalyEvent> anomalies = new ArrayDeque<>();
+        private final LinkedHashMap<String, JobProgressEvent> progress = new LinkedHashMap<>();
+        private long dropped;
+        private boolean heartbeat;
+
+        private Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        synchronized void offerAnomaly(AnomalyEvent event, int capacity) {
+            if (anomalies.size() >= capacity) {
+                anomalies.pollFirst();
+                dropped++;
+            }
+            anomalies.addLast(event);
+        }
+
+        synchronized void offerProgress(JobProgressEvent event) {
+            progress.put(event.getJobId(), event);
+        }
+
+        synchronized void requestHeartbeat() {
+            heartbeat = true;
+        }
+
+        synchronized boolean hasPending() {
+            return dropped > 0 || heartbeat || !anomalies.isEmpty() || !progress.isEmpty();
+        }
+
+        synchronized Pending takePending() {
+            Pending pending = new Pending(dropped, new ArrayList<>(anomalies),
+                    new ArrayList<>(progress.values()), heartbeat && anomalies.isEmpty() && progress.isEmpty());
+            dropped = 0;
+            heartbeat = false;
+            anomalies.clear();
+            progress.clear();
+            return pending;
+        }
+    }
+
+    private static final class Pending {
+        private final long dropped;
+        private final List<AnomalyEvent> anomalies;
+        private final List<JobProgressEvent> progress;
+        private final boolean heartbeat;
+
+        private Pending(long dropped, List<AnomalyEvent> anomalies, List<JobProgressEvent> progress, boolean heartbeat) {
+            this.dropped = dropped;
+            this.anomalies = anomalies;
+            this.progress = progress;
+            this.heartbeat = heartbeat;
+        }
+
+        boolean isEmpty() {
+            return dropped == 0 && anomalies.isEmpty() && progress.isEmpty() && !heartbeat;
+        }
+    }
+}
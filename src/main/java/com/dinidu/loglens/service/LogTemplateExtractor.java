@@ -0,0 +1,73 @@
+package com.dinidu.loglens.service;
+
+/**
+ * Reduces a log message to its template by masking variable tokens (numbers, ids, hex values)
+ * so that "Request 1234 took 56ms" and "Request 98 took 7ms" share the same key.
+ */
+public final class LogTemplateExtractor {
+
+    public static final String WILDCARD = "<*>";
+
+    private static final int MAX_TOKENS = 64;
+
+    private LogTemplateExtractor() {
+    }
+
+    /**
+     * Extracts the template for a log message
+     */
+    public static String extract(String message) {
+        if (message == null || message.isEmpty()) {
+            return "";
+        }
+
+        StringBuilder template = new StringBuilder(Math.min(message.length(), 256));
+        int length = message.length();
+        int tokens = 0;
+        int i = 0;
+
+        while (i < length && tokens < MAX_TOKENS) {
+            // Skip whitespace between tokens
+            while (i < length && Character.isWhitespace(message.charAt(i))) {
+                i++;
+            }
+            if (i >= length) {
+                break;
+            }
+
+            int start = i;
+            while (i < length && !Character.isWhitespace(message.charAt(i))) {
+                i++;
+            }
+
+            if (tokens > 0) {
+                template.append(' ');
+            }
+            if (isVariable(message, start, i)) {
+                template.append(WILDCARD);
+            } else {
+                template.append(message, start, i);
+            }
+            tokens++;
+        }
+
+        return template.toString();
+    }
+
+    /**
+     * A token is considered variable if it contains a digit or is a long hexadecimal string
+     */
+    private static boolean isVariable(String message, int start, int end) {
+        boolean allHex = end - start >= 8;
+        for (int i = start; i < end; i++) {
+            char c = message.charAt(i);
+            if (c >= '0' && c <= '9') {
+                return true;
+            }
+            if (allHex && !((c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F') || c == '-')) {
+                allHex = false;
+            }
+        }
+        return allHex;
+    }
+}
@@ -0,0 +1,112 @@
+package com.dinidu.loglens.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Java Flight Recorder events emitted by the processing pipeline.
+ * <p>
+ * Events are only committed when they exceed their threshold, and fields are filled after
+ * {@code shouldCommit()}, so the cost on the fast path is a timestamp read and a field check.
+ * The class-level thresholds apply to recordings started with {@code jcmd JFR.start};
+ * recordings started through {@link JfrRecordingService} use the configured thresholds instead.
+ */
+public final class PipelineEvents {
+
+    public static final String PARSE_CHUNK = "com.dinidu.loglens.ParseChunk";
+    public static final String AI_REQUEST = "com.dinidu.loglens.AIRequest";
+    public static final String KNN_QUERY = "com.dinidu.loglens.KnnQuery";
+    public static final String BATCH_PERSIST = "com.dinidu.loglens.BatchPersist";
+
+    private PipelineEvents() {
+    }
+
+    @Name(PARSE_CHUNK)
+    @Label("Parse Chunk")
+    @Description("Parsing and burst detection of one batch of lines")
+    @Category({"LogLens", "Processing"})
+    @StackTrace(false)
+    @Threshold("20 ms")
+    public static class ParseChunkEvent extends Event {
+        @Label("Job Id")
+        public String jobId;
+
+        @Label("Source")
+        public String source;
+
+        @Label("First Line")
+        @Description("Index of the chunk's first line in the upload or batch")
+        public int firstLine;
+
+        @Label("Lines")
+        public int lines;
+
+        @Label("Burst Lines")
+        @Description("Lines absorbed by burst detection without an AI call")
+        public int burstLines;
+    }
+
+    @Name(AI_REQUEST)
+    @Label("AI Request")
+    @Description("HTTP call to the AI service")
+    @Category({"LogLens", "AI Service"})
+    @StackTrace(false)
+    @Threshold("200 ms")
+    public static class AIRequestEvent extends Event {
+        @Label("Endpoint")
+        public String endpoint;
+
+        @Label("Request Bytes")
+        @DataAmount
+        public long requestBytes;
+
+        @Label("Response Bytes")
+        @Description("Content-Length of the response, or -1 when unknown")
+        @DataAmount
+        public long responseBytes;
+
+        @Label("Status")
+        @Description("HTTP status, or -1 when no response was received")
+        public int status;
+
+        @Label("Retry Count")
+        public int retryCount;
+    }
+
+    @Name(KNN_QUERY)
+    @Label("kNN Query")
+    @Description("Nearest-neighbour lookup against stored embeddings")
+    @Category({"LogLens", "Database"})
+    @StackTrace(false)
+    @Threshold("50 ms")
+    public static class KnnQueryEvent extends Event {
+        @Label("User Id")
+        public long userId;
+
+        @Label("Limit")
+        public int limit;
+
+        @Label("Results")
+        public int results;
+    }
+
+    @Name(BATCH_PERSIST)
+    @Label("Batch Persist")
+    @Description("Saving a job's processed entries and their stats rollups")
+    @Category({"LogLens", "Database"})
+    @StackTrace(false)
+    @Threshold("100 ms")
+    public static class BatchPersistEvent extends Event {
+        @Label("Job Id")
+        public String jobId;
+
+        @Label("Rows")
+        public int rows;
+    }
+}
@@ -0,0 +1,130 @@
+package com.dinidu.loglens.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer meters of the processing pipeline: per-stage timers with percentile histograms,
+ * AI call latency, errors and retries, and line, anomaly and persisted-row counters.
+ */
+@Component
+public class ProcessingMetrics {
+
+    public static final String STAGE_PARSE = "parse";
+    public static final String STAGE_SCREEN = "screen";
+    public static final String STAGE_EMBED = "embed";
+    public static final String STAGE_DETECT = "detect";
+    public static final String STAGE_SIMILARITY = "similarity";
+    public static final String STAGE_EXPLAIN = "explain";
+    public static final String STAGE_PERSIST = "persist";
+
+    private static final Duration MIN_EXPECTED = Duration.ofNanos(1000);
+    private static final Duration MAX_EXPECTED = Duration.ofSeconds(60);
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> stageTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> aiTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> aiRetries = new ConcurrentHashMap<>();
+    private final Timer jobTimer;
+    private final Counter linesProcessed;
+    private final Counter linesFailed;
+    private final Counter linesDropped;
+    private final Counter anomaliesDetected;
+    private final Counter rowsPersisted;
+
+    public ProcessingMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.jobTimer = Timer.builder("loglens.processing.job")
+                .description("Duration of a whole processing job")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofHours(1))
+                .register(registry);
+        this.linesProcessed = Counter.builder("loglens.processing.lines")
+                .tag("outcome", "processed")
+                .register(registry);
+        this.linesFailed = Counter.builder("loglens.processing.lines")
+                .tag("outcome", "failed")
+                .register(registry);
+        this.linesDropped = Counter.builder("loglens.processing.lines")
+                .tag("outcome", "dropped")
+                .register(registry);
+        this.anomaliesDetected = Counter.builder("loglens.processing.anomalies")
+                .register(registry);
+        this.rowsPersisted = Counter.builder("loglens.persist.rows")
+                .description("Log entries written to the database")
+                .register(registry);
+    }
+
+    /**
+     * Timer of one pipeline stage
+     */
+    public Timer stage(String stage) {
+        return stageTimers.computeIfAbsent(stage, s -> Timer.builder("loglens.processing.stage")
+                .description("Time spent per line or batch in each pipeline stage")
+                .tag("stage", s)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(registry));
+    }
+
+    /**
+     * Runs one stage of a job, recording its duration in both the stage timer and the job's profile
+     */
+    public <T> T time(String stage, StageProfile profile, Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            long nanos = System.nanoTime() - start;
+            stage(stage).record(nanos, TimeUnit.NANOSECONDS);
+            profile.record(stage, nanos);
+        }
+    }
+
+    public void recordAiCall(String operation, long startNanos, boolean success) {
+        String outcome = success ? "success" : "error";
+        aiTimers.computeIfAbsent(operation + ":" + outcome, key -> Timer.builder("loglens.ai.call")
+                        .description("Calls to the AI service")
+                        .tag("operation", operation)
+                        .tag("outcome", outcome)
+                        .publishPercentileHistogram()
+                        .maximumExpectedValue(MAX_EXPECTED)
+                        .register(registry))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordAiRetries(String operation, int retries) {
+        if (retries <= 0) {
+            return;
+        }
+        aiRetries.computeIfAbsent(operation, op -> Counter.builder("loglens.ai.retries")
+                        .description("Retried calls to the AI service")
+                        .tag("operation", op)
+                        .register(registry))
+                .increment(retries);
+    }
+
+    /**
+     * Records a finished job; lines dropped by ingestion rules are counted apart from failed ones
+     */
+    public void recordJob(long startNanos, int processed, int failed, int dropped, int anomalies) {
+        jobTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        linesProcessed.increment(processed);
+        linesFailed.increment(failed);
+        linesDropped.increment(dropped);
+        anomaliesDetected.increment(anomalies);
+    }
+
+    public void recordPersisted(int rows) {
+        rowsPersisted.increment(rows);
+    }
+}
@@ -0,0 +1,109 @@
+package com.dinidu.loglens.service;
+
+import com.dinidu.loglens.dto.EmbeddingRequest;
+import com.dinidu.loglens.dto.EmbeddingResponse;
+import com.dinidu.loglens.exception.AIServiceException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.*;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+/**
+ * Embeddings from the Python AI microservice, with retries and AI call metrics.
+ * Only reached through {@link AIService#generateEmbedding}, which picks the user's provider.
+ */
+@Component
+@Slf4j
+public class RemoteEmbeddingProvider implements EmbeddingProvider {
+
+    public static final String NAME = "remote";
+
+    private final RestTemplate restTemplate;
+    private final ProcessingMetrics processingMetrics;
+
+    @Value("${ai.service.base-url:http://localhost:8001}")
+    private String aiServiceBaseUrl;
+
+    public RemoteEmbeddingProvider(@Qualifier("aiRestTemplate") RestTemplate restTemplate,
+                                   ProcessingMetrics processingMetrics) {
+        this.restTemplate = restTemplate;
+        this.processingMetrics = processingMetrics;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * Generates vector embedding for a log message using the Python AI microservice
+     *
+     * @param text The raw log message to generate embedding for
+     * @return List of Float values representing the vector embedding
+     * @throws AIServiceException if the AI service is unavailable or returns an error
+     */
+    @Override
+    @Retryable(
+            value = {ResourceAccessException.class, RestClientException.class},
+            maxAttempts = 3,
+            backoff = @Backoff(delay = 1000, multiplier = 2)
+    )
+    public List<Float> embed(String text) {
+        log.debug("Generating embedding for log message: {}", text);
+
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            String url = aiServiceBaseUrl + "/api/v1/embeddings";
+
+            // Create request payload
+            EmbeddingRequest request = EmbeddingRequest.builder()
+                    .logMessage(text.trim())
+                    .build();
+
+            // Set headers
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.add("User-Agent", "LogAnalysis-Backend/1.0");
+
+            HttpEntity<EmbeddingRequest> entity = new HttpEntity<>(request, headers);
+
+            // Make the request
+            ResponseEntity<EmbeddingResponse> response = restTemplate.exchange(
+                    url,
+                    HttpMethod.POST,
+                    entity,
+                    EmbeddingResponse.class
+            );
+
+            if (response.getStatusCode() != HttpStatus.OK) {
+                throw new AIServiceException("AI service returned status: " + response.getStatusCode());
+            }
+
+            EmbeddingResponse embeddingResponse = response.getBody();
+            if (embeddingResponse == null || embeddingResponse.getEmbedding() == null) {
+                throw new AIServiceException("AI service returned null or empty embedding");
+            }
+
+            List<Float> embedding = embeddingResponse.getEmbedding();
+            log.debug("Successfully generated embedding with {} dimensions", embedding.size());
+
+            success = true;
+            return embedding;
+
+        } catch (RestClientException e) {
+            log.error("Error calling AI service for embedding generation: {}", e.getMessage());
+            throw new AIServiceException("Failed to generate embedding: " + e.getMessage(), e);
+        } finally {
+            processingMetrics.recordAiCall("embedding", start, success);
+        }
+    }
+}
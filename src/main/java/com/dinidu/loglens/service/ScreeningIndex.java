@@ -0,0 +1,50 @@
+package com.dinidu.loglens.service;
+
+/**
+ * Fixed-size ring of normalized vectors of lines confirmed normal, used to recognise near-duplicates.
+ * Once full, the oldest vector is overwritten. Lookups are a linear scan of dot products, which for a
+ * few thousand small vectors is far cheaper than a remote embedding call. Thread-safe.
+ */
+public final class ScreeningIndex {
+
+    private final float[][] vectors;
+    private int size;
+    private int next;
+
+    public ScreeningIndex(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        this.vectors = new float[capacity][];
+    }
+
+    /**
+     * Returns true if a stored vector has at least the given cosine similarity to the normalized vector
+     */
+    public synchronized boolean containsSimilar(float[] vector, double minSimilarity) {
+        for (int i = 0; i < size; i++) {
+            float[] stored = vectors[i];
+            double dot = 0;
+            for (int d = 0; d < stored.length; d++) {
+                dot += stored[d] * vector[d];
+            }
+            if (dot >= minSimilarity) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stores a normalized vector; the index keeps the reference, so the caller must not reuse it
+     */
+    public synchronized void add(float[] vector) {
+        vectors[next] = vector;
+        next = (next + 1) % vectors.length;
+        size = Math.min(size + 1, vectors.length);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+}
@@ -0,0 +1,135 @@
+package com.dinidu.loglens.service;
+
+import com.dinidu.loglens.dto.LogSimilarityHit;
+import com.dinidu.loglens.model.User;
+import com.dinidu.loglens.repository.LogEntryRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Semantic search over a user's logs: the query is embedded by the user's embedding provider and matched
+ * against stored embeddings by cosine distance.
+ * <p>
+ * Query embeddings are cached by normalized text so repeated queries are not embedded again,
+ * and results are cached per user data version so they are reused until the user's logs change.
+ */
+@Service
+@Slf4j
+public class SemanticSearchService {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final AIService aiService;
+    private final EmbeddingService embeddingService;
+    private final LogEntryRepository logEntryRepository;
+    private final LogChangeTracker logChangeTracker;
+
+    private final Cache<String, List<Float>> queryEmbeddingCache;
+    private final Cache<String, List<LogSimilarityHit>> resultCache;
+    private final Cache<String, List<LogSimilarityHit>> similarEntryCache;
+
+    public SemanticSearchService(
+            AIService aiService,
+            EmbeddingService embeddingService,
+            LogEntryRepository logEntryRepository,
+            LogChangeTracker logChangeTracker,
+            @Value("${log.search.semantic.query-cache-size:10000}") long queryCacheSize,
+            @Value("${log.search.semantic.query-cache-ttl-minutes:60}") long queryCacheTtlMinutes,
+            @Value("${log.search.semantic.result-cache-size:1000}") long resultCacheSize,
+            @Value("${log.search.semantic.result-cache-ttl-seconds:60}") long resultCacheTtlSeconds,
+            @Value("${log.search.similar.cache-size:500}") long similarCacheSize,
+            @Value("${log.search.similar.cache-ttl-minutes:5}") long similarCacheTtlMinutes) {
+        this.aiService = aiService;
+        this.embeddingService = embeddingService;
+        this.logEntryRepository = logEntryRepository;
+        this.logChangeTracker = logChangeTracker;
+        this.queryEmbeddingCache = Caffeine.newBuilder()
+                .maximumSize(queryCacheSize)
+                .expireAfterWrite(Duration.ofMinutes(queryCacheTtlMinutes))
+                .recordStats()
+                .build();
+        this.resultCache = Caffeine.newBuilder()
+                .maximumSize(resultCacheSize)
+                .expireAfterWrite(Duration.ofSeconds(resultCacheTtlSeconds))
+                .recordStats()
+                .build();
+        this.similarEntryCache = Caffeine.newBuilder()
+                .maximumSize(similarCacheSize)
+                .expireAfterWrite(Duration.ofMinutes(similarCacheTtlMinutes))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the user's log entries closest in meaning to the query, best match first
+     */
+    @Transactional(readOnly = true)
+    public List<LogSimilarityHit> search(User user, String query, int limit) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new IllegalArgumentException("Search query cannot be empty");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        String normalizedQuery = query.trim().replaceAll("\\s+", " ");
+        String resultKey = user.getId() + ":" + logChangeTracker.version(user.getId()) + ":" + limit + ":" + normalizedQuery;
+
+        return resultCache.get(resultKey, key -> {
+            // Queries are embedded by the same provider as the user's stored logs
+            List<Float> embedding = queryEmbeddingCache.get(
+                    embeddingService.analysisProviderName(user) + ":" + normalizedQuery,
+                    k -> aiService.generateEmbedding(user, normalizedQuery));
+            log.debug("Running semantic search for user {} with limit {}", user.getId(), limit);
+            return List.copyOf(logEntryRepository.findNearestNeighbours(user.getId(), embedding.toString(), limit));
+        });
+    }
+
+    /**
+     * Returns the nearest neighbours of a stored log entry using its stored embedding.
+     * Unlike the baseline lookup used for anomaly detection, anomalous entries are included.
+     *
+     * @param level         only return entries of this level, or null for all levels
+     * @param windowMinutes only return entries within this many minutes of the entry, or 0 for no limit
+     */
+    @Transactional(readOnly = true)
+    public List<LogSimilarityHit> findSimilarToEntry(User user, Long entryId, String level, int windowMinutes, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (windowMinutes < 0) {
+            throw new IllegalArgumentException("Window must not be negative");
+        }
+
+        String levelFilter = level != null ? level.toUpperCase() : "";
+        String key = user.getId() + ":" + logChangeTracker.version(user.getId()) + ":" + entryId + ":"
+                + levelFilter + ":" + windowMinutes + ":" + limit;
+
+        return similarEntryCache.get(key, k -> {
+            if (!logEntryRepository.hasEmbedding(entryId, user.getId())) {
+                return List.of();
+            }
+            return List.copyOf(logEntryRepository.findNeighboursOfEntry(
+                    user.getId(), entryId, levelFilter, windowMinutes, limit));
+        });
+    }
+
+    public Cache<String, List<Float>> getQueryEmbeddingCache() {
+        return queryEmbeddingCache;
+    }
+
+    public Cache<String, List<LogSimilarityHit>> getResultCache() {
+        return resultCache;
+    }
+
+    public Cache<String, List<LogSimilarityHit>> getSimilarEntryCache() {
+        return similarEntryCache;
+    }
+}
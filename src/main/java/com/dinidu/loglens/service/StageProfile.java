@@ -0,0 +1,72 @@
+package com.dinidu.loglens.service;
+
+import com.dinidu.loglens.dto.StageLatency;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-job breakdown of time spent in each pipeline stage, recorded from the worker threads without locking
+ */
+public final class StageProfile {
+
+    static final List<String> STAGES = List.of(
+            ProcessingMetrics.STAGE_PARSE,
+            ProcessingMetrics.STAGE_SCREEN,
+            ProcessingMetrics.STAGE_EMBED,
+            ProcessingMetrics.STAGE_DETECT,
+            ProcessingMetrics.STAGE_EXPLAIN,
+            ProcessingMetrics.STAGE_PERSIST);
+
+    private final Map<String, Stage> stages = new LinkedHashMap<>();
+
+    public StageProfile() {
+        // The map is filled once here and only read afterwards, so concurrent lookups are safe
+        for (String stage : STAGES) {
+            stages.put(stage, new Stage());
+        }
+    }
+
+    public void record(String stage, long nanos) {
+        Stage target = stages.get(stage);
+        if (target != null) {
+            target.totalNanos.add(nanos);
+            target.histogram.record(nanos);
+        }
+    }
+
+    /**
+     * Returns the stages that were used, in pipeline order
+     */
+    public Map<String, StageLatency> snapshot() {
+        Map<String, StageLatency> snapshot = new LinkedHashMap<>();
+        stages.forEach((name, stage) -> {
+            long calls = stage.histogram.getCount();
+            if (calls == 0) {
+                return;
+            }
+            long totalNanos = stage.totalNanos.sum();
+            snapshot.put(name, StageLatency.builder()
+                    .calls(calls)
+                    .totalMs(millis(totalNanos))
+                    .meanMs(millis(totalNanos / calls))
+                    .p50Ms(millis(stage.histogram.percentile(50)))
+                    .p95Ms(millis(stage.histogram.percentile(95)))
+                    .p99Ms(millis(stage.histogram.percentile(99)))
+                    .maxMs(millis(stage.histogram.getMax()))
+                    .build());
+        });
+        return snapshot;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    private static final class Stage {
+        private final LongAdder totalNanos = new LongAdder();
+        private final LatencyHistogram histogram = new LatencyHistogram();
+    }
+}
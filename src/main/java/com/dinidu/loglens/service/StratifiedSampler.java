@@ -0,0 +1,304 @@
+package com.dinidu.loglens.service;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Single-pass stratified sampler: counts every item per stratum and keeps a uniform reservoir of each,
+ * then splits a sample budget across strata in proportion to their size.
+ * <p>
+ * Every stratum gets at least one sampled item while there are no more strata than the budget, so rare strata
+ * (an unusual template or level in a quiet time bucket) are always examined even when proportional allocation
+ * would round them to zero. The sample never exceeds the budget: callers should {@link #coarsen} the strata
+ * until they fit, otherwise only a size-weighted random selection of strata is sampled. Not thread-safe.
+ */
+public final class StratifiedSampler<T> {
+
+    private final int reservoirSize;
+    private final Random random;
+    private final Map<String, Stratum<T>> strata = new LinkedHashMap<>();
+    private long total;
+
+    public StratifiedSampler(int reservoirSize, long seed) {
+        if (reservoirSize < 1) {
+            throw new IllegalArgumentException("Reservoir size must be at least 1");
+        }
+        this.reservoirSize = reservoirSize;
+        this.random = new Random(seed);
+    }
+
+    public void offer(String stratum, T item) {
+        Stratum<T> s = strata.computeIfAbsent(stratum, k -> new Stratum<>());
+        s.population++;
+        total++;
+        if (s.reservoir.size() < reservoirSize) {
+            s.reservoir.add(item);
+        } else {
+            long slot = (long) (random.nextDouble() * s.population);
+            if (slot < reservoirSize) {
+                s.reservoir.set((int) slot, item);
+            }
+        }
+    }
+
+    public boolean contains(String stratum) {
+        return strata.containsKey(stratum);
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public int getStrataCount() {
+        return strata.size();
+    }
+
+    public long getPopulation(String stratum) {
+        Stratum<T> s = strata.get(stratum);
+        return s != null ? s.population : 0;
+    }
+
+    /**
+     * Merges strata that map to the same parent key. The merged reservoir is again a uniform sample of the
+     * merged population, so the strata can be coarsened at any point while items are still being offered.
+     */
+    public void coarsen(Function<String, String> parent) {
+        Map<String, Stratum<T>> merged = new LinkedHashMap<>();
+        strata.forEach((key, stratum) -> merged.merge(parent.apply(key), stratum, this::merge));
+        strata.clear();
+        strata.putAll(merged);
+    }
+
+    /**
+     * Draws up to {@code sampleSize} items, never more. While the strata fit in the budget, items are allocated
+     * proportionally to stratum size with at least one per stratum and at most what each reservoir holds, and
+     * budget a full stratum cannot use goes to the others. With more strata than budget, one item is drawn from
+     * each of {@code sampleSize} strata picked at random with probability growing with their size; the others
+     * map to an empty list.
+     */
+    public Map<String, List<T>> sample(int sampleSize) {
+        if (strata.size() > sampleSize) {
+            return sampleStrata(sampleSize);
+        }
+        Map<String, Integer> allocation = new LinkedHashMap<>();
+        int allocated = 0;
+        for (Map.Entry<String, Stratum<T>> entry : strata.entrySet()) {
+            Stratum<T> s = entry.getValue();
+            long proportional = total > 0 ? Math.round((double) sampleSize * s.population / total) : 0;
+            int n = (int) Math.min(s.reservoir.size(), Math.max(1, proportional));
+            allocation.put(entry.getKey(), n);
+            allocated += n;
+        }
+
+        // Rounding and the one-per-stratum floor can overshoot; take the excess back from the largest allocations
+        PriorityQueue<String> byAllocation = new PriorityQueue<>(
+                Comparator.comparingInt((String key) -> allocation.get(key)).reversed());
+        byAllocation.addAll(allocation.keySet());
+        while (allocated > sampleSize) {
+            String key = byAllocation.poll();
+            allocation.put(key, allocation.get(key) - 1);
+            allocated--;
+            if (allocation.get(key) > 1) {
+                byAllocation.add(key);
+            }
+        }
+
+        // Hand out the remaining budget one item at a time, largest strata first
+        List<String> bySize = new ArrayList<>(strata.keySet());
+        bySize.sort(Comparator.comparingLong((String key) -> strata.get(key).population).reversed());
+        boolean grew = true;
+        while (allocated < sampleSize && grew) {
+            grew = false;
+            for (String key : bySize) {
+                if (allocated >= sampleSize) {
+                    break;
+                }
+                int n = allocation.get(key);
+                if (n < strata.get(key).reservoir.size()) {
+                    allocation.put(key, n + 1);
+                    allocated++;
+                    grew = true;
+                }
+            }
+        }
+
+        Map<String, List<T>> sample = new LinkedHashMap<>();
+        allocation.forEach((key, n) -> sample.put(key, draw(strata.get(key).reservoir, n)));
+        return sample;
+    }
+
+    /**
+     * Estimates the proportion of items with some property from per-stratum sample results.
+     * Strata sampled only once contribute the maximum Bernoulli variance, since their own
+     * sample variance is undefined. Strata without a single sampled result are left out of the
+     * proportion and reported as unestimated; the interval bounds treat their rate as anywhere in [0, 1].
+     */
+    public static Estimate estimate(Collection<StratumResult> results) {
+        long population = 0;
+        long estimated = 0;
+        for (StratumResult r : results) {
+            population += r.population;
+            if (r.sampled > 0) {
+                estimated += r.population;
+            }
+        }
+        if (estimated == 0) {
+            return new Estimate(population, population, 0, 0);
+        }
+
+        double proportion = 0;
+        double variance = 0;
+        for (StratumResult r : results) {
+            if (r.sampled == 0) {
+                continue;
+            }
+            double weight = (double) r.population / estimated;
+            double p = (double) r.hits / r.sampled;
+            double finiteCorrection = 1.0 - (double) r.sampled / r.population;
+            double sampleVariance = r.sampled > 1 ? p * (1 - p) * r.sampled / (r.sampled - 1) : 0.25;
+            proportion += weight * p;
+            variance += weight * weight * finiteCorrection * sampleVariance / r.sampled;
+        }
+        return new Estimate(population, population - estimated, proportion, Math.sqrt(Math.max(0, variance)));
+    }
+
+    /**
+     * Two-sided standard normal quantile for a confidence level, e.g. 1.96 for 0.95
+     */
+    public static double zScore(double confidence) {
+        if (confidence <= 0 || confidence >= 1) {
+            throw new IllegalArgumentException("Confidence must be between 0 and 1");
+        }
+        double low = 0;
+        double high = 10;
+        for (int i = 0; i < 100; i++) {
+            double mid = (low + high) / 2;
+            if (erf(mid / Math.sqrt(2)) < confidence) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return (low + high) / 2;
+    }
+
+    /**
+     * Abramowitz and Stegun 7.1.26, accurate to about 1.5e-7
+     */
+    private static double erf(double x) {
+        double t = 1.0 / (1.0 + 0.3275911 * Math.abs(x));
+        double y = 1.0 - ((((1.061405429 * t - 1.453152027) * t + 1.421413741) * t - 0.284496736) * t
+                + 0.254829592) * t * Math.exp(-x * x);
+        return x >= 0 ? y : -y;
+    }
+
+    /**
+     * One item from each of {@code count} strata, picked without replacement with weight equal to their size
+     * (Efraimidis-Spirakis keys)
+     */
+    private Map<String, List<T>> sampleStrata(int count) {
+        Map<String, Double> keys = new HashMap<>();
+        strata.forEach((key, stratum) -> keys.put(key, -Math.log(1.0 - random.nextDouble()) / stratum.population));
+        List<String> picked = new ArrayList<>(strata.keySet());
+        picked.sort(Comparator.comparingDouble(keys::get));
+        Set<String> chosen = new HashSet<>(picked.subList(0, count));
+
+        Map<String, List<T>> sample = new LinkedHashMap<>();
+        strata.forEach((key, stratum) -> sample.put(key, chosen.contains(key) ? draw(stratum.reservoir, 1) : List.of()));
+        return sample;
+    }
+
+    /**
+     * Combines two strata. Each merged slot is drawn from one side with probability proportional to the
+     * population it has left, which samples the merged population without replacement; a side is never
+     * asked for more items than its reservoir holds.
+     */
+    private Stratum<T> merge(Stratum<T> a, Stratum<T> b) {
+        Stratum<T> merged = new Stratum<>();
+        merged.population = a.population + b.population;
+        List<T> fromA = new ArrayList<>(a.reservoir);
+        List<T> fromB = new ArrayList<>(b.reservoir);
+        Collections.shuffle(fromA, random);
+        Collections.shuffle(fromB, random);
+        long leftA = a.population;
+        long leftB = b.population;
+        int size = (int) Math.min(reservoirSize, merged.population);
+        for (int i = 0, ia = 0, ib = 0; i < size; i++) {
+            if (random.nextDouble() * (leftA + leftB) < leftA) {
+                merged.reservoir.add(fromA.get(ia++));
+                leftA--;
+            } else {
+                merged.reservoir.add(fromB.get(ib++));
+                leftB--;
+            }
+        }
+        return merged;
+    }
+
+    private List<T> draw(List<T> reservoir, int n) {
+        if (n >= reservoir.size()) {
+            return new ArrayList<>(reservoir);
+        }
+        // Partial Fisher-Yates over a copy: an unfilled reservoir is in input order, so its prefix is not random
+        List<T> copy = new ArrayList<>(reservoir);
+        for (int i = 0; i < n; i++) {
+            Collections.swap(copy, i, i + random.nextInt(copy.size() - i));
+        }
+        return new ArrayList<>(copy.subList(0, n));
+    }
+
+    private static final class Stratum<T> {
+        private final List<T> reservoir = new ArrayList<>();
+        private long population;
+    }
+
+    /**
+     * Outcome of examining one stratum's sample
+     */
+    public static final class StratumResult {
+        private final long population;
+        private final int sampled;
+        private final int hits;
+
+        public StratumResult(long population, int sampled, int hits) {
+            this.population = population;
+            this.sampled = sampled;
+            this.hits = hits;
+        }
+    }
+
+    /**
+     * Estimated proportion with its standard error over a population. The proportion covers the estimated
+     * strata only; the bounds also cover the unestimated part of the population at any rate.
+     */
+    public static final class Estimate {
+        private final long population;
+        private final long unestimatedPopulation;
+        private final double proportion;
+        private final double standardError;
+
+        Estimate(long population, long unestimatedPopulation, double proportion, double standardError) {
+            this.population = population;
+            this.unestimatedPopulation = unestimatedPopulation;
+            this.proportion = proportion;
+            this.standardError = standardError;
+        }
+
+        public long getPopulation() { return population; }
+        public long getUnestimatedPopulation() { return unestimatedPopulation; }
+        public double getProportion() { return proportion; }
+        public double getStandardError() { return standardError; }
+
+        public double lower(double z) {
+            return Math.max(0, proportion - z * standardError) * estimatedShare();
+        }
+
+        public double upper(double z) {
+            return Math.min(1, proportion + z * standardError) * estimatedShare() + (1 - estimatedShare());
+        }
+
+        private double estimatedShare() {
+            return population > 0 ? (double) (population - unestimatedPopulation) / population : 1;
+        }
+    }
+}
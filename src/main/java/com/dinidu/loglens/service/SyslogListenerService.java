@@ -0,0 +1,318 @@
+package com.dinidu.loglens.service;
+
+import com.dinidu.loglens.model.User;
+import com.dinidu.loglens.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Receives syslog messages (RFC 5424 and RFC 3164) over TCP and UDP on a single NIO selector thread
+ * and feeds them to the ingestion batcher on behalf of a configured user.
+ * <p>
+ * TCP accepts both octet-counted and newline-delimited framing (RFC 6587). The selector thread never
+ * waits for the ingestion buffer: when it is full, a TCP connection stops being read until its pending
+ * frames are accepted, so the sender is slowed down by its socket buffer filling up, while the other
+ * connections keep flowing. UDP datagrams are dropped instead.
+ */
+@Service
+@Slf4j
+public class SyslogListenerService {
+
+    private static final int MAX_DATAGRAM_BYTES = 65535;
+    private static final long RESUME_POLL_MILLIS = 50;
+
+    private final LogIngestionService logIngestionService;
+    private final UserRepository userRepository;
+
+    @Value("${log.ingest.syslog.enabled:false}")
+    private boolean enabled;
+
+    @Value("${log.ingest.syslog.bind-address:0.0.0.0}")
+    private String bindAddress;
+
+    @Value("${log.ingest.syslog.tcp-port:5140}")
+    private int tcpPort;
+
+    @Value("${log.ingest.syslog.udp-port:5140}")
+    private int udpPort;
+
+    @Value("${log.ingest.syslog.user-id:0}")
+    private long userId;
+
+    @Value("${log.ingest.syslog.max-frame-bytes:65536}")
+    private int maxFrameBytes;
+
+    @Value("${log.ingest.syslog.max-connections:256}")
+    private int maxConnections;
+
+    private final AtomicLong receivedMessages = new AtomicLong();
+    private final AtomicLong droppedMessages = new AtomicLong();
+    private final List<SelectionKey> pausedKeys = new ArrayList<>();
+
+    private volatile boolean running;
+    private Selector selector;
+    private Thread listener;
+    private User user;
+    private int openConnections;
+
+    public SyslogListenerService(LogIngestionService logIngestionService, UserRepository userRepository) {
+        this.logIngestionService = logIngestionService;
+        this.userRepository = userRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        user = userRepository.findById(userId).orElse(null);
+        if (user == null) {
+            log.warn("Syslog listener is enabled but user {} does not exist, not starting", userId);
+            return;
+        }
+
+        try {
+            selector = Selector.open();
+            if (tcpPort > 0) {
+                ServerSocketChannel server = ServerSocketChannel.open();
+                server.bind(new InetSocketAddress(bindAddress, tcpPort));
+                server.configureBlocking(false);
+                server.register(selector, SelectionKey.OP_ACCEPT);
+                log.info("Syslog listener accepting TCP on {}:{}", bindAddress, tcpPort);
+            }
+            if (udpPort > 0) {
+                DatagramChannel udp = DatagramChannel.open();
+                udp.bind(new InetSocketAddress(bindAddress, udpPort));
+                udp.configureBlocking(false);
+                udp.register(selector, SelectionKey.OP_READ, ByteBuffer.allocateDirect(MAX_DATAGRAM_BYTES));
+                log.info("Syslog listener receiving UDP on {}:{}", bindAddress, udpPort);
+            }
+        } catch (IOException e) {
+            log.error("Could not start syslog listener: {}", e.getMessage(), e);
+            return;
+        }
+
+        running = true;
+        listener = new Thread(this::runSelector, "Syslog-Listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        listener.join(5000);
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    private void runSelector() {
+        while (running) {
+            try {
+                selector.select(pausedKeys.isEmpty() ? 1000 : RESUME_POLL_MILLIS);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept((ServerSocketChannel) key.channel());
+                    } else if (key.channel() instanceof DatagramChannel) {
+                        receiveDatagram(key);
+                    } else if (key.isReadable()) {
+                        readStream(key);
+                    }
+                }
+                resumePausedConnections();
+            } catch (Exception e) {
+                log.warn("Syslog listener error: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void accept(ServerSocketChannel server) throws IOException {
+        SocketChannel client = server.accept();
+        if (client == null) {
+            return;
+        }
+        if (openConnections >= maxConnections) {
+            client.close();
+            return;
+        }
+        client.configureBlocking(false);
+        client.register(selector, SelectionKey.OP_READ, ByteBuffer.allocate(maxFrameBytes));
+        openConnections++;
+    }
+
+    private void receiveDatagram(SelectionKey key) throws IOException {
+        DatagramChannel channel = (DatagramChannel) key.channel();
+        ByteBuffer buffer = (ByteBuffer) key.attachment();
+        // Drain every datagram that is ready before going back to the selector
+        while (true) {
+            buffer.clear();
+            if (channel.receive(buffer) == null) {
+                return;
+            }
+            buffer.flip();
+            String frame = StandardCharsets.UTF_8.decode(buffer).toString();
+            receivedMessages.incrementAndGet();
+            if (!logIngestionService.trySubmit(user, SyslogMessageParser.toLogLine(frame), "syslog-udp")) {
+                droppedMessages.incrementAndGet();
+            }
+        }
+    }
+
+    private void readStream(SelectionKey key) throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        ByteBuffer buffer = (ByteBuffer) key.attachment();
+
+        int read;
+        try {
+            read = channel.read(buffer);
+        } catch (IOException e) {
+            read = -1;
+        }
+        if (read < 0) {
+            close(key);
+            return;
+        }
+
+        if (!submitFrames(buffer)) {
+            // Stop reading until the buffered frames are accepted; see resumePausedConnections
+            key.interestOps(0);
+            pausedKeys.add(key);
+            return;
+        }
+
+        // A frame that does not fit into the buffer can never complete
+        if (!buffer.hasRemaining()) {
+            log.warn("Dropping syslog connection that sent a frame over {} bytes", maxFrameBytes);
+            droppedMessages.incrementAndGet();
+            close(key);
+        }
+    }
+
+    /**
+     * Retries the buffered frames of paused connections and reads from them again once all were accepted
+     */
+    private void resumePausedConnections() {
+        Iterator<SelectionKey> keys = pausedKeys.iterator();
+        while (keys.hasNext()) {
+            SelectionKey key = keys.next();
+            if (!key.isValid()) {
+                keys.remove();
+            } else if (submitFrames((ByteBuffer) key.attachment())) {
+                key.interestOps(SelectionKey.OP_READ);
+                keys.remove();
+            }
+        }
+    }
+
+    /**
+     * Submits the complete frames in a connection buffer (in write mode), keeping the rest for later
+     *
+     * @return false if the ingestion buffer was full and a frame is still waiting
+     */
+    private boolean submitFrames(ByteBuffer buffer) {
+        buffer.flip();
+        boolean accepted = true;
+        while (buffer.hasRemaining()) {
+            int start = buffer.position();
+            int frameLength = nextFrameLength(buffer);
+            if (frameLength < 0) {
+                break;
+            }
+            byte[] frame = new byte[frameLength];
+            buffer.get(frame);
+            if (!submitFrame(new String(frame, StandardCharsets.UTF_8))) {
+                buffer.position(start);
+                accepted = false;
+                break;
+            }
+        }
+        buffer.compact();
+        return accepted;
+    }
+
+    /**
+     * Positions the buffer at the start of the next complete frame and returns its length,
+     * or returns -1 with the position unchanged if the frame is incomplete
+     */
+    private static int nextFrameLength(ByteBuffer buffer) {
+        int start = buffer.position();
+        byte first = buffer.get(start);
+
+        if (first >= '1' && first <= '9') {
+            // Octet counting: MSG-LEN SP SYSLOG-MSG
+            int length = 0;
+            int i = start;
+            while (i < buffer.limit() && buffer.get(i) >= '0' && buffer.get(i) <= '9') {
+                length = length * 10 + (buffer.get(i) - '0');
+                if (length > buffer.capacity()) {
+                    return -1;
+                }
+                i++;
+            }
+            if (i >= buffer.limit() || buffer.get(i) != ' ' || i + 1 + length > buffer.limit()) {
+                return -1;
+            }
+            buffer.position(i + 1);
+            return length;
+        }
+
+        // Non-transparent framing: the frame ends at a line feed
+        for (int i = start; i < buffer.limit(); i++) {
+            if (buffer.get(i) == '\n') {
+                return i + 1 - start;
+            }
+        }
+        return -1;
+    }
+
+    private boolean submitFrame(String frame) {
+        if (frame.isBlank()) {
+            return true;
+        }
+        if (!logIngestionService.offer(user, SyslogMessageParser.toLogLine(frame), "syslog-tcp")) {
+            return false;
+        }
+        receivedMessages.incrementAndGet();
+        return true;
+    }
+
+    private void close(SelectionKey key) throws IOException {
+        key.cancel();
+        key.channel().close();
+        openConnections--;
+    }
+
+    public long getReceivedMessages() {
+        return receivedMessages.get();
+    }
+
+    public long getDroppedMessages() {
+        return droppedMessages.get();
+    }
+}
@@ -0,0 +1,165 @@
+package com.dinidu.loglens.service;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Converts RFC 5424 and RFC 3164 syslog messages into the "timestamp [LEVEL] message" line format
+ * understood by the log parser. The syslog severity becomes the log level.
+ */
+public final class SyslogMessageParser {
+
+    private static final DateTimeFormatter LINE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter RFC3164_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy MMM d HH:mm:ss", Locale.ENGLISH);
+    private static final Pattern RFC3164_HEADER =
+            Pattern.compile("^([A-Z][a-z]{2})\\s+(\\d{1,2})\\s+(\\d{2}:\\d{2}:\\d{2})\\s+(\\S+)\\s+(.*)$", Pattern.DOTALL);
+    private static final String NIL = "-";
+
+    private SyslogMessageParser() {
+    }
+
+    /**
+     * Converts a syslog frame to a log line. Frames without a valid PRI header are returned unchanged.
+     */
+    public static String toLogLine(String frame) {
+        String text = frame.strip();
+        int close = text.indexOf('>');
+        if (!text.startsWith("<") || close < 2 || close > 4) {
+            return text;
+        }
+
+        int priority;
+        try {
+            priority = Integer.parseInt(text.substring(1, close));
+        } catch (NumberFormatException e) {
+            return text;
+        }
+        if (priority > 191) {
+            return text;
+        }
+
+        String level = levelOf(priority % 8);
+        String rest = text.substring(close + 1);
+        return rest.startsWith("1 ") ? parseRfc5424(rest.substring(2), level) : parseRfc3164(rest, level);
+    }
+
+    /**
+     * Maps a syslog severity (0-7) to a log level
+     */
+    public static String levelOf(int severity) {
+        switch (severity) {
+            case 0:
+            case 1:
+            case 2:
+                return "FATAL";
+            case 3:
+                return "ERROR";
+            case 4:
+                return "WARN";
+            case 7:
+                return "DEBUG";
+            default:
+                return "INFO";
+        }
+    }
+
+    /**
+     * TIMESTAMP HOSTNAME APP-NAME PROCID MSGID STRUCTURED-DATA [MSG]
+     */
+    private static String parseRfc5424(String text, String level) {
+        String[] header = new String[5];
+        int position = 0;
+        for (int i = 0; i < header.length; i++) {
+            int space = text.indexOf(' ', position);
+            if (space < 0) {
+                return format(LocalDateTime.now(), level, null, null, text);
+            }
+            header[i] = text.substring(position, space);
+            position = space + 1;
+        }
+
+        position = skipStructuredData(text, position);
+        String message = position < text.length() ? text.substring(position) : "";
+        if (message.startsWith("\uFEFF")) {
+            message = message.substring(1);
+        }
+
+        return format(parseRfc5424Timestamp(header[0]), level, header[1], header[2], message);
+    }
+
+    private static int skipStructuredData(String text, int position) {
+        if (position >= text.length()) {
+            return position;
+        }
+        if (text.charAt(position) == '-') {
+            return Math.min(position + 2, text.length());
+        }
+
+        int i = position;
+        while (i < text.length() && text.charAt(i) == '[') {
+            // Param values may contain escaped closing brackets
+            i++;
+            while (i < text.length() && text.charAt(i) != ']') {
+                i += text.charAt(i) == '\\' ? 2 : 1;
+            }
+            i++;
+        }
+        return Math.min(i < text.length() && text.charAt(i) == ' ' ? i + 1 : i, text.length());
+    }
+
+    private static LocalDateTime parseRfc5424Timestamp(String value) {
+        if (NIL.equals(value)) {
+            return LocalDateTime.now();
+        }
+        try {
+            return OffsetDateTime.parse(value).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        } catch (DateTimeParseException e) {
+            return LocalDateTime.now();
+        }
+    }
+
+    /**
+     * Mmm dd hh:mm:ss HOSTNAME TAG: MSG
+     */
+    private static String parseRfc3164(String text, String level) {
+        Matcher matcher = RFC3164_HEADER.matcher(text);
+        if (!matcher.matches()) {
+            return format(LocalDateTime.now(), level, null, null, text);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime timestamp;
+        try {
+            timestamp = LocalDateTime.parse(now.getYear() + " " + matcher.group(1) + " " + matcher.group(2)
+                    + " " + matcher.group(3), RFC3164_TIMESTAMP);
+            // The year is not transmitted, so a date in the future belongs to last year
+            if (timestamp.isAfter(now.plusDays(1))) {
+                timestamp = timestamp.minusYears(1);
+            }
+        } catch (DateTimeParseException e) {
+            timestamp = now;
+        }
+
+        return format(timestamp, level, matcher.group(4), null, matcher.group(5));
+    }
+
+    private static String format(LocalDateTime timestamp, String level, String host, String appName, String message) {
+        StringBuilder line = new StringBuilder(message.length() + 64)
+                .append(timestamp.format(LINE_TIMESTAMP))
+                .append(" [").append(level).append("] ");
+        if (host != null && !NIL.equals(host)) {
+            line.append(host).append(' ');
+        }
+        if (appName != null && !NIL.equals(appName)) {
+            line.append(appName).append(": ");
+        }
+        return line.append(message).toString();
+    }
+}
@@ -0,0 +1,86 @@
+package com.dinidu.loglens;
+
+import com.dinidu.loglens.model.User;
+import com.dinidu.loglens.service.BurstDetectionService;
+import com.dinidu.loglens.service.BurstDetectionService.BurstSignal;
+import com.dinidu.loglens.service.LogTemplateExtractor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BurstDetectionServiceTest {
+
+    private BurstDetectionService burstDetectionService;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        burstDetectionService = new BurstDetectionService(true, 10, 30, 0.1, 4.0, 20, 100);
+        testUser = User.builder()
+                .id(1L)
+                .email("test@example.com")
+                .name("Test User")
+                .provider(User.Provider.GOOGLE)
+                .providerId("123456")
+                .build();
+    }
+
+    @Test
+    void testTemplateExtraction_MasksVariableTokens() {
+        assertEquals("Request <*> took <*>", LogTemplateExtractor.extract("Request 1234 took 56ms"));
+        assertEquals(LogTemplateExtractor.extract("User 42 logged in"),
+                LogTemplateExtractor.extract("User  7 logged in"));
+        assertEquals("Session <*> expired", LogTemplateExtractor.extract("Session deadbeefcafe expired"));
+    }
+
+    @Test
+    void testSteadyRate_NoSpike() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 15, 10, 0, 0);
+
+        // Five occurrences per 10s bucket for ten minutes
+        for (int second = 0; second < 600; second += 2) {
+            BurstDetectionService.BurstObservation observation = burstDetectionService.observe(
+                    testUser, "Health check OK in " + second + "ms", start.plusSeconds(second));
+            assertEquals(BurstSignal.NONE, observation.getSignal());
+        }
+    }
+
+    @Test
+    void testRepeatedMessage_FlagsOnsetOncePerBucket() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 15, 10, 0, 0);
+        for (int second = 0; second < 300; second += 5) {
+            burstDetectionService.observe(testUser, "Cache refreshed", start.plusSeconds(second));
+        }
+
+        LocalDateTime burstTime = start.plusSeconds(300);
+        int onsets = 0;
+        int ongoing = 0;
+        for (int i = 0; i < 1000; i++) {
+            BurstSignal signal = burstDetectionService.observe(testUser, "Cache refreshed", burstTime).getSignal();
+            if (signal == BurstSignal.ONSET) {
+                onsets++;
+            } else if (signal == BurstSignal.ONGOING) {
+                ongoing++;
+            }
+        }
+
+        assertEquals(1, onsets);
+        assertTrue(ongoing > 900);
+    }
+
+    @Test
+    void testBurstsAreTrackedPerUser() {
+        User otherUser = User.builder().id(2L).build();
+        LocalDateTime time = LocalDateTime.of(2024, 1, 15, 10, 0, 0);
+
+        for (int i = 0; i < 19; i++) {
+            burstDetectionService.observe(testUser, "Connection reset", time);
+        }
+
+        assertEquals(BurstSignal.NONE, burstDetectionService.observe(otherUser, "Connection reset", time).getSignal());
+        assertEquals(BurstSignal.ONSET, burstDetectionService.observe(testUser, "Connection reset", time).getSignal());
+    }
+}
@@ -0,0 +1,115 @@
+package com.dinidu.loglens;
+
+import com.dinidu.loglens.model.User;
+import com.dinidu.loglens.service.FairWorkScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FairWorkSchedulerTest {
+
+    private static final User BULK_USER = User.builder().id(1L).build();
+    private static final User SMALL_USER = User.builder().id(2L).build();
+
+    private FairWorkScheduler scheduler;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void testSmallJobIsNotStarvedByBulkJob() throws Exception {
+        scheduler = new FairWorkScheduler(1, 1, 1, "");
+        List<String> order = runBlocked(20, 2);
+
+        // With equal weights the small user's tasks alternate with the bulk user's
+        assertTrue(order.indexOf("small-1") <= 4, order.toString());
+        assertEquals(22, order.size());
+    }
+
+    @Test
+    void testWeightsControlShare() throws Exception {
+        scheduler = new FairWorkScheduler(1, 1, 1, "1:3");
+        List<String> order = runBlocked(12, 12);
+
+        // The bulk user has three times the weight, so it gets three slots per round
+        List<String> firstRounds = order.subList(1, 9);
+        long bulk = firstRounds.stream().filter(name -> name.startsWith("bulk")).count();
+        assertEquals(6, bulk, order.toString());
+    }
+
+    @Test
+    void testHighLaneRunsFirstWithinUser() throws Exception {
+        scheduler = new FairWorkScheduler(1, 1, 1, "");
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+        CompletableFuture<String> blocker = scheduler.submit(BULK_USER, () -> {
+            awaitQuietly(release);
+            return "blocker";
+        });
+        CompletableFuture<String> normal = scheduler.submit(SMALL_USER, () -> record(order, "info"));
+        CompletableFuture<String> high = scheduler.submit(SMALL_USER, FairWorkScheduler.Lane.HIGH,
+                () -> record(order, "error"));
+
+        release.countDown();
+        CompletableFuture.allOf(blocker, normal, high).get(10, TimeUnit.SECONDS);
+        assertEquals(List.of("error", "info"), order);
+    }
+
+    @Test
+    void testInvalidWeightsRejected() {
+        scheduler = new FairWorkScheduler(1, 1, 1, "");
+        assertThrows(IllegalArgumentException.class, () -> new FairWorkScheduler(0, 1, 1, "1:0"));
+        assertThrows(IllegalArgumentException.class, () -> new FairWorkScheduler(0, 1, 1, "oops"));
+    }
+
+    /**
+     * Holds the single worker busy while both users queue their tasks, then records the execution order
+     */
+    private List<String> runBlocked(int bulkTasks, int smallTasks) throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+
+        futures.add(scheduler.submit(BULK_USER, () -> {
+            awaitQuietly(release);
+            order.add("bulk-0");
+            return "bulk-0";
+        }));
+        for (int i = 1; i < bulkTasks; i++) {
+            String name = "bulk-" + i;
+            futures.add(scheduler.submit(BULK_USER, () -> record(order, name)));
+        }
+        for (int i = 1; i <= smallTasks; i++) {
+            String name = "small-" + i;
+            futures.add(scheduler.submit(SMALL_USER, () -> record(order, name)));
+        }
+
+        release.countDown();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+        return new ArrayList<>(order);
+    }
+
+    private static String record(List<String> order, String name) {
+        order.add(name);
+        return name;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
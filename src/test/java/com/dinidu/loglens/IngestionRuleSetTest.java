@@ -0,0 +1,92 @@
+package com.dinidu.loglens;
+
+import com.dinidu.loglens.model.IngestionRule;
+import com.dinidu.loglens.service.AhoCorasick;
+import com.dinidu.loglens.service.IngestionRuleSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IngestionRuleSetTest {
+
+    @Test
+    void testAhoCorasick_FindsOverlappingAndNestedPatterns() {
+        AhoCorasick automaton = new AhoCorasick(List.of("he", "she", "his", "hers", "health"));
+        BitSet matched = new BitSet();
+
+        automaton.findAll("ushers", matched);
+
+        assertTrue(matched.get(0));
+        assertTrue(matched.get(1));
+        assertFalse(matched.get(2));
+        assertTrue(matched.get(3));
+        assertFalse(matched.get(4));
+    }
+
+    @Test
+    void testEvaluate_FirstMatchingRuleByPriorityWins() {
+        IngestionRuleSet rules = IngestionRuleSet.compile(List.of(
+                rule(1L, 20, IngestionRule.Action.DROP, null, IngestionRule.MatchType.SUBSTRING, "/health", null),
+                rule(2L, 10, IngestionRule.Action.ANALYZE, "ERROR", IngestionRule.MatchType.SUBSTRING, "/health", null)));
+
+        assertEquals(2L, rules.evaluate("ERROR", "GET /health failed", "app.log").getId());
+        assertEquals(1L, rules.evaluate("INFO", "GET /health 200", "app.log").getId());
+        assertNull(rules.evaluate("INFO", "GET /orders 200", "app.log"));
+    }
+
+    @Test
+    void testEvaluate_RegexTemplateLevelAndSourceConditions() {
+        IngestionRuleSet rules = IngestionRuleSet.compile(List.of(
+                rule(1L, 1, IngestionRule.Action.STORE_ONLY, null, IngestionRule.MatchType.REGEX, "took \\d+ms", null),
+                rule(2L, 2, IngestionRule.Action.DROP, null, IngestionRule.MatchType.TEMPLATE, "Heartbeat <*> ok", null),
+                rule(3L, 3, IngestionRule.Action.DROP, "debug,trace", null, null, null),
+                rule(4L, 4, IngestionRule.Action.STORE_ONLY, null, null, null, "nginx")));
+
+        assertEquals(1L, rules.evaluate("INFO", "Request took 45ms", "app.log").getId());
+        assertEquals(2L, rules.evaluate("INFO", "Heartbeat 17 ok", "app.log").getId());
+        assertEquals(3L, rules.evaluate("DEBUG", "cache miss", "app.log").getId());
+        assertEquals(4L, rules.evaluate("INFO", "GET /", "nginx-access.log").getId());
+        assertNull(rules.evaluate("INFO", "Request took long", "app.log"));
+        assertNull(rules.evaluate("INFO", "GET /", null));
+    }
+
+    @Test
+    void testEvaluate_RegexWithoutMetacharactersMatchesAsLiteral() {
+        IngestionRuleSet rules = IngestionRuleSet.compile(List.of(
+                rule(1L, 1, IngestionRule.Action.DROP, null, IngestionRule.MatchType.REGEX, "kube-probe", null),
+                rule(2L, 2, IngestionRule.Action.DROP, null, IngestionRule.MatchType.REGEX, "(a)\\1", null)));
+
+        assertEquals(1L, rules.evaluate("INFO", "GET / kube-probe/1.29", null).getId());
+        assertEquals(2L, rules.evaluate("INFO", "baab", null).getId());
+        assertNull(rules.evaluate("INFO", "ab", null));
+    }
+
+    @Test
+    void testCompile_SkipsDisabledRulesAndRejectsInvalidRegex() {
+        IngestionRule disabled = rule(1L, 1, IngestionRule.Action.DROP, null, null, null, null);
+        disabled.setEnabled(false);
+
+        assertTrue(IngestionRuleSet.compile(List.of(disabled)).isEmpty());
+        assertThrows(PatternSyntaxException.class, () -> IngestionRuleSet.compile(List.of(
+                rule(2L, 1, IngestionRule.Action.DROP, null, IngestionRule.MatchType.REGEX, "(unclosed", null))));
+    }
+
+    private static IngestionRule rule(Long id, int priority, IngestionRule.Action action, String levels,
+                                      IngestionRule.MatchType matchType, String pattern, String sourcePattern) {
+        return IngestionRule.builder()
+                .id(id)
+                .name("rule-" + id)
+                .priority(priority)
+                .action(action)
+                .levels(levels)
+                .matchType(matchType)
+                .pattern(pattern)
+                .sourcePattern(sourcePattern)
+                .enabled(true)
+                .build();
+    }
+}
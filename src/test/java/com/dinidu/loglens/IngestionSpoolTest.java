@@ -0,0 +1,169 @@
+package com.dinidu.loglens;
+
+import com.dinidu.loglens.service.IngestionSpool;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IngestionSpoolTest {
+
+    private static final int HEADER_BYTES = 16;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testAppendAndRead() throws IOException {
+        try (IngestionSpool spool = new IngestionSpool(directory, 1024 * 1024, 4096)) {
+            spool.append(1L, bytes("first"));
+            spool.appendAll(2L, List.of(bytes("second"), bytes("third")));
+
+            List<IngestionSpool.SpoolRecord> records = spool.read(0, 10);
+            assertEquals(3, records.size());
+            assertEquals("first", text(records.get(0)));
+            assertEquals(1L, records.get(0).getUserId());
+            assertEquals("third", text(records.get(2)));
+            assertEquals(2L, records.get(2).getUserId());
+            assertEquals(records.get(0).getNextOffset(), records.get(1).getOffset());
+        }
+    }
+
+    @Test
+    void testReplayFromCheckpointAfterReopen() throws IOException {
+        try (IngestionSpool spool = new IngestionSpool(directory, 1024 * 1024, 4096)) {
+            spool.append(1L, bytes("processed"));
+            spool.append(1L, bytes("pending"));
+            spool.commit(spool.read(0, 1).get(0).getNextOffset());
+        }
+
+        try (IngestionSpool spool = new IngestionSpool(directory, 1024 * 1024, 4096)) {
+            List<IngestionSpool.SpoolRecord> records = spool.read(spool.getCheckpoint(), 10);
+            assertEquals(1, records.size());
+            assertEquals("pending", text(records.get(0)));
+        }
+    }
+
+    @Test
+    void testTornTailIsTruncatedOnOpen() throws IOException {
+        long end;
+        try (IngestionSpool spool = new IngestionSpool(directory, 1024 * 1024, 4096)) {
+            end = spool.append(1L, bytes("complete"));
+        }
+
+        // Simulate a crash in the middle of writing the next record
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 42, 1, 2, 3}));
+        }
+
+        try (IngestionSpool spool = new IngestionSpool(directory, 1024 * 1024, 4096)) {
+            assertEquals(end, spool.getDurableOffset());
+            assertEquals(1, spool.read(0, 10).size());
+
+            spool.append(1L, bytes("after restart"));
+            List<IngestionSpool.SpoolRecord> records = spool.read(0, 10);
+            assertEquals(2, records.size());
+            assertEquals("after restart", text(records.get(1)));
+        }
+    }
+
+    @Test
+    void testSegmentsRollAndConsumedSegmentsAreDeleted() throws IOException {
+        try (IngestionSpool spool = new IngestionSpool(directory, 100, 4096)) {
+            for (int i = 0; i < 10; i++) {
+                spool.append(1L, bytes("record number " + i));
+            }
+            assertTrue(spool.getSegmentCount() > 1);
+
+            List<IngestionSpool.SpoolRecord> records = spool.read(0, 100);
+            assertEquals(10, records.size());
+            assertEquals("record number 9", text(records.get(9)));
+
+            spool.commit(records.get(9).getNextOffset());
+            assertEquals(1, spool.getSegmentCount());
+            assertEquals(1, segments().size());
+            assertTrue(spool.read(spool.getCheckpoint(), 10).isEmpty());
+        }
+    }
+
+    @Test
+    void testCorruptRecordInSealedSegmentSkipsToNextSegment() throws IOException {
+        try (IngestionSpool spool = new IngestionSpool(directory, 70, 4096)) {
+            long firstEnd = spool.append(1L, bytes("first segment a"));
+            spool.append(1L, bytes("first segment b"));
+            spool.append(1L, bytes("second segment"));
+            assertTrue(spool.getSegmentCount() > 1);
+
+            corrupt(segments().get(0), firstEnd + HEADER_BYTES);
+
+            IngestionSpool.ReadBatch batch = spool.readBatch(0, 10);
+            List<String> texts = batch.getRecords().stream().map(IngestionSpoolTest::text).collect(Collectors.toList());
+            assertEquals(List.of("first segment a", "second segment"), texts);
+            assertEquals(spool.getDurableOffset(), batch.getNextOffset());
+            assertTrue(spool.getSkippedBytes() > 0);
+        }
+    }
+
+    @Test
+    void testCorruptRecordInActiveSegmentRollsAndSkips() throws IOException {
+        try (IngestionSpool spool = new IngestionSpool(directory, 1024 * 1024, 4096)) {
+            spool.append(1L, bytes("corrupted"));
+            corrupt(segments().get(0), HEADER_BYTES);
+
+            IngestionSpool.ReadBatch batch = spool.readBatch(0, 10);
+            assertTrue(batch.getRecords().isEmpty());
+            assertTrue(batch.getNextOffset() > 0);
+            assertEquals(2, spool.getSegmentCount());
+
+            spool.append(1L, bytes("after corruption"));
+            List<IngestionSpool.SpoolRecord> records = spool.read(batch.getNextOffset(), 10);
+            assertEquals(1, records.size());
+            assertEquals("after corruption", text(records.get(0)));
+        }
+    }
+
+    @Test
+    void testOversizedRecordRejected() throws IOException {
+        try (IngestionSpool spool = new IngestionSpool(directory, 1024 * 1024, 16)) {
+            assertThrows(IllegalArgumentException.class, () -> spool.append(1L, new byte[17]));
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".wal")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Flips a payload byte at the given position of a segment file
+     */
+    private static void corrupt(Path segment, long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer value = ByteBuffer.allocate(1);
+            channel.read(value, position);
+            value.put(0, (byte) (value.get(0) ^ 0xFF));
+            channel.write(value.rewind(), position);
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(IngestionSpool.SpoolRecord record) {
+        return new String(record.getPayload(), StandardCharsets.UTF_8);
+    }
+}
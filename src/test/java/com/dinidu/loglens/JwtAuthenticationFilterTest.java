@@ -0,0 +1,154 @@
+package com.dinidu.loglens;
+
+import com.dinidu.loglens.model.User;
+import com.dinidu.loglens.repository.UserRepository;
+import com.dinidu.loglens.security.CustomOAuth2User;
+import com.dinidu.loglens.security.JwtAuthenticationFilter;
+import com.dinidu.loglens.security.JwtUtil;
+import com.dinidu.loglens.service.TokenRevocationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "test-secret-key-that-is-long-enough-for-hs256-signing";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    private JwtAuthenticationFilter filter;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000);
+        filter = new JwtAuthenticationFilter(jwtUtil, userRepository, tokenRevocationService, 100, Duration.ofMinutes(5));
+        testUser = User.builder()
+                .id(1L)
+                .email("test@example.com")
+                .name("Test User")
+                .provider(User.Provider.GOOGLE)
+                .providerId("123456")
+                .role(User.Role.USER)
+                .enabled(true)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testValidBearerToken_AuthenticatesWithCurrentUserOnEveryRequest() throws Exception {
+        when(userRepository.findByIdUnlessRevoked(eq(1L), anyString())).thenReturn(Optional.of(testUser));
+        String token = JwtUtil.generateToken(1L, testUser.getEmail(), "USER");
+
+        Authentication first = filterWithHeader("/api/logs", "Bearer " + token);
+        assertNotNull(first);
+        CustomOAuth2User principal = (CustomOAuth2User) first.getPrincipal();
+        assertEquals(1L, principal.getUser().getId());
+        assertTrue(first.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_USER")));
+
+        // The role is read from the user, not from the cached token
+        testUser.setRole(User.Role.ADMIN);
+        Authentication second = filterWithHeader("/api/logs", "Bearer " + token);
+        assertTrue(second.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN")));
+
+        testUser.setEnabled(false);
+        assertNull(filterWithHeader("/api/logs", "Bearer " + token));
+        verify(userRepository, times(3)).findByIdUnlessRevoked(eq(1L), anyString());
+    }
+
+    @Test
+    void testLogout_RevokesToken() throws Exception {
+        String token = JwtUtil.generateToken(1L, testUser.getEmail(), "USER");
+        MockHttpServletRequest logout = new MockHttpServletRequest("POST", "/api/auth/logout");
+        logout.addHeader("Authorization", "Bearer " + token);
+
+        filter.revoke(logout);
+
+        verify(tokenRevocationService).revoke(anyString(), any());
+        // The revocation list is checked in the user query, which finds nothing for a revoked token
+        when(userRepository.findByIdUnlessRevoked(eq(1L), anyString())).thenReturn(Optional.empty());
+        assertNull(filterWithHeader("/api/logs", "Bearer " + token));
+    }
+
+    @Test
+    void testInvalidToken_LeavesRequestUnauthenticated() throws Exception {
+        String token = JwtUtil.generateToken(1L, testUser.getEmail(), "USER");
+
+        assertNull(filterWithHeader("/api/logs", "Bearer " + token + "x"));
+        assertNull(filterWithHeader("/api/logs", "Basic abc"));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void testStreamTicket_ReusableForReconnectsAndOnlyForStream() throws Exception {
+        when(userRepository.findByIdUnlessRevoked(eq(1L), anyString())).thenReturn(Optional.of(testUser));
+        String ticket = JwtUtil.generateStreamTicket(1L, Duration.ofSeconds(30));
+        String token = JwtUtil.generateToken(1L, testUser.getEmail(), "USER");
+
+        MockHttpServletRequest other = new MockHttpServletRequest("GET", "/api/logs");
+        other.setParameter("ticket", ticket);
+        assertNull(filter(other));
+
+        // Bearer tokens are no longer accepted in the URL, and tickets are not bearer tokens
+        assertNull(filter(streamRequest("access_token", token)));
+        assertNull(filterWithHeader("/api/logs", "Bearer " + ticket));
+
+        // EventSource reconnects with the same URL, so the ticket keeps working until it expires
+        assertNotNull(filter(streamRequest("ticket", ticket)));
+        assertNotNull(filter(streamRequest("ticket", ticket)));
+    }
+
+    @Test
+    void testStreamTicket_ExpiredOrRevokedIsRejected() throws Exception {
+        String expired = JwtUtil.generateStreamTicket(1L, Duration.ofSeconds(-1));
+        assertNull(filter(streamRequest("ticket", expired)));
+
+        when(userRepository.findByIdUnlessRevoked(eq(1L), anyString())).thenReturn(Optional.empty());
+        String revoked = JwtUtil.generateStreamTicket(1L, Duration.ofSeconds(30));
+        assertNull(filter(streamRequest("ticket", revoked)));
+    }
+
+    private static MockHttpServletRequest streamRequest(String parameter, String value) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/logs/stream");
+        request.setParameter(parameter, value);
+        return request;
+    }
+
+    private Authentication filterWithHeader(String uri, String authorization) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.addHeader("Authorization", authorization);
+        return filter(request);
+    }
+
+    private Authentication filter(MockHttpServletRequest request) throws Exception {
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,94 @@
+package com.dinidu.loglens;
+
+import com.dinidu.loglens.dto.StageLatency;
+import com.dinidu.loglens.service.LatencyHistogram;
+import com.dinidu.loglens.service.ProcessingMetrics;
+import com.dinidu.loglens.service.StageProfile;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testEmptyHistogram_ReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.percentile(99));
+    }
+
+    @Test
+    void testPercentiles_WithinBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.record(micros * 1_000);
+        }
+
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(10_000_000, histogram.getMax());
+        assertWithin(5_000_000, histogram.percentile(50));
+        assertWithin(9_500_000, histogram.percentile(95));
+        assertWithin(9_900_000, histogram.percentile(99));
+        assertEquals(10_000_000, histogram.percentile(100));
+    }
+
+    @Test
+    void testSmallValues_AreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(3);
+        histogram.record(3);
+        histogram.record(7);
+
+        assertEquals(3, histogram.percentile(50));
+        assertEquals(7, histogram.percentile(100));
+    }
+
+    @Test
+    void testConcurrentRecording_NoLostUpdates() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    histogram.record(1_000 + i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(200_000, histogram.getCount());
+        assertEquals(50_999, histogram.getMax());
+    }
+
+    @Test
+    void testStageProfile_SnapshotSkipsUnusedStages() {
+        StageProfile profile = new StageProfile();
+        profile.record(ProcessingMetrics.STAGE_EMBED, 2_000_000);
+        profile.record(ProcessingMetrics.STAGE_EMBED, 4_000_000);
+        profile.record(ProcessingMetrics.STAGE_PARSE, 10_000);
+
+        Map<String, StageLatency> snapshot = profile.snapshot();
+
+        assertEquals(List.of(ProcessingMetrics.STAGE_PARSE, ProcessingMetrics.STAGE_EMBED),
+                new ArrayList<>(snapshot.keySet()));
+        StageLatency embed = snapshot.get(ProcessingMetrics.STAGE_EMBED);
+        assertEquals(2, embed.getCalls());
+        assertEquals(6.0, embed.getTotalMs(), 0.001);
+        assertEquals(3.0, embed.getMeanMs(), 0.001);
+        assertEquals(4.0, embed.getMaxMs(), 0.001);
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected * 0.0625,
+                "Expected " + actual + " to be within 6.25% of " + expected);
+    }
+}
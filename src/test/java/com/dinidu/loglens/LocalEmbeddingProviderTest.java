@@ -0,0 +1,76 @@
+package com.dinidu.loglens;
+
+import com.dinidu.loglens.service.LocalEmbeddingProvider;
+import com.dinidu.loglens.service.ScreeningIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalEmbeddingProviderTest {
+
+    private final LocalEmbeddingProvider provider = new LocalEmbeddingProvider();
+
+    @Test
+    void testEmbed_IsDeterministicAndNormalized() {
+        List<Float> first = provider.embed("Connection refused to db-primary:5432");
+        List<Float> second = provider.embed("Connection refused to db-primary:5432");
+
+        assertEquals(LocalEmbeddingProvider.DIMENSIONS, first.size());
+        assertEquals(first, second);
+        double norm = first.stream().mapToDouble(v -> v * v).sum();
+        assertEquals(1.0, norm, 1e-5);
+    }
+
+    @Test
+    void testEmbed_NumbersAndCaseDoNotChangeTheVector() {
+        assertEquals(1.0, similarity("Request 1234 took 5ms", "request  98 took 120ms"), 1e-5);
+    }
+
+    @Test
+    void testEmbed_RelatedLinesAreCloserThanUnrelatedOnes() {
+        double related = similarity("Connection refused to db-primary", "Connection refused to db-replica");
+        double unrelated = similarity("Connection refused to db-primary", "User alice logged in from web");
+
+        assertTrue(related > 0.7, "related similarity was " + related);
+        assertTrue(unrelated < 0.3, "unrelated similarity was " + unrelated);
+    }
+
+    @Test
+    void testEmbedInto_RejectsWrongDimensions() {
+        assertThrows(IllegalArgumentException.class, () -> provider.embedInto("text", new float[10]));
+    }
+
+    @Test
+    void testScreeningIndex_FindsNearDuplicatesAndEvictsOldest() {
+        ScreeningIndex index = new ScreeningIndex(2);
+        index.add(vector("Heartbeat 1 ok"));
+        index.add(vector("Cache warmed in 12ms"));
+
+        assertTrue(index.containsSimilar(vector("Heartbeat 42 ok"), 0.95));
+        assertFalse(index.containsSimilar(vector("Disk failure on /dev/sda"), 0.95));
+
+        index.add(vector("Disk failure on /dev/sda"));
+
+        assertEquals(2, index.size());
+        assertFalse(index.containsSimilar(vector("Heartbeat 42 ok"), 0.95));
+        assertTrue(index.containsSimilar(vector("Disk failure on /dev/sda"), 0.95));
+    }
+
+    private float[] vector(String text) {
+        float[] vector = new float[LocalEmbeddingProvider.DIMENSIONS];
+        provider.embedInto(text, vector);
+        return vector;
+    }
+
+    private double similarity(String left, String right) {
+        float[] a = vector(left);
+        float[] b = vector(right);
+        double dot = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+        }
+        return dot;
+    }
+}
@@ -64,7 +64,7 @@ class LogProcessingServiceTest {
         );
 
         // Mock AI service responses
-        when(aiService.generateEmbedding(anyString()))
+        when(aiService.generateEmbedding(eq(testUser), anyString()))
                 .thenReturn(Arrays.asList(0.1f, 0.2f, 0.3f, 0.4f));
         when(aiService.getExplanation(anyString(), anyList()))
                 .thenReturn("This error indicates a database connectivity issue");
@@ -85,7 +85,7 @@ class LogProcessingServiceTest {
         // LogProcessingResult result = logProcessingService.processLogFile(file, testUser);
 
         // Verify interactions
-        verify(aiService, times(3)).generateEmbedding(anyString());
+        verify(aiService, times(3)).generateEmbedding(eq(testUser), anyString());
         verify(anomalyDetectionService, times(3)).detectAnomaly(anyList(), eq(testUser), anyDouble());
     }
 }
\ No newline at end of file
@@ -0,0 +1,162 @@
+package com.dinidu.loglens;
+
+import com.dinidu.loglens.service.StratifiedSampler;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StratifiedSamplerTest {
+
+    @Test
+    void testSample_AllocatesProportionallyWithAtLeastOnePerStratum() {
+        StratifiedSampler<Integer> sampler = new StratifiedSampler<>(1000, 42);
+        for (int i = 0; i < 9000; i++) {
+            sampler.offer("common", i);
+        }
+        for (int i = 0; i < 990; i++) {
+            sampler.offer("uncommon", i);
+        }
+        for (int i = 0; i < 10; i++) {
+            sampler.offer("rare", i);
+        }
+
+        Map<String, List<Integer>> sample = sampler.sample(100);
+
+        assertEquals(10_000, sampler.getTotal());
+        assertEquals(3, sampler.getStrataCount());
+        // The floor for "rare" is taken back from the largest stratum so the budget holds
+        assertEquals(89, sample.get("common").size());
+        assertEquals(10, sample.get("uncommon").size());
+        assertEquals(1, sample.get("rare").size());
+    }
+
+    @Test
+    void testSample_RedistributesBudgetFromCappedStrata() {
+        StratifiedSampler<Integer> sampler = new StratifiedSampler<>(10, 42);
+        for (int i = 0; i < 1000; i++) {
+            sampler.offer("large", i);
+        }
+        for (int i = 0; i < 10; i++) {
+            sampler.offer("small", i);
+        }
+
+        // "large" is capped at its reservoir, so the rest of the budget goes to "small"
+        Map<String, List<Integer>> sample = sampler.sample(15);
+
+        assertEquals(10, sample.get("large").size());
+        assertEquals(5, sample.get("small").size());
+        assertEquals(10, new HashSet<>(sample.get("large")).size());
+    }
+
+    @Test
+    void testSample_NeverExceedsBudgetWithMoreStrataThanBudget() {
+        StratifiedSampler<Integer> sampler = new StratifiedSampler<>(10, 42);
+        for (int stratum = 0; stratum < 50; stratum++) {
+            for (int i = 0; i < 20; i++) {
+                sampler.offer("s" + stratum, i);
+            }
+        }
+
+        Map<String, List<Integer>> sample = sampler.sample(10);
+
+        assertEquals(50, sample.size());
+        assertEquals(10, sample.values().stream().mapToInt(List::size).sum());
+        assertEquals(10, sample.values().stream().filter(items -> !items.isEmpty()).count());
+    }
+
+    @Test
+    void testSample_OnePerStratumFloorStaysWithinBudget() {
+        StratifiedSampler<Integer> sampler = new StratifiedSampler<>(100, 42);
+        for (int i = 0; i < 1000; i++) {
+            sampler.offer("large", i);
+        }
+        for (int stratum = 0; stratum < 9; stratum++) {
+            sampler.offer("tiny" + stratum, stratum);
+        }
+
+        Map<String, List<Integer>> sample = sampler.sample(10);
+
+        assertEquals(10, sample.values().stream().mapToInt(List::size).sum());
+        assertTrue(sample.values().stream().noneMatch(List::isEmpty));
+    }
+
+    @Test
+    void testCoarsen_MergesStrataIntoUniformReservoirs() {
+        StratifiedSampler<Integer> sampler = new StratifiedSampler<>(20, 42);
+        for (int i = 0; i < 100; i++) {
+            sampler.offer("a|x", i);
+            sampler.offer("a|y", 1000 + i);
+            sampler.offer("b|x", 2000 + i);
+        }
+
+        sampler.coarsen(key -> key.substring(0, key.indexOf('|')));
+
+        assertEquals(2, sampler.getStrataCount());
+        assertEquals(200, sampler.getPopulation("a"));
+        assertEquals(100, sampler.getPopulation("b"));
+        List<Integer> merged = sampler.sample(40).get("a");
+        assertEquals(20, merged.size());
+        assertEquals(20, new HashSet<>(merged).size());
+        assertTrue(merged.stream().anyMatch(i -> i < 1000) && merged.stream().anyMatch(i -> i >= 1000));
+    }
+
+    @Test
+    void testEstimate_UnscoredStrataWidenTheInterval() {
+        StratifiedSampler.Estimate estimate = StratifiedSampler.estimate(List.of(
+                new StratifiedSampler.StratumResult(100, 100, 10),
+                new StratifiedSampler.StratumResult(100, 0, 0)));
+
+        double z = StratifiedSampler.zScore(0.95);
+        assertEquals(200, estimate.getPopulation());
+        assertEquals(100, estimate.getUnestimatedPopulation());
+        assertEquals(0.1, estimate.getProportion(), 1e-9);
+        assertEquals(0.05, estimate.lower(z), 1e-9);
+        assertEquals(0.55, estimate.upper(z), 1e-9);
+    }
+
+    @Test
+    void testEstimate_FullyObservedStrataHaveNoError() {
+        StratifiedSampler.Estimate estimate = StratifiedSampler.estimate(List.of(
+                new StratifiedSampler.StratumResult(100, 100, 10),
+                new StratifiedSampler.StratumResult(300, 300, 0)));
+
+        assertEquals(400, estimate.getPopulation());
+        assertEquals(0.025, estimate.getProportion(), 1e-9);
+        assertEquals(0.0, estimate.getStandardError(), 1e-9);
+    }
+
+    @Test
+    void testEstimate_IntervalCoversTrueRate() {
+        // 2% anomalies in the first stratum, none in the second; sample 10% of each
+        StratifiedSampler<Boolean> sampler = new StratifiedSampler<>(1000, 7);
+        for (int i = 0; i < 10_000; i++) {
+            sampler.offer("errors", i % 50 == 0);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            sampler.offer("info", false);
+        }
+
+        Map<String, List<Boolean>> sample = sampler.sample(2000);
+        StratifiedSampler.Estimate estimate = StratifiedSampler.estimate(sample.entrySet().stream()
+                .map(e -> new StratifiedSampler.StratumResult(sampler.getPopulation(e.getKey()), e.getValue().size(),
+                        (int) e.getValue().stream().filter(Boolean::booleanValue).count()))
+                .toList());
+
+        double z = StratifiedSampler.zScore(0.99);
+        assertTrue(estimate.lower(z) <= 0.01 && 0.01 <= estimate.upper(z),
+                "interval " + estimate.lower(z) + ".." + estimate.upper(z) + " should cover 0.01");
+        assertTrue(estimate.getStandardError() > 0);
+    }
+
+    @Test
+    void testZScore_MatchesNormalQuantiles() {
+        assertEquals(1.645, StratifiedSampler.zScore(0.90), 1e-3);
+        assertEquals(1.960, StratifiedSampler.zScore(0.95), 1e-3);
+        assertEquals(2.576, StratifiedSampler.zScore(0.99), 1e-3);
+        assertThrows(IllegalArgumentException.class, () -> StratifiedSampler.zScore(1.0));
+    }
+}
@@ -0,0 +1,53 @@
+package com.dinidu.loglens;
+
+import com.dinidu.loglens.service.SyslogMessageParser;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyslogMessageParserTest {
+
+    private static final DateTimeFormatter LINE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Test
+    void testRfc5424_WithStructuredData() {
+        String frame = "<11>1 2024-01-15T10:30:45.123Z web01 payments 4242 ID47 "
+                + "[exampleSDID@32473 iut=\"3\" eventSource=\"Application\\]\"] Payment gateway timeout\n";
+
+        String expectedTimestamp = OffsetDateTime.parse("2024-01-15T10:30:45.123Z")
+                .atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime().format(LINE_TIMESTAMP);
+        assertEquals(expectedTimestamp + " [ERROR] web01 payments: Payment gateway timeout",
+                SyslogMessageParser.toLogLine(frame));
+    }
+
+    @Test
+    void testRfc5424_NilValues() {
+        String line = SyslogMessageParser.toLogLine("<14>1 2024-01-15T10:30:45+00:00 - - - - - Service started");
+        assertTrue(line.endsWith(" [INFO] Service started"), line);
+    }
+
+    @Test
+    void testRfc3164() {
+        String line = SyslogMessageParser.toLogLine("<12>Jan  5 08:15:02 db01 postgres[311]: checkpoint took 12s");
+        assertTrue(line.matches("\\d{4}-01-05 08:15:02 \\[WARN\\] db01 postgres\\[311\\]: checkpoint took 12s"), line);
+    }
+
+    @Test
+    void testSeverityMapping() {
+        assertEquals("FATAL", SyslogMessageParser.levelOf(0));
+        assertEquals("ERROR", SyslogMessageParser.levelOf(3));
+        assertEquals("WARN", SyslogMessageParser.levelOf(4));
+        assertEquals("INFO", SyslogMessageParser.levelOf(6));
+        assertEquals("DEBUG", SyslogMessageParser.levelOf(7));
+    }
+
+    @Test
+    void testNonSyslogLine_ReturnedUnchanged() {
+        assertEquals("2024-01-15 10:30:45 [INFO] plain line",
+                SyslogMessageParser.toLogLine("2024-01-15 10:30:45 [INFO] plain line"));
+    }
+}
@@ -0,0 +1,192 @@
+package com.dinidu.loglens.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for the Python AI service, serving {@code /api/v1/embeddings}, {@code /api/v1/explain}
+ * and {@code /health} with simulated latency and injected errors.
+ * <p>
+ * Embeddings are deterministic: message tokens (with digits masked) are feature-hashed into a unit vector,
+ * so lines of the same template land close together and unrelated messages are nearly orthogonal.
+ */
+final class AIServiceStub implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String MODEL = "loadtest-stub";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final LatencyDistribution embeddingLatency;
+    private final LatencyDistribution explainLatency;
+    private final double errorRate;
+    private final int dimensions;
+
+    private final AtomicLong embeddingRequests = new AtomicLong();
+    private final AtomicLong explainRequests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+
+    AIServiceStub(int port, int threads, LatencyDistribution embeddingLatency, LatencyDistribution explainLatency,
+                  double errorRate, int dimensions) throws IOException {
+        this.embeddingLatency = embeddingLatency;
+        this.explainLatency = explainLatency;
+        this.errorRate = errorRate;
+        this.dimensions = dimensions;
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "AIStub-" + runnable.hashCode());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.setExecutor(executor);
+        server.createContext("/api/v1/embeddings", this::handleEmbedding);
+        server.createContext("/api/v1/explain", this::handleExplain);
+        server.createContext("/health", exchange -> respond(exchange, 200, Map.of("status", "healthy", "model", MODEL)));
+    }
+
+    void start() {
+        server.start();
+    }
+
+    int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("embeddingRequests", embeddingRequests.get());
+        stats.put("explainRequests", explainRequests.get());
+        stats.put("injectedErrors", injectedErrors.get());
+        stats.put("embeddingLatency", embeddingLatency.toString());
+        stats.put("explainLatency", explainLatency.toString());
+        stats.put("errorRate", errorRate);
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handleEmbedding(HttpExchange exchange) throws IOException {
+        embeddingRequests.incrementAndGet();
+        JsonNode request = readBody(exchange);
+        if (request == null || !request.hasNonNull("log_message")) {
+            respond(exchange, 422, Map.of("detail", "log_message is required"));
+            return;
+        }
+        if (simulate(embeddingLatency)) {
+            respond(exchange, 500, Map.of("detail", "Injected embedding failure"));
+            return;
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("embedding", embed(request.get("log_message").asText(), dimensions));
+        body.put("model_name", MODEL);
+        body.put("dimension", dimensions);
+        respond(exchange, 200, body);
+    }
+
+    private void handleExplain(HttpExchange exchange) throws IOException {
+        explainRequests.incrementAndGet();
+        JsonNode request = readBody(exchange);
+        if (request == null || !request.hasNonNull("anomalous_log")) {
+            respond(exchange, 422, Map.of("detail", "anomalous_log is required"));
+            return;
+        }
+        if (simulate(explainLatency)) {
+            respond(exchange, 500, Map.of("detail", "Injected explanation failure"));
+            return;
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("explanation", "Load test explanation for: " + request.get("anomalous_log").asText());
+        body.put("confidence_score", 0.5);
+        body.put("model_used", MODEL);
+        respond(exchange, 200, body);
+    }
+
+    /**
+     * Sleeps for a sampled latency and returns whether this request should fail
+     */
+    private boolean simulate(LatencyDistribution latency) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long millis = latency.sampleMillis(new SplittableRandom(random.nextLong()));
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (errorRate > 0 && random.nextDouble() < errorRate) {
+            injectedErrors.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Feature-hashes the message tokens into a unit vector
+     */
+    static float[] embed(String message, int dimensions) {
+        float[] vector = new float[dimensions];
+        for (String token : message.toLowerCase().replaceAll("[0-9]+", "#").split("[^a-z#]+")) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            int hash = token.hashCode();
+            for (int k = 0; k < 4; k++) {
+                hash = hash * 0x9E3779B1 + k;
+                int index = Math.floorMod(hash, dimensions);
+                vector[index] += (hash & 0x10000) != 0 ? 1f : -1f;
+            }
+        }
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm == 0) {
+            vector[0] = 1f;
+            return vector;
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] *= scale;
+        }
+        return vector;
+    }
+
+    private static JsonNode readBody(HttpExchange exchange) {
+        try (InputStream in = exchange.getRequestBody()) {
+            return MAPPER.readTree(in);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = MAPPER.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.dinidu.loglens.loadtest;
+
+import java.util.SplittableRandom;
+
+/**
+ * Simulated response latency, parsed from a short spec:
+ * {@code fixed:20}, {@code uniform:5-50} or {@code lognormal:20:0.5} (median in ms and sigma).
+ */
+final class LatencyDistribution {
+
+    private enum Kind { FIXED, UNIFORM, LOGNORMAL }
+
+    private final Kind kind;
+    private final double a;
+    private final double b;
+    private final String spec;
+
+    private LatencyDistribution(Kind kind, double a, double b, String spec) {
+        this.kind = kind;
+        this.a = a;
+        this.b = b;
+        this.spec = spec;
+    }
+
+    static LatencyDistribution parse(String spec) {
+        String[] parts = spec.trim().split(":");
+        try {
+            switch (parts[0].toLowerCase()) {
+                case "fixed":
+                    return new LatencyDistribution(Kind.FIXED, Double.parseDouble(parts[1]), 0, spec);
+                case "uniform": {
+                    String[] range = parts[1].split("-");
+                    return new LatencyDistribution(Kind.UNIFORM,
+                            Double.parseDouble(range[0]), Double.parseDouble(range[1]), spec);
+                }
+                case "lognormal":
+                    return new LatencyDistribution(Kind.LOGNORMAL,
+                            Double.parseDouble(parts[1]), Double.parseDouble(parts[2]), spec);
+                default:
+                    break;
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid latency spec: " + spec, e);
+        }
+        throw new IllegalArgumentException("Unsupported latency distribution: " + spec);
+    }
+
+    /**
+     * Draws a latency in milliseconds
+     */
+    long sampleMillis(SplittableRandom random) {
+        double millis;
+        switch (kind) {
+            case UNIFORM:
+                millis = a + random.nextDouble() * (b - a);
+                break;
+            case LOGNORMAL:
+                millis = a * Math.exp(b * random.nextGaussian());
+                break;
+            default:
+                millis = a;
+        }
+        return Math.max(0, Math.round(millis));
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+}
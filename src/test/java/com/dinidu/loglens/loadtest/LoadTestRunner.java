@@ -0,0 +1,270 @@
+package com.dinidu.loglens.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end load test against a running LogLens instance.
+ * <p>
+ * Starts the AI service stub, uploads generated log files to {@code POST /api/logs/upload} from several
+ * concurrent clients and reports throughput, upload latency percentiles and the server's heap high-water
+ * mark (sampled from {@code /actuator/prometheus}). The server must be started with
+ * {@code ai.service.base-url} pointing at the stub. Configured with {@code -Dloadtest.*} system properties;
+ * see the Load Testing section of API_USAGE_EXAMPLES.md.
+ */
+public final class LoadTestRunner {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final String target = property("target", "http://localhost:8080");
+    private final String cookie = property("cookie", "");
+    private final String authorization = property("authorization", "");
+    private final String metricsCredentials = property("metrics-credentials", "");
+    private final int uploads = Integer.parseInt(property("uploads", "10"));
+    private final int concurrency = Integer.parseInt(property("concurrency", "2"));
+    private final int lines = Integer.parseInt(property("lines", "5000"));
+    private final double anomalyRate = Double.parseDouble(property("anomaly-rate", "0.01"));
+    private final long seed = Long.parseLong(property("seed", "42"));
+    private final Duration requestTimeout = Duration.ofSeconds(Long.parseLong(property("timeout-seconds", "1800")));
+    private final long metricsIntervalMillis = Long.parseLong(property("metrics-interval-ms", "500"));
+    private final Path reportPath = Path.of(property("report", "target/loadtest-report.json"));
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private final AtomicLong heapHighWater = new AtomicLong(-1);
+
+    public static void main(String[] args) throws Exception {
+        int stubPort = Integer.parseInt(property("stub.port", "8001"));
+        try (AIServiceStub stub = new AIServiceStub(
+                stubPort,
+                Integer.parseInt(property("stub.threads", "64")),
+                LatencyDistribution.parse(property("stub.embedding-latency", "lognormal:15:0.5")),
+                LatencyDistribution.parse(property("stub.explain-latency", "lognormal:400:0.6")),
+                Double.parseDouble(property("stub.error-rate", "0")),
+                Integer.parseInt(property("stub.dimensions", "384")))) {
+            stub.start();
+            System.out.printf("AI service stub listening on http://localhost:%d%n", stub.getPort());
+
+            if (Boolean.parseBoolean(property("stub-only", "false"))) {
+                System.out.println("Stub-only mode, press Ctrl+C to stop");
+                new CountDownLatch(1).await();
+                return;
+            }
+
+            new LoadTestRunner().run(stub);
+        }
+    }
+
+    private void run(AIServiceStub stub) throws Exception {
+        Thread sampler = new Thread(this::sampleHeap, "LoadTest-HeapSampler");
+        sampler.setDaemon(true);
+        sampler.start();
+
+        System.out.printf("Uploading %d files of %d lines (anomaly rate %.3f) to %s with %d clients%n",
+                uploads, lines, anomalyRate, target, concurrency);
+
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        List<Future<UploadResult>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < uploads; i++) {
+            int upload = i;
+            futures.add(clients.submit(() -> upload(upload)));
+        }
+
+        List<UploadResult> results = new ArrayList<>();
+        for (Future<UploadResult> future : futures) {
+            results.add(future.get());
+        }
+        double wallSeconds = (System.nanoTime() - start) / 1e9;
+        clients.shutdown();
+        sampler.interrupt();
+        sampleHeapOnce();
+
+        Map<String, Object> report = report(results, wallSeconds, stub);
+        String json = MAPPER.writeValueAsString(report);
+        System.out.println(json);
+        if (reportPath.getParent() != null) {
+            Files.createDirectories(reportPath.getParent());
+        }
+        Files.writeString(reportPath, json);
+        System.out.println("Report written to " + reportPath.toAbsolutePath());
+    }
+
+    private UploadResult upload(int index) {
+        byte[] file = new LogFileGenerator(seed + index, anomalyRate).generate(lines);
+        String boundary = "loadtest-" + UUID.randomUUID();
+        byte[] body = multipart(boundary, "loadtest-" + index + ".log", file);
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(target + "/api/logs/upload"))
+                .timeout(requestTimeout)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body));
+        if (!cookie.isEmpty()) {
+            request.header("Cookie", cookie);
+        }
+        if (!authorization.isEmpty()) {
+            request.header("Authorization", authorization);
+        }
+
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            long latencyNanos = System.nanoTime() - start;
+            int processed = 0;
+            int anomalies = 0;
+            if (response.statusCode() == 200) {
+                JsonNode stats = MAPPER.readTree(response.body()).path("stats");
+                processed = stats.path("processedLines").asInt();
+                anomalies = stats.path("anomaliesDetected").asInt();
+            } else {
+                System.err.printf("Upload %d failed with status %d: %s%n", index, response.statusCode(),
+                        new String(response.body(), 0, Math.min(response.body().length, 300), StandardCharsets.UTF_8));
+            }
+            return new UploadResult(response.statusCode(), latencyNanos, processed, anomalies);
+        } catch (IOException e) {
+            System.err.printf("Upload %d failed: %s%n", index, e);
+            return new UploadResult(-1, System.nanoTime() - start, 0, 0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new UploadResult(-1, System.nanoTime() - start, 0, 0);
+        }
+    }
+
+    private Map<String, Object> report(List<UploadResult> results, double wallSeconds, AIServiceStub stub) {
+        long[] latencies = results.stream()
+                .filter(UploadResult::succeeded)
+                .mapToLong(UploadResult::latencyNanos)
+                .sorted()
+                .toArray();
+        long processedLines = results.stream().mapToLong(UploadResult::processedLines).sum();
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("target", target);
+        report.put("uploads", results.size());
+        report.put("succeeded", latencies.length);
+        report.put("failed", results.size() - latencies.length);
+        report.put("linesPerUpload", lines);
+        report.put("processedLines", processedLines);
+        report.put("anomaliesDetected", results.stream().mapToLong(UploadResult::anomalies).sum());
+        report.put("wallSeconds", round(wallSeconds));
+        report.put("linesPerSecond", round(processedLines / wallSeconds));
+        report.put("latencyP50Ms", percentileMillis(latencies, 0.50));
+        report.put("latencyP99Ms", percentileMillis(latencies, 0.99));
+        report.put("latencyMaxMs", latencies.length > 0 ? round(latencies[latencies.length - 1] / 1e6) : null);
+        report.put("heapHighWaterBytes", heapHighWater.get() >= 0 ? heapHighWater.get() : null);
+        report.put("aiStub", stub.stats());
+        return report;
+    }
+
+    /**
+     * Polls the server's heap usage until interrupted; the actuator gauge is a point sample,
+     * so the high-water mark is only as fine as the polling interval
+     */
+    private void sampleHeap() {
+        while (!Thread.currentThread().isInterrupted()) {
+            sampleHeapOnce();
+            try {
+                Thread.sleep(metricsIntervalMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void sampleHeapOnce() {
+        try {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(target + "/actuator/prometheus"))
+                    .timeout(Duration.ofSeconds(5))
+                    .GET();
+            if (!metricsCredentials.isEmpty()) {
+                builder.header("Authorization", "Basic " + Base64.getEncoder()
+                        .encodeToString(metricsCredentials.getBytes(StandardCharsets.UTF_8)));
+            }
+            HttpRequest request = builder.build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return;
+            }
+            long heapUsed = response.body().lines()
+                    .filter(line -> line.startsWith("jvm_memory_used_bytes{") && line.contains("area=\"heap\""))
+                    .mapToLong(line -> (long) Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1)))
+                    .sum();
+            heapHighWater.accumulateAndGet(heapUsed, Math::max);
+        } catch (IOException | RuntimeException e) {
+            // Metrics are best effort; the report leaves the heap figure empty if the endpoint is unreachable
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static byte[] multipart(String boundary, String fileName, byte[] content) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(content.length + 256);
+        String head = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + fileName + "\"\r\n"
+                + "Content-Type: text/plain\r\n\r\n";
+        body.writeBytes(head.getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(content);
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return body.toByteArray();
+    }
+
+    private static Double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return null;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return round(sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("loadtest." + name, defaultValue);
+    }
+
+    private static final class UploadResult {
+        private final int status;
+        private final long latencyNanos;
+        private final int processedLines;
+        private final int anomalies;
+
+        UploadResult(int status, long latencyNanos, int processedLines, int anomalies) {
+            this.status = status;
+            this.latencyNanos = latencyNanos;
+            this.processedLines = processedLines;
+            this.anomalies = anomalies;
+        }
+
+        boolean succeeded() { return status == 200; }
+        long latencyNanos() { return latencyNanos; }
+        long processedLines() { return processedLines; }
+        long anomalies() { return anomalies; }
+    }
+}
@@ -0,0 +1,59 @@
+package com.dinidu.loglens.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.SplittableRandom;
+
+/**
+ * Generates synthetic log files from a small set of routine templates, with a configurable share of
+ * lines drawn from unrelated anomaly messages
+ */
+final class LogFileGenerator {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String[][] ROUTINE = {
+            {"INFO", "Request GET /api/orders/%d completed in %d ms"},
+            {"INFO", "User %d logged in from 10.0.%d.%d"},
+            {"DEBUG", "Cache hit for key product:%d (%d entries)"},
+            {"INFO", "Scheduled job cleanup finished, removed %d rows in %d ms"},
+            {"WARN", "Slow query on orders took %d ms for customer %d"},
+            {"INFO", "Payment %d authorized for amount %d.%d"},
+    };
+
+    private static final String[][] ANOMALIES = {
+            {"ERROR", "OutOfMemoryError in worker thread %d while decoding image batch %d"},
+            {"ERROR", "Certificate for upstream gateway expired, handshake failed after %d retries"},
+            {"FATAL", "Disk volume /data%d is read-only, refusing writes for segment %d"},
+            {"ERROR", "Kafka consumer group rebalance storm: partition %d revoked %d times"},
+            {"ERROR", "Deadlock detected between transactions %d and %d on inventory table"},
+    };
+
+    private final SplittableRandom random;
+    private final double anomalyRate;
+    private LocalDateTime clock = LocalDateTime.of(2024, 1, 15, 0, 0);
+
+    LogFileGenerator(long seed, double anomalyRate) {
+        this.random = new SplittableRandom(seed);
+        this.anomalyRate = anomalyRate;
+    }
+
+    /**
+     * Returns a UTF-8 log file with the given number of lines, advancing the clock between lines
+     */
+    byte[] generate(int lines) {
+        StringBuilder file = new StringBuilder(lines * 80);
+        for (int i = 0; i < lines; i++) {
+            String[] template = random.nextDouble() < anomalyRate
+                    ? ANOMALIES[random.nextInt(ANOMALIES.length)]
+                    : ROUTINE[random.nextInt(ROUTINE.length)];
+            clock = clock.plusNanos(random.nextLong(50_000_000, 500_000_000));
+            file.append(clock.format(TIMESTAMP_FORMAT))
+                    .append(" [").append(template[0]).append("] ")
+                    .append(String.format(template[1], random.nextInt(10_000), random.nextInt(1_000), random.nextInt(100)))
+                    .append('\n');
+        }
+        return file.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}